@@ -24,6 +24,7 @@
 package com.gmarciani.gmparser.controllers;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 
@@ -38,9 +39,14 @@ import com.gmarciani.gmparser.models.commons.menu.Menus;
 import com.gmarciani.gmparser.models.grammar.Grammar;
 import com.gmarciani.gmparser.models.grammar.analysis.GrammarAnalysis;
 import com.gmarciani.gmparser.models.grammar.transformation.GrammarTransformation;
+import com.gmarciani.gmparser.models.parser.ParserFactory;
 import com.gmarciani.gmparser.models.parser.ParserType;
-import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
+import com.gmarciani.gmparser.models.parser.lr.LALROneParser;
 import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LRZeroParser;
+import com.gmarciani.gmparser.models.parser.lr.SLROneParser;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneSourceGenerator;
 import com.gmarciani.gmparser.views.AppMenus.MainMenu;
 import com.gmarciani.gmparser.views.AppMenus.ParserMenu;
 import com.gmarciani.gmparser.views.AppMenus.TransformationMenu;
@@ -159,6 +165,14 @@ public final class App {
 			if (!this.validateGrammar(grammar))				
 				return;
 			this.parse(grammar, word, parserType);
+		} else if (cmd.hasOption("generate")) {
+			final String vals[] = cmd.getOptionValues("generate");
+			final String className = vals[0];
+			final ParserType parserType = ParserType.valueOf(vals[1]);
+			final String grammar = vals[2];
+			if (!this.validateGrammar(grammar))				
+				return;
+			this.generate(grammar, className, parserType);
 		} else if (cmd.hasOption("help")) {
 			this.help();
 		} else if (cmd.hasOption("version")) {
@@ -284,12 +298,61 @@ public final class App {
 		
 		this.getOutput().onResult("Here we are! This is your parsing session results!");
 		
-		if (parser.equals(ParserType.CYK))
-			this.getOutput().onDefault(CYKParser.parseWithSession(grammar, word).toFormattedParsingSession());
-		if (parser.equals(ParserType.LR1))
-			this.getOutput().onDefault(LROneParser.parseWithSession(grammar, word).toFormattedParsingSession());
+		this.getOutput().onDefault(ParserFactory.createParser(grammar, parser).parseWithSession(word).toFormattedParsingSession());
 	}	
 	
+	/**
+	 * <p>Generates the Java source of the specialized parser class for the specified grammar, represented as a string, 
+	 * by the parse table of the specified LR parser.<p> 
+	 * <p>The source is written as {@code CLASS.java} into the working directory, where CLASS is the simple name of the class.<p>
+	 * <p>This method is activated by the command-line option {@code -generate}.<p>
+	 * 
+	 * @param strGrammar grammar to parse with, represented as a string.
+	 * @param className fully qualified name of the class to generate.
+	 * @param parser LR parser whose parse table is compiled.
+	 */
+	private void generate(String strGrammar, String className, ParserType parser) {
+		Grammar grammar = Grammar.generateGrammar(strGrammar);
+		
+		this.getOutput().onResult("This is your grammar: " + grammar);
+		this.getOutput().onResult("This is your class: " + className);
+		this.getOutput().onResult("This is your parser: " + parser);
+		
+		if (!grammar.isContextFree() && !grammar.isRegular()) {
+			this.getOutput().onWarning("Your grammar is not Context-Free, but " + grammar.getType().getName() + ". Aborting generation.");
+			return;
+		}
+		
+		LROneMatrix recognitionMatrix;
+		if (parser == ParserType.LR1) {
+			recognitionMatrix = new LROneParser(grammar).getRecognitionMatrix();
+		} else if (parser == ParserType.LALR1) {
+			recognitionMatrix = new LALROneParser(grammar).getRecognitionMatrix();
+		} else if (parser == ParserType.SLR1) {
+			recognitionMatrix = new SLROneParser(grammar).getRecognitionMatrix();
+		} else if (parser == ParserType.LR0) {
+			recognitionMatrix = new LRZeroParser(grammar).getRecognitionMatrix();
+		} else {
+			this.getOutput().onWarning("Your parser has no parse table to generate. Aborting generation.");
+			return;
+		}
+		
+		if (recognitionMatrix.getPackedActions().getConflictCount() != 0) {
+			this.getOutput().onWarning("Your grammar is not " + parser.getName() + ". Aborting generation.");
+			return;
+		}
+		
+		File file = new File(className.substring(className.lastIndexOf('.') + 1) + ".java");
+		try {
+			LROneSourceGenerator.write(recognitionMatrix, className, file);
+		} catch (IllegalArgumentException | IOException exc) {
+			this.getOutput().onException(exc.getMessage());
+			return;
+		}
+		
+		this.getOutput().onResult("Here we are! Your parser has been generated into " + file.getAbsolutePath());
+	}
+	
 	/**
 	 * <p>Shows the GMParser helper.<p> 
 	 * <p>This method is activated by the command-line option {@code -help}.<p>
@@ -410,8 +473,11 @@ public final class App {
 	/**
 	 * <p>Let the user select the desidered parse type.<p>
 	 * <p>Available parsers:
-	 * Cocke-Younger-Kasami Parser (CYK)
-	 * and LR(1) Parser (LR).<p>
+	 * Cocke-Younger-Kasami Parser (CYK),
+	 * LR(1) Parser (LR),
+	 * LALR(1) Parser (LALR1),
+	 * SLR(1) Parser (SLR1)
+	 * and LR(0) Parser (LR0).<p>
 	 * 
 	 * @return parserType selected parser type.
 	 */
@@ -422,6 +488,12 @@ public final class App {
 			return ParserType.CYK;
 		} else if (choice == ParserMenu.LR1) {
 			return ParserType.LR1;
+		} else if (choice == ParserMenu.LALR1) {
+			return ParserType.LALR1;
+		} else if (choice == ParserMenu.SLR1) {
+			return ParserType.SLR1;
+		} else if (choice == ParserMenu.LR0) {
+			return ParserType.LR0;
 		} else {
 			return null;
 		}
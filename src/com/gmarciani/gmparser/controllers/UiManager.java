@@ -78,6 +78,13 @@ public final class UiManager {
 				.withArgName("GRAMMAR WORD PARSER")
 				.create("p");
 		
+		Option generate = OptionBuilder.withLongOpt("generate")
+				.withDescription(AppOptions.DESCRIPTION_GENERATE)
+				.hasArgs(3)
+				.withValueSeparator(' ')
+				.withArgName("CLASS PARSER GRAMMAR")
+				.create("g");
+		
 		Option help = OptionBuilder.withLongOpt("help")
 				.withDescription(AppOptions.DESCRIPTION_HELP)
 				.hasArg(false)
@@ -92,6 +99,7 @@ public final class UiManager {
 		optionGroup.addOption(analyze);
 		optionGroup.addOption(transform);
 		optionGroup.addOption(parse);		
+		optionGroup.addOption(generate);
 		optionGroup.addOption(help);
 		optionGroup.addOption(version);
 		
@@ -121,6 +129,9 @@ public final class UiManager {
 				.withDescription(ParserMenu.DESCRIPTION)
 				.hasChoice(ParserMenu.CYK, ParserMenu.CYK_DESCRIPTION)
 				.hasChoice(ParserMenu.LR1, ParserMenu.LR1_DESCRIPTION)
+				.hasChoice(ParserMenu.LALR1, ParserMenu.LALR1_DESCRIPTION)
+				.hasChoice(ParserMenu.SLR1, ParserMenu.SLR1_DESCRIPTION)
+				.hasChoice(ParserMenu.LR0, ParserMenu.LR0_DESCRIPTION)
 				.create();
 		
 		Menu transformationMenu = MenuBuilder.hasName(TransformationMenu.NAME)
@@ -24,6 +24,7 @@
 package com.gmarciani.gmparser.models.grammar;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -41,6 +42,7 @@ import com.gmarciani.gmparser.models.grammar.factory.GrammarFactory;
 import com.gmarciani.gmparser.models.grammar.production.Member;
 import com.gmarciani.gmparser.models.grammar.production.Production;
 import com.gmarciani.gmparser.models.grammar.production.Productions;
+import com.gmarciani.gmparser.models.grammar.production.SourceProductions;
 
 /**
  * <p>Grammar model.<p>
@@ -662,7 +664,18 @@ public class Grammar {
 	 * <p>The algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", alg. 3.5.8]<p>
 	 */
 	public void removeEpsilonProductions() {
+		this.removeEpsilonProductions(null);
+	}
+	
+	/**
+	 * <p>Removes from the current grammar all the epsilon productions, recording the source productions of every production.<p>
+	 * <p>A production without nullables comes from the production it is derived from, combined with the derivations of epsilon from the removed nullables.<p>
+	 * 
+	 * @param sources the source productions of every production, or null to record no source.
+	 */
+	private void removeEpsilonProductions(Map<Production, SourceProductions> sources) {
 		Alphabet nullables = this.getNullables(); // N = {n | n is a nullable symbol}.		
+		Map<Character, SourceProductions> nullableSources = this.getNullableSources(nullables, sources);
 		for (Production production : this.getProductions()) {
 			Alphabet nullablesForProduction = this.getNullablesForProduction(production);
 			if (!nullablesForProduction.isEmpty()) {
@@ -675,21 +688,28 @@ public class Grammar {
 						builder.insert(nullableOccurrence, Grammar.EPSILON);
 						Member rhs = new Member(builder.toString());
 						Production productionWithoutNullable = new Production(lhs, rhs);
-						this.addProduction(productionWithoutNullable);
+						this.addProduction(productionWithoutNullable, sources, Grammar.getSources(production, sources));
 					}						
 				}				
 				Member lhs = production.getLeft();
 				Member rhs = new Member(production.getRight().getValue().replaceAll(nullables.getUnionRegex(), Grammar.EPSILON.toString()));
 				Production productionWithoutNullables = new Production(lhs, rhs);
-				this.addProduction(productionWithoutNullables);
+				SourceProductions productionSources = Grammar.getSources(production, sources);
+				for (Character symbol : production.getRight().getValue().toCharArray()) // the removed nullables derive epsilon.
+					if (nullableSources.containsKey(symbol))
+						productionSources = productionSources.and(nullableSources.get(symbol));
+				this.addProduction(productionWithoutNullables, sources, productionSources);
 			}
 		}
 		
 		for (Production epsilonProduction : this.getEpsilonProductions()) // Delete all epsilon productions ...
-			this.removeProduction(epsilonProduction);
+			this.removeProduction(epsilonProduction, sources);
 		
-		if (nullables.contains(this.getAxiom())) // ... with the exception of S -> e, if S -> e was in P.
-			this.addProduction(new Production(new Member(this.getAxiom()), new Member(Grammar.EPSILON)));
+		if (nullables.contains(this.getAxiom())) { // ... with the exception of S -> e, if S -> e was in P.
+			SourceProductions axiomSources = nullableSources.get(this.getAxiom());
+			this.addProduction(new Production(new Member(this.getAxiom()), new Member(Grammar.EPSILON)), sources, 
+					(axiomSources == null) ? SourceProductions.INTRODUCED : axiomSources);
+		}
 	}
 	
 	/**
@@ -697,10 +717,20 @@ public class Grammar {
 	 * <p>The algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", alg. 3.5.11]<p>
 	 */
 	public void removeUnitProductions() {
-		this.removeEpsilonProductions(); // The input grammar must be a context-free without epsilon productions.
+		this.removeUnitProductions(null);
+	}
+	
+	/**
+	 * <p>Removes from the current grammar all the unit productions, recording the source productions of every production.<p>
+	 * <p>An unfolded production A -> b comes from A -> B combined with B -> b.<p>
+	 * 
+	 * @param sources the source productions of every production, or null to record no source.
+	 */
+	private void removeUnitProductions(Map<Production, SourceProductions> sources) {
+		this.removeEpsilonProductions(sources); // The input grammar must be a context-free without epsilon productions.
 		
 		for (Production trivialUnitProduction : this.getTrivialUnitProductions()) // Remove every trivial unit production.
-			this.removeProduction(trivialUnitProduction);
+			this.removeProduction(trivialUnitProduction, sources);
 		
 		Queue<Production> queue = new ConcurrentLinkedQueue<Production>(this.getNonTrivialUnitProductions()); // Enqueue every non trivial production ...
 		while(!queue.isEmpty()) {
@@ -708,13 +738,15 @@ public class Grammar {
 			String lhs = nonTrivialUnitProduction.getLeft().getValue();
 			Character rhs = nonTrivialUnitProduction.getRight().getValue().charAt(0);
 			
+			SourceProductions unitSources = this.getProductions().contains(nonTrivialUnitProduction) ? 
+					Grammar.getSources(nonTrivialUnitProduction, sources) : SourceProductions.NONE; // an already unfolded A -> B has carried its sources.
 			Productions productions = this.getProductions().getProductionsLeftContaining(rhs);
 			for (Production production : productions)
-				this.addProduction(new Production(new Member(lhs), production.getRight())); // ... unfold B in A -> B			
-			this.removeProduction(nonTrivialUnitProduction);
+				this.addProduction(new Production(new Member(lhs), production.getRight()), sources, unitSources.and(Grammar.getSources(production, sources))); // ... unfold B in A -> B			
+			this.removeProduction(nonTrivialUnitProduction, sources);
 			
 			for (Production trivialUnitProduction : this.getTrivialUnitProductions()) // ... remove every (eventually generated) trivial unit production ...
-				this.removeProduction(trivialUnitProduction);			
+				this.removeProduction(trivialUnitProduction, sources);			
 			queue.addAll(this.getNonTrivialUnitProductions()); // ... and add to the queue every (eventually generated) non trivial unit production.
 		}
 	}	
@@ -725,8 +757,29 @@ public class Grammar {
 	 * <p>The algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", alg. 3.6.3]<p>
 	 */
 	public void toChomskyNormalForm() {
-		this.removeEpsilonProductions(); // Simplify the grammar, removing the epsilon productions ...
-		this.removeUnitProductions(); // ... and unit productions.
+		this.toChomskyNormalForm(null);
+	}
+	
+	/**
+	 * <p>Converts the current grammar to the equivalent grammar in Chomsky Normal Form, recording the source productions of every production.<p>
+	 * <p>After the conversion, the specified map is cleared and maps every normal form production to the productions of the current grammar it comes from:
+	 * a rewritten production comes from the production it is rewritten from, while a production of a new non terminal symbol comes from no production.
+	 * So, for example, production probabilities can be carried to the normal form once, without converting the grammar again.<p>
+	 * <p>The converted grammar is the same as the one by {@link #toChomskyNormalForm()}.<p>
+	 * 
+	 * @param sources the map to fill with the source productions of every normal form production, or null to record no source.
+	 * 
+	 * @see com.gmarciani.gmparser.models.grammar.production.SourceProductions
+	 */
+	public void toChomskyNormalForm(Map<Production, SourceProductions> sources) {
+		if (sources != null) {
+			sources.clear();
+			for (Production production : this.getProductions())
+				sources.put(production, SourceProductions.of(production));
+		}
+		
+		this.removeEpsilonProductions(sources); // Simplify the grammar, removing the epsilon productions ...
+		this.removeUnitProductions(sources); // ... and unit productions.
 		
 		boolean emptyGeneration = this.getNullables().contains(this.getAxiom()); // is e in L(G)?
 		
@@ -743,9 +796,10 @@ public class Grammar {
 					
 					Production reducedProductionTwo = new Production(new Member(newNonTerminal), new Member(production.getRight().getValue().substring(1)));
 					
-					this.removeProduction(production);
-					this.addProduction(reducedProductionOne);
-					this.addProduction(reducedProductionTwo);
+					SourceProductions productionSources = Grammar.getSources(production, sources);
+					this.removeProduction(production, sources);
+					this.addProduction(reducedProductionOne, sources, productionSources);
+					this.addProduction(reducedProductionTwo, sources, SourceProductions.INTRODUCED);
 				}
 			}
 		}
@@ -765,9 +819,10 @@ public class Grammar {
 					
 					Production promotionProductionTwo = new Production(new Member(newNonTerminal), new Member(terminal));
 					
-					this.removeProduction(production);
-					this.addProduction(promotionProductionOne);
-					this.addProduction(promotionProductionTwo);
+					SourceProductions productionSources = Grammar.getSources(production, sources);
+					this.removeProduction(production, sources);
+					this.addProduction(promotionProductionOne, sources, productionSources);
+					this.addProduction(promotionProductionTwo, sources, SourceProductions.INTRODUCED);
 				}
 			}
 		}
@@ -776,6 +831,83 @@ public class Grammar {
 			this.addProduction(new Production(new Member(this.getAxiom()), new Member(this.getEpsilon())));		
 		
 		this.removeUselessSymbols();
+		
+		if (sources != null)
+			sources.keySet().retainAll(this.getProductions());
+	}
+	
+	/**
+	 * Adds the specified production, joining its current source productions with the specified ones.
+	 * 
+	 * @param production the production.
+	 * @param sources the source productions of every production, or null to record no source.
+	 * @param productionSources the source productions of the production.
+	 */
+	private void addProduction(Production production, Map<Production, SourceProductions> sources, SourceProductions productionSources) {
+		if (sources != null) {
+			SourceProductions current = this.getProductions().contains(production) ? sources.get(production) : null;
+			sources.put(production, (current == null) ? productionSources : current.or(productionSources));
+		}
+		this.addProduction(production);
+	}
+	
+	/**
+	 * Removes the specified production, with its source productions.
+	 * 
+	 * @param production the production.
+	 * @param sources the source productions of every production, or null to record no source.
+	 */
+	private void removeProduction(Production production, Map<Production, SourceProductions> sources) {
+		if (sources != null)
+			sources.remove(production);
+		this.removeProduction(production);
+	}
+	
+	private static SourceProductions getSources(Production production, Map<Production, SourceProductions> sources) {
+		SourceProductions productionSources = (sources == null) ? null : sources.get(production);
+		return (productionSources == null) ? SourceProductions.INTRODUCED : productionSources;
+	}
+	
+	/**
+	 * Returns the source productions of the derivations of epsilon from every specified nullable symbol.
+	 * 
+	 * @param nullables the nullable symbols.
+	 * @param sources the source productions of every production, or null to record no source.
+	 * 
+	 * @return the map from nullable symbols to the source productions of their derivations of epsilon; an empty map, if sources is null.
+	 */
+	private Map<Character, SourceProductions> getNullableSources(Alphabet nullables, Map<Production, SourceProductions> sources) {
+		Map<Character, SourceProductions> nullableSources = new HashMap<Character, SourceProductions>();
+		if (sources == null)
+			return nullableSources;
+		boolean loop = true;
+		for (int round = 0; loop && round <= nullables.size(); round ++) { // the derivations of epsilon with no repeated symbol are enough.
+			loop = false;
+			for (Production production : this.getProductions()) {
+				Character left = production.getLeft().getValue().charAt(0);
+				if (!nullables.contains(left))
+					continue;
+				SourceProductions productionSources = Grammar.getSources(production, sources);
+				for (Character symbol : production.getRight().getValue().toCharArray()) {
+					if (symbol.equals(Grammar.EPSILON))
+						continue;
+					if (!nullableSources.containsKey(symbol)) { // the production does not derive epsilon, yet.
+						productionSources = null;
+						break;
+					}
+					productionSources = productionSources.and(nullableSources.get(symbol));
+				}
+				if (productionSources == null)
+					continue;
+				SourceProductions current = nullableSources.get(left);
+				SourceProductions merged = (current == null) ? productionSources : current.or(productionSources);
+				if (current == null || merged.size() > current.size()) {
+					nullableSources.put(left, merged);
+					loop = true;
+				}
+			}
+		}
+		return nullableSources;
 	}
 	
 	@Override public String toString() {
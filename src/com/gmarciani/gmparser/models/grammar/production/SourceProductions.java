@@ -0,0 +1,144 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.grammar.production;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>The source productions of a production derived by a grammar transformation.<p>
+ * <p>A derived production may be derived in more than one way (alternatives),
+ * and every way may combine more than one production of the source grammar
+ * (e.g. A -> b unfolded from A -> B and B -> b).
+ * So, the sources are a set of alternatives, where every alternative is the sorted list of the source productions it combines.
+ * The alternatives of the productions introduced by a transformation, that combine no source production, are one empty list.<p>
+ * <p>Sources are immutable.<p>
+ *
+ * @see com.gmarciani.gmparser.models.grammar.Grammar#toChomskyNormalForm(java.util.Map)
+ * @see com.gmarciani.gmparser.models.grammar.production.Production
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class SourceProductions {
+
+	/**
+	 * The sources with no alternative, that is of a production that cannot be derived.
+	 */
+	public static final SourceProductions NONE = new SourceProductions(Collections.<List<Production>>emptySet());
+
+	/**
+	 * The sources with one empty alternative, that is of a production introduced by a transformation.
+	 */
+	public static final SourceProductions INTRODUCED = new SourceProductions(Collections.singleton(Collections.<Production>emptyList()));
+
+	private final Set<List<Production>> alternatives;
+
+	private SourceProductions(Set<List<Production>> alternatives) {
+		this.alternatives = alternatives;
+	}
+
+	/**
+	 * Returns the sources of a production of the source grammar, that is the production itself.
+	 *
+	 * @param production the production of the source grammar.
+	 *
+	 * @return the sources of the specified production.
+	 */
+	public static SourceProductions of(Production production) {
+		return new SourceProductions(Collections.singleton(Collections.singletonList(production)));
+	}
+
+	/**
+	 * Returns the alternatives of the sources.
+	 *
+	 * @return the unmodifiable set of alternatives, every one as the sorted list of the source productions it combines.
+	 */
+	public Set<List<Production>> getAlternatives() {
+		return Collections.unmodifiableSet(this.alternatives);
+	}
+
+	/**
+	 * Returns the number of alternatives.
+	 *
+	 * @return the number of alternatives.
+	 */
+	public int size() {
+		return this.alternatives.size();
+	}
+
+	/**
+	 * Returns the sources of a production derived either by these sources or by the specified ones.
+	 *
+	 * @param other the other sources.
+	 *
+	 * @return the union of the alternatives.
+	 */
+	public SourceProductions or(SourceProductions other) {
+		Set<List<Production>> alternatives = new LinkedHashSet<List<Production>>(this.alternatives);
+		alternatives.addAll(other.alternatives);
+		return new SourceProductions(alternatives);
+	}
+
+	/**
+	 * Returns the sources of a production derived by combining these sources with the specified ones.
+	 *
+	 * @param other the other sources.
+	 *
+	 * @return every alternative of these sources, joined with every alternative of the specified ones.
+	 */
+	public SourceProductions and(SourceProductions other) {
+		Set<List<Production>> alternatives = new LinkedHashSet<List<Production>>();
+		for (List<Production> alternative : this.alternatives) {
+			for (List<Production> otherAlternative : other.alternatives) {
+				List<Production> joined = new ArrayList<Production>(alternative);
+				joined.addAll(otherAlternative);
+				Collections.sort(joined); // alternatives are compared as multisets.
+				alternatives.add(Collections.unmodifiableList(joined));
+			}
+		}
+		return new SourceProductions(alternatives);
+	}
+
+	@Override public String toString() {
+		return "SourceProductions(" + this.alternatives + ")";
+	}
+
+	@Override public boolean equals(Object obj) {
+		if (obj == null || this.getClass() != obj.getClass())
+			return false;
+
+		SourceProductions other = (SourceProductions) obj;
+
+		return this.alternatives.equals(other.alternatives);
+	}
+
+	@Override public int hashCode() {
+		return this.alternatives.hashCode();
+	}
+
+}
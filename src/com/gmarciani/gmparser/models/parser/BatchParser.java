@@ -0,0 +1,268 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+
+/**
+ * <p>Batch parser, that parses many words with the same grammar.<p>
+ * <p>The grammar is compiled once into a parser, then words are split into chunks 
+ * and parsed by the specified executor. Results are always delivered in input order.
+ * At most {@code maxPendingChunks} chunks are pending at once, so the words are consumed lazily,
+ * and results can be streamed to a {@link ResultHandler}, so that no result is retained.<p>
+ * 
+ * @see com.gmarciani.gmparser.models.parser.Parser
+ * @see com.gmarciani.gmparser.models.parser.ParserFactory
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class BatchParser {
+	
+	/**
+	 * The default number of words for every chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1024;
+	
+	/**
+	 * The default maximum number of pending chunks.
+	 */
+	public static final int DEFAULT_MAX_PENDING_CHUNKS = 64;
+	
+	private final Parser parser;
+	private final ExecutorService executor;
+	private final int chunkSize;
+	private final int maxPendingChunks;
+	
+	/**
+	 * Creates a new batch parser of the specified type, for the specified grammar.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 * @param parserType the parser type.
+	 * @param executor the executor to parse with.
+	 */
+	public BatchParser(Grammar grammar, ParserType parserType, ExecutorService executor) {
+		this(ParserFactory.createParser(grammar, parserType), executor, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_PENDING_CHUNKS);
+	}
+	
+	/**
+	 * Creates a new batch parser for the specified parser.
+	 * 
+	 * @param parser the parser to parse with.
+	 * @param executor the executor to parse with.
+	 * @param chunkSize the number of words for every chunk.
+	 * @param maxPendingChunks the maximum number of pending chunks.
+	 */
+	public BatchParser(Parser parser, ExecutorService executor, int chunkSize, int maxPendingChunks) {
+		this.parser = parser;
+		this.executor = executor;
+		this.chunkSize = Math.max(1, chunkSize);
+		this.maxPendingChunks = Math.max(1, maxPendingChunks);
+	}
+	
+	/**
+	 * Returns the parser to parse with.
+	 * 
+	 * @return the parser to parse with.
+	 */
+	public Parser getParser() {
+		return this.parser;
+	}
+	
+	/**
+	 * Checks if every specified word can be parsed.
+	 * The results are packed into a bit set, so that a batch of millions of words takes one bit per word.
+	 * 
+	 * @param words the words to parse, at most {@code Integer.MAX_VALUE}.
+	 * 
+	 * @return the parsing results, as a bit set where the i-th bit is set if and only if the i-th word can be parsed.
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for a chunk.
+	 * @throws ExecutionException if the parsing of a chunk failed.
+	 */
+	public BitSet parse(Iterable<String> words) throws InterruptedException, ExecutionException {
+		final BitSet results = new BitSet();
+		this.parse(words, new ResultHandler<Boolean>() {
+			@Override public void onResult(long index, Boolean result) {
+				if (result)
+					results.set((int) index);
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Checks if every specified word can be parsed, streaming every result to the specified handler, in input order.
+	 * No result is retained, so that the memory is bounded by the pending chunks only, whatever the number of words.
+	 * 
+	 * @param words the words to parse.
+	 * @param handler the handler of the parsing results, called by the calling thread.
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for a chunk.
+	 * @throws ExecutionException if the parsing of a chunk failed.
+	 */
+	public void parse(Iterable<String> words, ResultHandler<Boolean> handler) throws InterruptedException, ExecutionException {
+		this.execute(words, new ChunkParser<Boolean>() {
+			@Override public Boolean parse(String word) {
+				return getParser().parse(word);
+			}
+		}, handler);
+	}
+	
+	/**
+	 * Checks if every specified word can be parsed, collecting every parsing session.
+	 * <p>Every parsing session retains the whole recognition matrix of its word, 
+	 * so this method is not suitable for large batches: use {@link #parseWithSession(Iterable, ResultHandler)} instead.<p>
+	 * 
+	 * @param words the words to parse.
+	 * 
+	 * @return the parsing sessions, in input order.
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for a chunk.
+	 * @throws ExecutionException if the parsing of a chunk failed.
+	 */
+	public List<ParsingSession> parseWithSession(Iterable<String> words) throws InterruptedException, ExecutionException {
+		final List<ParsingSession> sessions = new ArrayList<ParsingSession>();
+		this.parseWithSession(words, new ResultHandler<ParsingSession>() {
+			@Override public void onResult(long index, ParsingSession session) {
+				sessions.add(session);
+			}
+		});
+		return sessions;
+	}
+	
+	/**
+	 * Checks if every specified word can be parsed, streaming every parsing session to the specified handler, in input order.
+	 * No session is retained, so that the memory is bounded by the pending chunks only, whatever the number of words.
+	 * 
+	 * @param words the words to parse.
+	 * @param handler the handler of the parsing sessions, called by the calling thread.
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for a chunk.
+	 * @throws ExecutionException if the parsing of a chunk failed.
+	 */
+	public void parseWithSession(Iterable<String> words, ResultHandler<ParsingSession> handler) throws InterruptedException, ExecutionException {
+		this.execute(words, new ChunkParser<ParsingSession>() {
+			@Override public ParsingSession parse(String word) {
+				return getParser().parseWithSession(word);
+			}
+		}, handler);
+	}
+	
+	/**
+	 * Splits the specified words into chunks, submits them to the executor and streams the results to the specified handler, in input order.
+	 * 
+	 * @param words the words to parse.
+	 * @param chunkParser the per-word parsing.
+	 * @param handler the handler of the results.
+	 */
+	private <T> void execute(Iterable<String> words, final ChunkParser<T> chunkParser, ResultHandler<T> handler) throws InterruptedException, ExecutionException {
+		long index = 0;
+		Deque<Future<List<T>>> pending = new ArrayDeque<Future<List<T>>>();
+		try {
+			List<String> chunk = new ArrayList<String>(this.chunkSize);
+			for (String word : words) {
+				chunk.add(word);
+				if (chunk.size() == this.chunkSize) {
+					if (pending.size() == this.maxPendingChunks) // bounds the memory: waits for the oldest chunk ...
+						index = handle(pending.removeFirst().get(), index, handler);
+					pending.addLast(this.executor.submit(new ChunkTask<T>(chunk, chunkParser))); // ... then submits the next one.
+					chunk = new ArrayList<String>(this.chunkSize);
+				}
+			}
+			if (!chunk.isEmpty())
+				pending.addLast(this.executor.submit(new ChunkTask<T>(chunk, chunkParser)));
+			while (!pending.isEmpty())
+				index = handle(pending.removeFirst().get(), index, handler);
+		} finally {
+			for (Future<List<T>> future : pending)
+				future.cancel(true);
+		}
+	}
+	
+	/**
+	 * Streams the specified chunk results to the specified handler.
+	 * 
+	 * @return the index of the next result.
+	 */
+	private static <T> long handle(List<T> results, long index, ResultHandler<T> handler) {
+		for (T result : results)
+			handler.onResult(index ++, result);
+		return index;
+	}
+	
+	/**
+	 * <p>Handler of the results of a batch parsing.<p>
+	 * <p>Results are handled one at a time, in input order, by the thread that started the batch parsing.<p>
+	 * 
+	 * @param <T> the result type.
+	 */
+	public interface ResultHandler<T> {
+		
+		/**
+		 * Handles the result of the specified word.
+		 * 
+		 * @param index the index of the word, from 0.
+		 * @param result the result of the word.
+		 */
+		public void onResult(long index, T result);
+		
+	}
+	
+	private interface ChunkParser<T> {
+		
+		public T parse(String word);
+		
+	}
+	
+	private static final class ChunkTask<T> implements Callable<List<T>> {
+		
+		private final List<String> words;
+		private final ChunkParser<T> chunkParser;
+		
+		private ChunkTask(List<String> words, ChunkParser<T> chunkParser) {
+			this.words = words;
+			this.chunkParser = chunkParser;
+		}
+
+		@Override public List<T> call() {
+			List<T> results = new ArrayList<T>(this.words.size());
+			for (String word : this.words)
+				results.add(this.chunkParser.parse(word));
+			return results;
+		}
+		
+	}
+
+}
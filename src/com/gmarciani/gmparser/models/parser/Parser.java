@@ -0,0 +1,74 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser;
+
+/**
+ * <p>The generic parser model.<p>
+ * <p>A parser is bound to a grammar at construction, and holds no shared mutable state, 
+ * so it can be used by any number of threads at once.<p>
+ * 
+ * @see com.gmarciani.gmparser.models.parser.cyk.CYKParser
+ * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public interface Parser {
+	
+	/**
+	 * Returns the parser type.
+	 * 
+	 * @return the parser type.
+	 */
+	public ParserType getParserType();
+	
+	/**
+	 * Checks if the specified word can be parsed by the parser grammar.
+	 * 
+	 * @param word the word to parse.
+	 * 
+	 * @return true if the specified word can be parsed by the parser grammar; false, otherwise.
+	 */
+	public boolean parse(String word);
+	
+	/**
+	 * Checks if the specified token stream can be parsed by the parser grammar.
+	 * The id of every terminal symbol is its char code.
+	 * 
+	 * @param tokens the token stream to parse.
+	 * 
+	 * @return true if the specified token stream can be parsed by the parser grammar; false, otherwise.
+	 */
+	public boolean parse(TokenStream tokens);
+	
+	/**
+	 * Checks if the specified word can be parsed by the parser grammar.
+	 * 
+	 * @param word the word to parse.
+	 * 
+	 * @return the parsing session for the parser grammar and the specified word.
+	 */
+	public ParsingSession parseWithSession(String word);
+
+}
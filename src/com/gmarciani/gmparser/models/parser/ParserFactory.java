@@ -0,0 +1,74 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
+import com.gmarciani.gmparser.models.parser.lr.LALROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LRZeroParser;
+import com.gmarciani.gmparser.models.parser.lr.SLROneParser;
+
+/**
+ * <p>Factory of parsers, by parser type.<p>
+ * 
+ * @see com.gmarciani.gmparser.models.parser.Parser
+ * @see com.gmarciani.gmparser.models.parser.ParserType
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class ParserFactory {
+	
+	private ParserFactory() {
+		throw new AssertionError();
+	}
+	
+	/**
+	 * Creates a new parser of the specified type, for the specified grammar.
+	 * The specified grammar is not modified.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 * @param parserType the parser type.
+	 * 
+	 * @return a new parser of the specified type, for the specified grammar.
+	 */
+	public static Parser createParser(Grammar grammar, ParserType parserType) {
+		switch (parserType) {
+		case CYK:
+			return new CYKParser(grammar);
+		case LR1:
+			return new LROneParser(grammar);
+		case LALR1:
+			return new LALROneParser(grammar);
+		case SLR1:
+			return new SLROneParser(grammar);
+		case LR0:
+			return new LRZeroParser(grammar);
+		default:
+			throw new AssertionError(parserType);
+		}
+	}
+
+}
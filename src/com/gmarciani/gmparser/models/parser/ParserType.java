@@ -25,7 +25,7 @@ package com.gmarciani.gmparser.models.parser;
 
 /**
  * <p>Parser type enumeration model.<p>
- * <p>Available parsers are: Cocke-Younger-Kasami parser (CYK) and LR(1) parser (LR1).<p>
+ * <p>Available parsers are: Cocke-Younger-Kasami parser (CYK), LR(1) parser (LR1), LALR(1) parser (LALR1), SLR(1) parser (SLR1) and LR(0) parser (LR0).<p>
  * 
  * @author Giacomo Marciani
  * @version 1.0
@@ -33,7 +33,10 @@ package com.gmarciani.gmparser.models.parser;
 public enum ParserType {
 	
 	CYK("Cocke-Younger-Kasami", "CYK"),
-	LR1("LR(1)", "LR1");	
+	LR1("LR(1)", "LR1"),
+	LALR1("LALR(1)", "LALR1"),
+	SLR1("SLR(1)", "SLR1"),
+	LR0("LR(0)", "LR0");	
 	
 	private String name;
 	private String shortName;
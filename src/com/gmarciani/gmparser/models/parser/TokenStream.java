@@ -0,0 +1,172 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser;
+
+import java.nio.IntBuffer;
+
+/**
+ * <p>Input of a parser, as a stream of terminal ids.<p>
+ * <p>The id of a terminal symbol is its char code, so a word of characters is a token stream, 
+ * and a lexer can feed pre-tokenized input without building a string.
+ * Ids outside the char range are never terminal symbols of a grammar, so they are never accepted.<p>
+ * <p>A token stream is a read-only view over an array of ints: wrapping an array never copies it, 
+ * and reading a token never allocates.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.Parser
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class TokenStream {
+
+	private final int tokens[];
+	private final int offset;
+	private final int length;
+
+	private TokenStream(int tokens[], int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > tokens.length)
+			throw new IndexOutOfBoundsException("Illegal token range [" + offset + ", " + (offset + length) + ") of " + tokens.length + " tokens");
+		this.tokens = tokens;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * Wraps the specified array of terminal ids, without copying it.
+	 *
+	 * @param tokens the terminal ids.
+	 *
+	 * @return the token stream over the specified array.
+	 */
+	public static TokenStream wrap(int tokens[]) {
+		return new TokenStream(tokens, 0, tokens.length);
+	}
+
+	/**
+	 * Wraps the specified range of the specified array of terminal ids, without copying it.
+	 *
+	 * @param tokens the terminal ids.
+	 * @param offset the offset of the first token.
+	 * @param length the number of tokens.
+	 *
+	 * @return the token stream over the specified range of the specified array.
+	 */
+	public static TokenStream wrap(int tokens[], int offset, int length) {
+		return new TokenStream(tokens, offset, length);
+	}
+
+	/**
+	 * Wraps the remaining terminal ids of the specified buffer.
+	 * The buffer is wrapped without copying if it is backed by an array; otherwise, its remaining ids are copied once.
+	 * The position of the buffer is not changed.
+	 *
+	 * @param tokens the buffer of terminal ids.
+	 *
+	 * @return the token stream over the remaining terminal ids of the specified buffer.
+	 */
+	public static TokenStream wrap(IntBuffer tokens) {
+		if (tokens.hasArray())
+			return new TokenStream(tokens.array(), tokens.arrayOffset() + tokens.position(), tokens.remaining());
+		int copy[] = new int[tokens.remaining()];
+		tokens.duplicate().get(copy);
+		return new TokenStream(copy, 0, copy.length);
+	}
+
+	/**
+	 * Creates the token stream of the specified word, where every character is a terminal id.
+	 *
+	 * @param word the word.
+	 *
+	 * @return the token stream of the specified word.
+	 */
+	public static TokenStream of(String word) {
+		int tokens[] = new int[word.length()];
+		for (int i = 0; i < tokens.length; i ++)
+			tokens[i] = word.charAt(i);
+		return new TokenStream(tokens, 0, tokens.length);
+	}
+
+	/**
+	 * Returns the number of tokens.
+	 *
+	 * @return the number of tokens.
+	 */
+	public int length() {
+		return this.length;
+	}
+
+	/**
+	 * Returns the terminal id at the specified index.
+	 *
+	 * @param index the index, from 0.
+	 *
+	 * @return the terminal id at the specified index.
+	 */
+	public int get(int index) {
+		if (index < 0 || index >= this.length)
+			throw new IndexOutOfBoundsException("Illegal token index " + index + " of " + this.length + " tokens");
+		return this.tokens[this.offset + index];
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the specified terminal id.
+	 *
+	 * @param token the terminal id.
+	 *
+	 * @return the index of the first occurrence of the specified terminal id; -1, if it does not occur.
+	 */
+	public int indexOf(int token) {
+		for (int i = 0; i < this.length; i ++)
+			if (this.tokens[this.offset + i] == token)
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Checks if the specified terminal id is a char code, that is a possible terminal symbol.
+	 *
+	 * @param token the terminal id.
+	 *
+	 * @return true if the specified terminal id is a char code; false, otherwise.
+	 */
+	public static boolean isChar(int token) {
+		return token >= Character.MIN_VALUE && token <= Character.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the word of the tokens, where every terminal id is a character.
+	 * Ids outside the char range are replaced by U+FFFD.
+	 *
+	 * @return the word of the tokens.
+	 */
+	@Override public String toString() {
+		StringBuilder word = new StringBuilder(this.length);
+		for (int i = 0; i < this.length; i ++) {
+			int token = this.tokens[this.offset + i];
+			word.append(isChar(token) ? (char) token : '\uFFFD');
+		}
+		return word.toString();
+	}
+
+}
@@ -23,23 +23,136 @@
 
 package com.gmarciani.gmparser.models.parser.cyk;
 
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
 import com.gmarciani.gmparser.models.grammar.Grammar;
-import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
-import com.gmarciani.gmparser.models.grammar.production.Production;
-import com.gmarciani.gmparser.models.grammar.production.Productions;
+import com.gmarciani.gmparser.models.parser.Parser;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseForest;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix;
 import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKMatrix;
 import com.gmarciani.gmparser.models.parser.cyk.session.CYKParsingSession;
+import com.gmarciani.gmparser.models.parser.cyk.span.SpanIndex;
 
 /**
  * <p>Cocke-Younger-Kasami parser implementation.<p>
+ * <p>A parser instance is bound to a {@link CompiledCYKGrammar}, and holds no mutable state, 
+ * so it can be used by any number of threads at once.
+ * The static methods compile the specified grammar on every call, so the specified grammar is never modified: 
+ * to parse many words with the same grammar, create a parser instance once.<p>
  * <p>Every algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", par. 3.15.1]<p>
  * 
+ * @see com.gmarciani.gmparser.models.parser.Parser
+ * @see com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar
  * @see com.gmarciani.gmparser.models.parser.cyk.session.CYKParsingSession
  * 
  * @author Giacomo Marciani
  * @version 1.0
  */
-public class CYKParser {	
+public class CYKParser implements Parser {	
+	
+	/**
+	 * The default maximum number of cells of the same length filled sequentially by the parallel recognition.
+	 */
+	public static final int PARALLEL_CUTOFF = 64;
+	
+	/**
+	 * The default number of bytes of the recognition matrix above which the recognition is stored off-heap.
+	 */
+	public static final long OFF_HEAP_THRESHOLD = 256L << 20;
+	
+	private final CompiledCYKGrammar compiledGrammar;
+	
+	/**
+	 * Creates a new Cocke-Younger-Kasami parser for the specified grammar.
+	 * The specified grammar is not modified.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 */
+	public CYKParser(Grammar grammar) {
+		this(new CompiledCYKGrammar(grammar));
+	}
+	
+	/**
+	 * Creates a new Cocke-Younger-Kasami parser for the specified compiled grammar.
+	 * 
+	 * @param compiledGrammar the compiled grammar to parse with.
+	 */
+	public CYKParser(CompiledCYKGrammar compiledGrammar) {
+		this.compiledGrammar = compiledGrammar;
+	}
+	
+	/**
+	 * Returns the compiled grammar to parse with.
+	 * 
+	 * @return the compiled grammar to parse with.
+	 */
+	public CompiledCYKGrammar getCompiledGrammar() {
+		return this.compiledGrammar;
+	}
+	
+	@Override public ParserType getParserType() {
+		return ParserType.CYK;
+	}
+	
+	@Override public boolean parse(String word) {
+		return this.getCompiledGrammar().parse(word);
+	}
+	
+	@Override public boolean parse(TokenStream tokens) {
+		return this.getCompiledGrammar().parse(tokens);
+	}
+	
+	@Override public CYKParsingSession parseWithSession(String word) {
+		return this.getCompiledGrammar().parseWithSession(word);
+	}
+	
+	/**
+	 * <p>Generates the shared packed parse forest for the specified word.<p>
+	 * 
+	 * @param word the word to parse.
+	 * 
+	 * @return the shared packed parse forest for the specified word; an empty forest, if the word cannot be parsed.
+	 */
+	public ParseForest getParseForest(String word) {
+		return this.getCompiledGrammar().getParseForest(word);
+	}
+	
+	/**
+	 * <p>Generates the substring-derivation index for the specified word.<p>
+	 * 
+	 * @param word the word to parse.
+	 * 
+	 * @return the substring-derivation index for the specified word.
+	 */
+	public SpanIndex getSpanIndex(String word) {
+		return this.getCompiledGrammar().getSpanIndex(word);
+	}
+	
+	/**
+	 * <p>Counts the number of distinct derivations of the specified word, without building any tree.<p>
+	 * <p>Derivations are counted in Chomsky Normal Form: see {@link CompiledCYKGrammar#countDerivations(String)}.<p>
+	 * 
+	 * @param word the word to parse.
+	 * 
+	 * @return the number of distinct derivations of the specified word; 0, if the word cannot be parsed.
+	 */
+	public BigInteger countDerivations(String word) {
+		return this.getCompiledGrammar().countDerivations(word);
+	}
+	
+	/**
+	 * <p>Generates the Cocke-Younger-Kasami recognition matrix for the specified word.<p>
+	 * 
+	 * @param word the word to parse.
+	 * 
+	 * @return the Cocke-Younger-Kasami recognition matrix for the specified word.
+	 */
+	public CYKMatrix getRecognitionMatrix(String word) {
+		return this.getCompiledGrammar().getRecognitionMatrix(word);
+	}
 	
 	/**
 	 * <p>Checks if the specified word can be parsed by the specified grammar.<p>
@@ -50,10 +163,23 @@ public class CYKParser {
 	 * 
 	 * @return true if the specified word can be parsed by the specified grammar; false, otherwise.
 	 */
-	public static synchronized boolean parse(Grammar grammar, String word) {
-		word = (word.length() == 0) ? Grammar.EPSILON.toString() : word;
-		CYKMatrix recognitionMatrix = getRecognitionMatrix(grammar, word);
-		return (recognitionMatrix.get(word.length(), 1).contains(grammar.getAxiom())); // a word can be parsed if it can be fully produced from the axiom.
+	public static boolean parse(Grammar grammar, String word) {
+		return new CompiledCYKGrammar(grammar).parse(word);
+	}
+	
+	/**
+	 * <p>Checks if the specified word can be parsed by the specified grammar, filling the recognition matrix in parallel.<p>
+	 * <p>The algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", par. 3.15.1]<p>
+	 * 
+	 * @param grammar the grammar to parse with.
+	 * @param word the word to parse.
+	 * @param pool the fork/join pool.
+	 * @param cutoff the maximum number of cells of the same length filled sequentially.
+	 * 
+	 * @return true if the specified word can be parsed by the specified grammar; false, otherwise.
+	 */
+	public static boolean parse(Grammar grammar, String word, ForkJoinPool pool, int cutoff) {
+		return new CompiledCYKGrammar(grammar).parse(word, pool, cutoff);
 	}
 
 	/**
@@ -65,11 +191,8 @@ public class CYKParser {
 	 * 
 	 * @return the Cocke-Younger-Kasami parsing session for the specified grammar and word.
 	 */
-	public static synchronized CYKParsingSession parseWithSession(Grammar grammar, String word) {
-		word = (word.length() == 0) ? Grammar.EPSILON.toString() : word;
-		CYKMatrix recognitionMatrix = getRecognitionMatrix(grammar, word);
-		boolean result = (recognitionMatrix.get(word.length(), 1).contains(grammar.getAxiom())); // a word can be parsed if it can be fully produced from the axiom.
-		return new CYKParsingSession(grammar, word, recognitionMatrix, result);
+	public static CYKParsingSession parseWithSession(Grammar grammar, String word) {
+		return new CompiledCYKGrammar(grammar).parseWithSession(word);
 	}
 	
 	/**
@@ -80,35 +203,44 @@ public class CYKParser {
 	 * 
 	 * @return the Cocke-Younger-Kasami recognition matrix derived from the specified grammar.
 	 */
-	public static synchronized CYKMatrix getRecognitionMatrix(Grammar grammar, String word) {
-		grammar.toChomskyNormalForm(); // the grammar must be in Chomsky Normal Form.
-		CYKMatrix matrix = new CYKMatrix(word); // the structure of the Cocke-Younger-Kasami recognition matrix fully depends on the word to parse.
-				
-		for (int p = 1; p <= word.length(); p ++) { // every p-th symbol in the word (that is, the substring with length 1 starting at p) can be generated by all of the non terminal symbol that produce it.
-			Character producedTerminal = word.charAt(p - 1);
-			for (Production production : grammar.getProductions())
-				if (production.getRight().getSize() == 1
-						&& production.getRight().isContaining(producedTerminal))
-					matrix.put(1, p, production.getLeft().getNonTerminalAlphabet());
-		}
-		
-		for (int l = 2; l <= word.length(); l ++) { // every substring of length l starting at p can be generated by all of non terminal symbols that generate its inner substrings.
-			for (int p = 1; p <= (word.length() - l + 1); p ++) {
-				Alphabet target = new Alphabet();
-				for (int l1 = (l - 1), p1 = p, l2 = 1, p2 = (p + l - 1); 
-						l1 >= 1 && p1 == p && l2 <= (l - l1) && p2 >= (p + l1); 
-						l1 --, p1 = p, l2 ++, p2 --) {
-					Alphabet entry1 = matrix.get(l1, p1);
-					Alphabet entry2 = matrix.get(l2, p2);
-					Productions prods = grammar.getProductions().getProductionsRightIndexedWithin(entry1, entry2);
-					for (Production prod : prods)
-						target.addAll(prod.getLeft().getNonTerminalAlphabet());
-				}
-				matrix.put(l, p, target);
-			}
-		}
-		
-		return matrix;
+	public static CYKMatrix getRecognitionMatrix(Grammar grammar, String word) {
+		return new CompiledCYKGrammar(grammar).getRecognitionMatrix(word);
+	}
+	
+	/**
+	 * <p>Generates the bitset-based Cocke-Younger-Kasami recognition matrix derived from the specified grammar.<p>
+	 * <p>Every non terminal symbol is interned to a dense index, and every cell is a bitmask over such indexes, 
+	 * so that the recognition never boxes a symbol.
+	 * Every split step is a bitmask join over the compiled rule table.<p>
+	 * <p>The algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", par. 3.15.1]<p>
+	 * 
+	 * @param grammar the grammar.
+	 * @param word the word to parse.
+	 * 
+	 * @return the bitset-based Cocke-Younger-Kasami recognition matrix derived from the specified grammar.
+	 */
+	public static CYKBitMatrix getRecognitionBitMatrix(Grammar grammar, String word) {
+		return new CompiledCYKGrammar(grammar).getRecognitionBitMatrix(word);
+	}
+	
+	/**
+	 * <p>Generates the bitset-based Cocke-Younger-Kasami recognition matrix derived from the specified grammar, 
+	 * filling every length level in parallel.<p>
+	 * <p>The algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", par. 3.15.1]<p>
+	 * 
+	 * @param grammar the grammar.
+	 * @param word the word to parse.
+	 * @param pool the fork/join pool; if null, the matrix is filled sequentially.
+	 * @param cutoff the maximum number of cells of the same length filled sequentially.
+	 * 
+	 * @return the bitset-based Cocke-Younger-Kasami recognition matrix derived from the specified grammar.
+	 */
+	public static CYKBitMatrix getRecognitionBitMatrix(Grammar grammar, String word, ForkJoinPool pool, int cutoff) {
+		return new CompiledCYKGrammar(grammar).getRecognitionBitMatrix(word, pool, cutoff);
+	}
+	
+	@Override public String toString() {
+		return "CYKParser(" + this.getCompiledGrammar() + ")";
 	}
 
 }
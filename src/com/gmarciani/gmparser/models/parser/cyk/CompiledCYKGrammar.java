@@ -0,0 +1,512 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+import com.gmarciani.gmparser.models.grammar.production.SourceProductions;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseForest;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseTree;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKCountMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKFillTask;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKIncrementalMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKOffHeapMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKPruner;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKViterbiMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.session.CYKParsingSession;
+import com.gmarciani.gmparser.models.parser.cyk.span.SpanIndex;
+
+/**
+ * <p>A grammar compiled once for the Cocke-Younger-Kasami parser.<p>
+ * <p>The grammar is copied and normalized in Chomsky Normal Form at construction,
+ * so that the specified grammar is never modified, and every parse only needs the word.
+ * After construction the compiled grammar is immutable, and can be shared by any number of threads.<p>
+ * <p>Every algorithm has been derived from [A. Pettorossi "Automata Theory and Formal Languages (3rd edition)", par. 3.15.1]<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.CYKParser
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CompiledCYKGrammar {
+
+	private static final TokenStream EMPTY_WORD = TokenStream.of(Grammar.EPSILON.toString());
+
+	private final Grammar grammar;
+	private final CYKRuleTable rules;
+	private final Production sources[];
+	private final int ruleSources[][][];
+	private final CYKPruner pruner;
+	private final int axiom;
+	private final long offHeapThreshold;
+
+	/**
+	 * Compiles the specified grammar for the Cocke-Younger-Kasami parser.
+	 * The specified grammar is not modified.
+	 *
+	 * @param grammar the grammar to compile.
+	 */
+	public CompiledCYKGrammar(Grammar grammar) {
+		this(grammar, CYKParser.OFF_HEAP_THRESHOLD);
+	}
+
+	/**
+	 * Compiles the specified grammar for the Cocke-Younger-Kasami parser, 
+	 * recognizing words whose recognition matrix exceeds the specified number of bytes off-heap.
+	 * The specified grammar is not modified.
+	 *
+	 * @param grammar the grammar to compile.
+	 * @param offHeapThreshold the number of bytes of the recognition matrix above which the recognition is stored off-heap.
+	 */
+	public CompiledCYKGrammar(Grammar grammar, long offHeapThreshold) {
+		Grammar normalized = new Grammar(grammar);
+		this.sources = normalized.getProductions().toArray(new Production[0]);
+		Map<Production, SourceProductions> sources = new HashMap<Production, SourceProductions>();
+		normalized.toChomskyNormalForm(sources); // the grammar must be in Chomsky Normal Form: the source productions of every rule are recorded once, for probabilities.
+		this.grammar = normalized;
+		this.rules = new CYKRuleTable(normalized);
+		this.ruleSources = compileRuleSources(this.rules, this.sources, sources);
+		this.pruner = new CYKPruner(this.rules, normalized.getAxiom());
+		this.axiom = this.rules.getNonTerminals().indexOf(normalized.getAxiom());
+		this.offHeapThreshold = offHeapThreshold;
+	}
+
+	/**
+	 * Returns a copy of the compiled grammar, in Chomsky Normal Form.
+	 *
+	 * @return a copy of the compiled grammar, in Chomsky Normal Form.
+	 */
+	public Grammar getGrammar() {
+		return new Grammar(this.grammar);
+	}
+
+	/**
+	 * Returns the compiled rule table.
+	 *
+	 * @return the compiled rule table.
+	 */
+	public CYKRuleTable getRules() {
+		return this.rules;
+	}
+
+	/**
+	 * Returns the compiled pruner.
+	 *
+	 * @return the compiled pruner.
+	 */
+	public CYKPruner getPruner() {
+		return this.pruner;
+	}
+
+	/**
+	 * <p>Checks if the specified word can be parsed by the compiled grammar.<p>
+	 * <p>Only the recognition is needed, so the recognition matrix is pruned of the non terminal symbols 
+	 * that cannot contribute to a derivation of the whole word.
+	 * If the recognition matrix exceeds the off-heap threshold, it is stored off-heap.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return true if the specified word can be parsed by the compiled grammar; false, otherwise.
+	 */
+	public boolean parse(String word) {
+		return this.parse(TokenStream.of(word), null, CYKParser.PARALLEL_CUTOFF);
+	}
+
+	/**
+	 * <p>Checks if the specified token stream can be parsed by the compiled grammar.<p>
+	 *
+	 * @param tokens the token stream to parse.
+	 *
+	 * @return true if the specified token stream can be parsed by the compiled grammar; false, otherwise.
+	 */
+	public boolean parse(TokenStream tokens) {
+		return this.parse(tokens, null, CYKParser.PARALLEL_CUTOFF);
+	}
+
+	/**
+	 * <p>Checks if the specified word can be parsed by the compiled grammar, filling the recognition matrix in parallel.<p>
+	 * <p>If the recognition matrix exceeds the off-heap threshold, it is stored off-heap and filled sequentially.<p>
+	 *
+	 * @param word the word to parse.
+	 * @param pool the fork/join pool; if null, the matrix is filled sequentially.
+	 * @param cutoff the maximum number of cells of the same length filled sequentially.
+	 *
+	 * @return true if the specified word can be parsed by the compiled grammar; false, otherwise.
+	 */
+	public boolean parse(String word, ForkJoinPool pool, int cutoff) {
+		return this.parse(TokenStream.of(word), pool, cutoff);
+	}
+
+	/**
+	 * <p>Checks if the specified token stream can be parsed by the compiled grammar, filling the recognition matrix in parallel.<p>
+	 * <p>If the recognition matrix exceeds the off-heap threshold, it is stored off-heap and filled sequentially.<p>
+	 *
+	 * @param tokens the token stream to parse.
+	 * @param pool the fork/join pool; if null, the matrix is filled sequentially.
+	 * @param cutoff the maximum number of cells of the same length filled sequentially.
+	 *
+	 * @return true if the specified token stream can be parsed by the compiled grammar; false, otherwise.
+	 */
+	public boolean parse(TokenStream tokens, ForkJoinPool pool, int cutoff) {
+		tokens = (tokens.length() == 0) ? EMPTY_WORD : tokens;
+		CYKPruner pruner = this.pruner.isPruning(tokens) ? this.pruner : null;
+		if (CYKOffHeapMatrix.getBytes(tokens.length(), this.rules.getNonTerminals()) > this.offHeapThreshold)
+			return this.parseOffHeap(tokens, pruner);
+		return this.isAccepted(this.fill(new CYKBitMatrix(tokens, this.rules.getNonTerminals()), pruner, pool, cutoff));
+	}
+
+	/**
+	 * Checks if the specified (non empty) token stream can be parsed, storing the recognition matrix in a temporary memory-mapped file, 
+	 * or in direct buffers if the file cannot be mapped.
+	 */
+	private boolean parseOffHeap(TokenStream tokens, CYKPruner pruner) {
+		File file = null;
+		CYKOffHeapMatrix matrix = null;
+		try { // the temporary file is deleted even if the matrix cannot be allocated.
+			try {
+				file = File.createTempFile("gmparser-cyk-", ".bin");
+				matrix = new CYKOffHeapMatrix(tokens, this.rules.getNonTerminals(), file);
+			} catch (IOException exc) {
+				matrix = new CYKOffHeapMatrix(tokens, this.rules.getNonTerminals());
+			}
+			this.fill(matrix, pruner);
+			return matrix.contains(matrix.getSize(), 1, this.axiom);
+		} finally {
+			try {
+				if (matrix != null)
+					matrix.close();
+			} catch (IOException exc) {
+				// the matrix has already been read.
+			}
+			if (file != null)
+				file.delete();
+		}
+	}
+
+	/**
+	 * <p>Checks if the specified word can be parsed by the compiled grammar.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return the Cocke-Younger-Kasami parsing session for the compiled grammar and the specified word.
+	 */
+	public CYKParsingSession parseWithSession(String word) {
+		CYKBitMatrix recognitionMatrix = this.getRecognitionBitMatrix(word);
+		boolean result = this.isAccepted(recognitionMatrix);
+		return new CYKParsingSession(this.getGrammar(), recognitionMatrix.getWord(), recognitionMatrix.toCYKMatrix(), result);
+	}
+
+	/**
+	 * <p>Creates a new incremental recognition matrix, for the empty word.<p>
+	 * <p>Symbols can then be appended one at a time, and the word so far can be checked at any time.<p>
+	 *
+	 * @return a new incremental recognition matrix.
+	 */
+	public CYKIncrementalMatrix newIncrementalMatrix() {
+		return new CYKIncrementalMatrix(this.rules, this.grammar.getAxiom());
+	}
+
+	/**
+	 * <p>Generates the shared packed parse forest for the specified word.<p>
+	 * <p>The forest stores every derivation of the word from the axiom with back-pointers (rule, split point), 
+	 * so that shared sub-derivations are stored once, and parse trees can be iterated lazily.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return the shared packed parse forest for the specified word; an empty forest, if the word cannot be parsed.
+	 */
+	public ParseForest getParseForest(String word) {
+		return new ParseForest(this.rules, this.getRecognitionBitMatrix(word), this.grammar.getAxiom());
+	}
+
+	/**
+	 * <p>Generates the substring-derivation index for the specified word.<p>
+	 * <p>The index answers which non terminal symbols derive any substring of the word, 
+	 * and which (maximal) spans are derivable from any non terminal symbol, 
+	 * from a single recognition of the whole word.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return the substring-derivation index for the specified word.
+	 */
+	public SpanIndex getSpanIndex(String word) {
+		return new SpanIndex(this.getRecognitionBitMatrix(word));
+	}
+
+	/**
+	 * <p>Counts the number of distinct derivations of the specified word from the axiom, without building any tree.<p>
+	 * <p>Derivations are counted in the compiled grammar, that is in Chomsky Normal Form, and not in the specified grammar:
+	 * the normalization merges equal productions and unfolds unit productions, so the result is not the ambiguity degree of the specified grammar.
+	 * For example, S -> A | B, A -> a, B -> a derives a in two ways, but is compiled to S -> a, that derives a in one way only.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return the number of distinct derivations of the specified word; 0, if the word cannot be parsed.
+	 */
+	public BigInteger countDerivations(String word) {
+		return this.getCountMatrix(word).getCount(this.grammar.getAxiom());
+	}
+
+	/**
+	 * <p>Generates the derivation count matrix for the specified word.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return the derivation count matrix for the specified word.
+	 */
+	public CYKCountMatrix getCountMatrix(String word) {
+		word = (word.length() == 0) ? Grammar.EPSILON.toString() : word;
+		return new CYKCountMatrix(this.rules, word);
+	}
+
+	/**
+	 * <p>Returns the most probable derivation of the specified word from the axiom (Viterbi parsing).<p>
+	 * <p>Probabilities are given on the productions of the specified grammar: see {@link #getViterbiMatrix(String, Map)}.<p>
+	 *
+	 * @param word the word to parse.
+	 * @param probabilities the probabilities of productions of the specified grammar, in (0, 1].
+	 *
+	 * @return the most probable parse tree; null, if the word cannot be parsed.
+	 */
+	public ParseTree getBestParseTree(String word, Map<Production, Double> probabilities) {
+		return this.getViterbiMatrix(word, probabilities).getBestTree(this.grammar.getAxiom());
+	}
+
+	/**
+	 * <p>Generates the Viterbi matrix for the specified word.<p>
+	 * <p>Probabilities are given on the productions of the specified grammar, and carried through its normalization in Chomsky Normal Form:
+	 * a rewritten production inherits the probability of the production it comes from (the best one, if more than one),
+	 * while the productions introduced by the normalization are neutral, as the productions without a probability.<p>
+	 *
+	 * @param word the word to parse.
+	 * @param probabilities the probabilities of productions of the specified grammar, in (0, 1].
+	 *
+	 * @return the Viterbi matrix for the specified word.
+	 */
+	public CYKViterbiMatrix getViterbiMatrix(String word, Map<Production, Double> probabilities) {
+		word = (word.length() == 0) ? Grammar.EPSILON.toString() : word;
+		return new CYKViterbiMatrix(this.rules, this.getRuleScores(probabilities), word);
+	}
+
+	/**
+	 * Returns the log-probability of every rule, as the best sum of the log-probabilities of its source productions.
+	 *
+	 * @param probabilities the probabilities of productions of the specified grammar, in (0, 1].
+	 *
+	 * @return the log-probability of every rule, indexed by rule id.
+	 */
+	private double[] getRuleScores(Map<Production, Double> probabilities) {
+		double sourceScores[] = new double[this.sources.length];
+		for (int s = 0; s < this.sources.length; s ++) {
+			Double probability = probabilities.get(this.sources[s]);
+			sourceScores[s] = (probability == null) ? 0.0 : Math.log(probability);
+		}
+		double ruleScores[] = new double[this.ruleSources.length];
+		for (int r = 0; r < ruleScores.length; r ++) {
+			ruleScores[r] = Double.NEGATIVE_INFINITY;
+			for (int alternative[] : this.ruleSources[r]) { // the best way to derive the rule.
+				double score = 0.0;
+				for (int s : alternative)
+					score += sourceScores[s];
+				ruleScores[r] = Math.max(ruleScores[r], score);
+			}
+		}
+		return ruleScores;
+	}
+
+	/**
+	 * Compiles the source productions of every rule, as alternatives of source production indexes.
+	 *
+	 * @param rules the rule table.
+	 * @param sources the productions of the specified grammar.
+	 * @param ruleSources the source productions of every normal form production.
+	 *
+	 * @return the alternatives of source production indexes of every rule, indexed by rule id.
+	 */
+	private static int[][][] compileRuleSources(CYKRuleTable rules, Production sources[], Map<Production, SourceProductions> ruleSources) {
+		Map<Production, Integer> indexes = new HashMap<Production, Integer>();
+		for (int s = 0; s < sources.length; s ++)
+			indexes.put(sources[s], s);
+		int compiled[][][] = new int[rules.getRuleCount()][][];
+		for (int r = 0; r < compiled.length; r ++) {
+			SourceProductions productionSources = ruleSources.get(rules.getRule(r));
+			if (productionSources == null)
+				productionSources = SourceProductions.INTRODUCED;
+			compiled[r] = new int[productionSources.size()][];
+			int a = 0;
+			for (List<Production> alternative : productionSources.getAlternatives()) {
+				compiled[r][a] = new int[alternative.size()];
+				for (int i = 0; i < alternative.size(); i ++)
+					compiled[r][a][i] = indexes.get(alternative.get(i));
+				a ++;
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * <p>Generates the Cocke-Younger-Kasami recognition matrix for the specified word.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return the Cocke-Younger-Kasami recognition matrix for the specified word.
+	 */
+	public CYKMatrix getRecognitionMatrix(String word) {
+		return this.getRecognitionBitMatrix(word).toCYKMatrix();
+	}
+
+	/**
+	 * <p>Generates the bitset-based Cocke-Younger-Kasami recognition matrix for the specified word.<p>
+	 *
+	 * @param word the word to parse.
+	 *
+	 * @return the bitset-based Cocke-Younger-Kasami recognition matrix for the specified word.
+	 */
+	public CYKBitMatrix getRecognitionBitMatrix(String word) {
+		return this.getRecognitionBitMatrix(word, null, CYKParser.PARALLEL_CUTOFF);
+	}
+
+	/**
+	 * <p>Generates the bitset-based Cocke-Younger-Kasami recognition matrix for the specified word,
+	 * filling every length level in parallel.<p>
+	 * <p>All the cells with the same length only depend on cells with lower length,
+	 * so every length level is submitted to the specified pool as a fork/join task,
+	 * which stays sequential below the specified cutoff.
+	 * The resulting matrix is the same as the sequential one.<p>
+	 *
+	 * @param word the word to parse.
+	 * @param pool the fork/join pool; if null, the matrix is filled sequentially.
+	 * @param cutoff the maximum number of cells of the same length filled sequentially.
+	 *
+	 * @return the bitset-based Cocke-Younger-Kasami recognition matrix for the specified word.
+	 */
+	public CYKBitMatrix getRecognitionBitMatrix(String word, ForkJoinPool pool, int cutoff) {
+		word = (word.length() == 0) ? Grammar.EPSILON.toString() : word;
+		return this.fill(new CYKBitMatrix(word, this.rules.getNonTerminals()), null, pool, cutoff); // the structure of the Cocke-Younger-Kasami recognition matrix fully depends on the word to parse.
+	}
+
+	/**
+	 * Fills the bitset-based recognition matrix, for a non empty word.
+	 *
+	 * @param matrix the empty recognition matrix.
+	 * @param pruner the pruner; if null, the matrix is not pruned.
+	 * @param pool the fork/join pool; if null, the matrix is filled sequentially.
+	 * @param cutoff the maximum number of cells of the same length filled sequentially.
+	 *
+	 * @return the filled recognition matrix.
+	 */
+	private CYKBitMatrix fill(CYKBitMatrix matrix, CYKPruner pruner, ForkJoinPool pool, int cutoff) {
+		TokenStream tokens = matrix.getTokens();
+
+		for (int p = 1; p <= tokens.length(); p ++) // every p-th symbol in the word (that is, the substring with length 1 starting at p) can be generated by all of the non terminal symbol that produce it.
+			if (pruner == null)
+				this.rules.seed(matrix, p, tokens.get(p - 1));
+			else
+				pruner.seed(matrix, p);
+
+		for (int l = 2; l <= tokens.length(); l ++) { // every substring of length l starting at p can be generated by all of non terminal symbols that generate its inner substrings.
+			int cells = tokens.length() - l + 1;
+			if (pool == null || cells <= cutoff)
+				for (int p = 1; p <= cells; p ++)
+					if (pruner == null)
+						this.rules.fill(matrix, l, p);
+					else
+						pruner.fill(matrix, l, p);
+			else
+				pool.invoke(new CYKFillTask(this.rules, pruner, matrix, l, 1, cells, cutoff)); // the length level l is completed before l + 1 starts.
+		}
+
+		return matrix;
+	}
+
+	/**
+	 * <p>Generates the off-heap bitset-based Cocke-Younger-Kasami recognition matrix for the specified word.<p>
+	 * <p>The matrix is filled length by length, and must be closed when no more needed.<p>
+	 *
+	 * @param word the word to parse.
+	 * @param file the file to map; if null, the matrix is stored in direct buffers.
+	 *
+	 * @return the off-heap bitset-based Cocke-Younger-Kasami recognition matrix for the specified word.
+	 *
+	 * @throws IOException if the specified file cannot be mapped.
+	 */
+	public CYKOffHeapMatrix getRecognitionOffHeapMatrix(String word, File file) throws IOException {
+		word = (word.length() == 0) ? Grammar.EPSILON.toString() : word;
+		CYKOffHeapMatrix matrix = (file == null) ? new CYKOffHeapMatrix(word, this.rules.getNonTerminals()) : new CYKOffHeapMatrix(word, this.rules.getNonTerminals(), file);
+		this.fill(matrix, null);
+		return matrix;
+	}
+
+	/**
+	 * Fills the off-heap recognition matrix, length by length.
+	 *
+	 * @param matrix the off-heap recognition matrix.
+	 * @param pruner the pruner; if null, the matrix is not pruned.
+	 */
+	private void fill(CYKOffHeapMatrix matrix, CYKPruner pruner) {
+		TokenStream tokens = matrix.getTokens();
+		for (int p = 1; p <= tokens.length(); p ++)
+			if (pruner == null)
+				this.rules.seed(matrix, p, tokens.get(p - 1));
+			else
+				pruner.seed(matrix, p);
+
+		long cells[] = (pruner == null) ? this.rules.newOffHeapBuffer() : pruner.newOffHeapBuffer(); // one buffer for the whole fill.
+		for (int l = 2; l <= tokens.length(); l ++)
+			for (int p = 1; p <= tokens.length() - l + 1; p ++)
+				if (pruner == null)
+					this.rules.fill(matrix, l, p, cells);
+				else
+					pruner.fill(matrix, l, p, cells);
+	}
+
+	/**
+	 * Checks if the word of the specified recognition matrix can be fully produced from the axiom of the compiled grammar.
+	 *
+	 * @param recognitionMatrix the filled recognition matrix.
+	 *
+	 * @return true if the word of the specified recognition matrix can be fully produced from the axiom; false, otherwise.
+	 */
+	private boolean isAccepted(CYKBitMatrix recognitionMatrix) {
+		return recognitionMatrix.contains(recognitionMatrix.getSize(), 1, this.axiom); // a word can be parsed if it can be fully produced from the axiom.
+	}
+
+	@Override public String toString() {
+		return "CompiledCYKGrammar(" + this.grammar + ")";
+	}
+
+}
@@ -0,0 +1,122 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.forest;
+
+import com.gmarciani.gmparser.models.grammar.production.Production;
+
+/**
+ * <p>Packed node of the shared packed parse forest.<p>
+ * <p>A packed node is a back-pointer (rule, split point): for a binary rule A -> BC with split l1,
+ * it points to the symbol nodes (B, l1, p) and (C, l - l1, p + l1);
+ * for a terminal rule A -> a, it has no children.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.forest.SymbolNode
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class PackedNode {
+
+	private final int rule;
+	private final Production production;
+	private final int split;
+	private final SymbolNode left;
+	private final SymbolNode right;
+
+	/**
+	 * Creates a new packed node.
+	 *
+	 * @param rule the rule id.
+	 * @param production the production.
+	 * @param split the split point, that is the length of the left substring; 0 for terminal rules.
+	 * @param left the left child; null for terminal rules.
+	 * @param right the right child; null for terminal rules.
+	 */
+	PackedNode(int rule, Production production, int split, SymbolNode left, SymbolNode right) {
+		this.rule = rule;
+		this.production = production;
+		this.split = split;
+		this.left = left;
+		this.right = right;
+	}
+
+	/**
+	 * Returns the rule id.
+	 *
+	 * @return the rule id.
+	 */
+	public int getRule() {
+		return this.rule;
+	}
+
+	/**
+	 * Returns the production.
+	 *
+	 * @return the production.
+	 */
+	public Production getProduction() {
+		return this.production;
+	}
+
+	/**
+	 * Returns the split point, that is the length of the left substring.
+	 *
+	 * @return the split point; 0 for terminal rules.
+	 */
+	public int getSplit() {
+		return this.split;
+	}
+
+	/**
+	 * Returns the left child.
+	 *
+	 * @return the left child; null for terminal rules.
+	 */
+	public SymbolNode getLeft() {
+		return this.left;
+	}
+
+	/**
+	 * Returns the right child.
+	 *
+	 * @return the right child; null for terminal rules.
+	 */
+	public SymbolNode getRight() {
+		return this.right;
+	}
+
+	/**
+	 * Checks if the packed node is for a terminal rule A -> a.
+	 *
+	 * @return true if the packed node is for a terminal rule; false, otherwise.
+	 */
+	public boolean isTerminal() {
+		return this.left == null;
+	}
+
+	@Override public String toString() {
+		return "(" + this.getProduction() + "," + this.getSplit() + ")";
+	}
+
+}
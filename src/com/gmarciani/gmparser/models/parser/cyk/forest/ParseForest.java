@@ -0,0 +1,194 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.forest;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.NonTerminalIndex;
+
+/**
+ * <p>The shared packed parse forest (SPPF) derived from a Cocke-Younger-Kasami recognition matrix.<p>
+ * <p>Every symbol node (A, l, p) is stored once, and shared by every derivation that uses it.
+ * Every symbol node holds the back-pointers (rule, split point) of its alternatives, as packed nodes.
+ * So, the forest has at most O(n^2 |V|) symbol nodes and O(n^3 |P|) packed nodes,
+ * even if the number of parse trees is exponential: trees are only enumerated lazily.<p>
+ * <p>Only the symbol nodes reachable from the root (S, n, 1) are built.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.forest.SymbolNode
+ * @see com.gmarciani.gmparser.models.parser.cyk.forest.PackedNode
+ * @see com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class ParseForest implements Iterable<ParseTree> {
+
+	private final String word;
+	private final SymbolNode root;
+	private final Map<Long, SymbolNode> nodes;
+	private int packedNodes;
+
+	/**
+	 * Creates the shared packed parse forest for the specified filled recognition matrix.
+	 *
+	 * @param rules the rule table the recognition matrix has been filled with.
+	 * @param matrix the filled recognition matrix.
+	 * @param axiom the axiom.
+	 */
+	public ParseForest(CYKRuleTable rules, CYKBitMatrix matrix, Character axiom) {
+		this.word = matrix.getWord();
+		this.nodes = new HashMap<Long, SymbolNode>();
+		this.packedNodes = 0;
+		int axiomIndex = rules.getNonTerminals().indexOf(axiom);
+		if (!matrix.contains(matrix.getSize(), 1, axiomIndex)) {
+			this.root = null;
+			return;
+		}
+		Deque<SymbolNode> pending = new ArrayDeque<SymbolNode>();
+		this.root = this.getOrCreate(rules.getNonTerminals(), matrix, axiomIndex, matrix.getSize(), 1, pending);
+		while (!pending.isEmpty())
+			this.expand(rules, matrix, pending.removeFirst(), pending);
+	}
+
+	/**
+	 * Adds to the specified node all its packed nodes, creating the missing children.
+	 */
+	private void expand(CYKRuleTable rules, CYKBitMatrix matrix, SymbolNode node, Deque<SymbolNode> pending) {
+		NonTerminalIndex nonTerminals = rules.getNonTerminals();
+		int head = nonTerminals.indexOf(node.getSymbol());
+		int l = node.getLength();
+		int p = node.getPosition();
+		for (int i = 0; i < rules.getRuleCountByHead(head); i ++) {
+			int rule = rules.getRuleByHead(head, i);
+			if (rules.isTerminalRule(rule)) { // A -> a, for substrings with length 1.
+				if (l == 1 && rules.getRuleTerminal(rule) == this.word.charAt(p - 1)) {
+					node.addAlternative(new PackedNode(rule, rules.getRule(rule), 0, null, null));
+					this.packedNodes ++;
+				}
+				continue;
+			}
+			int b = rules.getRuleLeft(rule);
+			int c = rules.getRuleRight(rule);
+			for (int l1 = 1; l1 < l; l1 ++) { // A -> BC, for every split point such that B =>* w(p, l1) and C =>* w(p + l1, l - l1).
+				if (!matrix.contains(l1, p, b) || !matrix.contains(l - l1, p + l1, c))
+					continue;
+				SymbolNode left = this.getOrCreate(nonTerminals, matrix, b, l1, p, pending);
+				SymbolNode right = this.getOrCreate(nonTerminals, matrix, c, l - l1, p + l1, pending);
+				node.addAlternative(new PackedNode(rule, rules.getRule(rule), l1, left, right));
+				this.packedNodes ++;
+			}
+		}
+	}
+
+	private SymbolNode getOrCreate(NonTerminalIndex nonTerminals, CYKBitMatrix matrix, int index, int l, int p, Deque<SymbolNode> pending) {
+		long key = (((long) l * (matrix.getSize() + 1)) + p) * nonTerminals.size() + index;
+		SymbolNode node = this.nodes.get(key);
+		if (node == null) {
+			node = new SymbolNode(nonTerminals.getSymbol(index), l, p);
+			this.nodes.put(key, node);
+			pending.addLast(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the parsed word.
+	 *
+	 * @return the parsed word.
+	 */
+	public String getWord() {
+		return this.word;
+	}
+
+	/**
+	 * Returns the root (S, n, 1) of the forest.
+	 *
+	 * @return the root of the forest, if the word has been parsed; null, otherwise.
+	 */
+	public SymbolNode getRoot() {
+		return this.root;
+	}
+
+	/**
+	 * Checks if the forest is empty, that is the word has not been parsed.
+	 *
+	 * @return true if the forest is empty; false, otherwise.
+	 */
+	public boolean isEmpty() {
+		return this.root == null;
+	}
+
+	/**
+	 * Returns the number of symbol nodes.
+	 *
+	 * @return the number of symbol nodes.
+	 */
+	public int getSymbolNodeCount() {
+		return this.nodes.size();
+	}
+
+	/**
+	 * Returns the number of packed nodes.
+	 *
+	 * @return the number of packed nodes.
+	 */
+	public int getPackedNodeCount() {
+		return this.packedNodes;
+	}
+
+	/**
+	 * Checks if the parsed word is ambiguous, that is some reachable symbol node has more than one alternative.
+	 *
+	 * @return true if the parsed word is ambiguous; false, otherwise.
+	 */
+	public boolean isAmbiguous() {
+		for (SymbolNode node : this.nodes.values())
+			if (node.isAmbiguous())
+				return true;
+		return false;
+	}
+
+	/**
+	 * Returns a lazy iterator over all the parse trees of the word.
+	 *
+	 * @return a lazy iterator over all the parse trees of the word.
+	 */
+	@Override public Iterator<ParseTree> iterator() {
+		if (this.isEmpty())
+			return Collections.<ParseTree>emptyList().iterator();
+		return this.getRoot().iterator();
+	}
+
+	@Override public String toString() {
+		return "ParseForest(" + this.getWord() + "," + this.getRoot() + "," + this.getSymbolNodeCount() + "," + this.getPackedNodeCount() + ")";
+	}
+
+}
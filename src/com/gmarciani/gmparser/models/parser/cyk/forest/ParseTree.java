@@ -0,0 +1,115 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.forest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.gmarciani.gmparser.models.grammar.production.Production;
+
+/**
+ * <p>Parse tree, that is a single derivation extracted from the shared packed parse forest.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.forest.ParseForest
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class ParseTree {
+
+	private final Production production;
+	private final List<ParseTree> children;
+
+	/**
+	 * Creates a new parse tree for the terminal production A -> a.
+	 *
+	 * @param production the terminal production.
+	 */
+	public ParseTree(Production production) {
+		this.production = production;
+		this.children = Collections.emptyList();
+	}
+
+	/**
+	 * Creates a new parse tree for the binary production A -> BC.
+	 *
+	 * @param production the binary production.
+	 * @param left the parse tree of B.
+	 * @param right the parse tree of C.
+	 */
+	public ParseTree(Production production, ParseTree left, ParseTree right) {
+		this.production = production;
+		List<ParseTree> children = new ArrayList<ParseTree>(2);
+		children.add(left);
+		children.add(right);
+		this.children = Collections.unmodifiableList(children);
+	}
+
+	/**
+	 * Returns the production applied at the root.
+	 *
+	 * @return the production applied at the root.
+	 */
+	public Production getProduction() {
+		return this.production;
+	}
+
+	/**
+	 * Returns the subtrees.
+	 *
+	 * @return the subtrees; an empty list, for terminal productions.
+	 */
+	public List<ParseTree> getChildren() {
+		return this.children;
+	}
+
+	@Override public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || this.getClass() != obj.getClass())
+			return false;
+		ParseTree other = (ParseTree) obj;
+		return this.getProduction().equals(other.getProduction())
+				&& this.getChildren().equals(other.getChildren());
+	}
+
+	@Override public int hashCode() {
+		return 31 * this.getProduction().hashCode() + this.getChildren().hashCode();
+	}
+
+	/**
+	 * Returns the bracketed representation of the parse tree, e.g. S(A(a)B(b)).
+	 */
+	@Override public String toString() {
+		StringBuilder string = new StringBuilder();
+		string.append(this.getProduction().getLeft().getValue()).append("(");
+		if (this.getChildren().isEmpty())
+			string.append(this.getProduction().getRight().getValue());
+		for (ParseTree child : this.getChildren())
+			string.append(child);
+		return string.append(")").toString();
+	}
+
+}
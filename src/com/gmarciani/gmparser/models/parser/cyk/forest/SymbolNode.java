@@ -0,0 +1,189 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.forest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Symbol node of the shared packed parse forest.<p>
+ * <p>A symbol node (A, l, p) represents all the derivations of the substring with length l starting at p from A,
+ * and it is shared by every derivation that uses it.
+ * Its alternatives are the packed nodes, one for every rule and split point.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.forest.ParseForest
+ * @see com.gmarciani.gmparser.models.parser.cyk.forest.PackedNode
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class SymbolNode implements Iterable<ParseTree> {
+
+	private final Character symbol;
+	private final int length;
+	private final int position;
+	private final List<PackedNode> alternatives;
+
+	/**
+	 * Creates a new symbol node (A, l, p), with no alternatives.
+	 *
+	 * @param symbol the non terminal symbol A.
+	 * @param length the length l of the substring.
+	 * @param position the position p of the substring.
+	 */
+	SymbolNode(Character symbol, int length, int position) {
+		this.symbol = symbol;
+		this.length = length;
+		this.position = position;
+		this.alternatives = new ArrayList<PackedNode>();
+	}
+
+	/**
+	 * Returns the non terminal symbol.
+	 *
+	 * @return the non terminal symbol.
+	 */
+	public Character getSymbol() {
+		return this.symbol;
+	}
+
+	/**
+	 * Returns the length of the substring.
+	 *
+	 * @return the length of the substring.
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Returns the position of the substring.
+	 *
+	 * @return the position of the substring.
+	 */
+	public int getPosition() {
+		return this.position;
+	}
+
+	/**
+	 * Returns the alternatives, that is the packed nodes.
+	 *
+	 * @return the alternatives.
+	 */
+	public List<PackedNode> getAlternatives() {
+		return Collections.unmodifiableList(this.alternatives);
+	}
+
+	/**
+	 * Checks if the symbol node is ambiguous, that is it has more than one alternative.
+	 *
+	 * @return true if the symbol node is ambiguous; false, otherwise.
+	 */
+	public boolean isAmbiguous() {
+		return this.alternatives.size() > 1;
+	}
+
+	void addAlternative(PackedNode alternative) {
+		this.alternatives.add(alternative);
+	}
+
+	/**
+	 * Returns a lazy iterator over all the parse trees rooted in the symbol node.
+	 * Trees are generated one at a time, on demand.
+	 *
+	 * @return a lazy iterator over all the parse trees rooted in the symbol node.
+	 */
+	@Override public Iterator<ParseTree> iterator() {
+		return new TreeIterator(this);
+	}
+
+	@Override public String toString() {
+		return "(" + this.getSymbol() + "," + this.getLength() + "," + this.getPosition() + ")";
+	}
+
+	/**
+	 * Lazy iterator over the parse trees of a symbol node: 
+	 * for every alternative, it enumerates the cartesian product of the left and right subtrees.
+	 */
+	private static final class TreeIterator implements Iterator<ParseTree> {
+
+		private final SymbolNode node;
+		private int alternative;
+		private Iterator<ParseTree> lefts;
+		private ParseTree left;
+		private Iterator<ParseTree> rights;
+		private ParseTree next;
+
+		private TreeIterator(SymbolNode node) {
+			this.node = node;
+			this.alternative = 0;
+			this.next = this.advance();
+		}
+
+		private ParseTree advance() {
+			while (this.alternative < this.node.alternatives.size()) {
+				PackedNode packed = this.node.alternatives.get(this.alternative);
+				if (packed.isTerminal()) { // A -> a: exactly one tree.
+					this.alternative ++;
+					return new ParseTree(packed.getProduction());
+				}
+				if (this.lefts == null)
+					this.lefts = packed.getLeft().iterator();
+				if (this.rights != null && this.rights.hasNext())
+					return new ParseTree(packed.getProduction(), this.left, this.rights.next());
+				if (this.lefts.hasNext()) { // next left subtree: restarts the right subtrees.
+					this.left = this.lefts.next();
+					this.rights = packed.getRight().iterator();
+					continue;
+				}
+				this.alternative ++; // next alternative.
+				this.lefts = null;
+				this.left = null;
+				this.rights = null;
+			}
+			return null;
+		}
+
+		@Override public boolean hasNext() {
+			return this.next != null;
+		}
+
+		@Override public ParseTree next() {
+			if (this.next == null)
+				throw new NoSuchElementException();
+			ParseTree current = this.next;
+			this.next = this.advance();
+			return current;
+		}
+
+		@Override public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
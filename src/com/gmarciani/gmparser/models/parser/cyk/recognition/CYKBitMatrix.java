@@ -0,0 +1,241 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import com.gmarciani.gmparser.models.parser.TokenStream;
+
+/**
+ * <p>The bitset-based recognition matrix for the Cocke-Younger-Kasami parser.<p>
+ * <p>Only the upper triangle of the recognition matrix is stored (that is, every cell (l, p) with p <= n - l + 1),
+ * row by row, in one flat array of longs.
+ * Every cell is a bitmask of {@code getWords()} longs over the dense non terminal index.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.NonTerminalIndex
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKMatrix
+ * @see com.gmarciani.gmparser.models.parser.cyk.CYKParser
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKBitMatrix {
+
+	private final String word;
+	private final TokenStream tokens;
+	private final NonTerminalIndex nonTerminals;
+	private final int size;
+	private final int words;
+	private final long cells[];
+
+	/**
+	 * Creates a new bitset-based Cocke-Younger-Kasami recognition matrix for the specified word and non terminal index.
+	 *
+	 * @param word the word.
+	 * @param nonTerminals the non terminal index.
+	 */
+	public CYKBitMatrix(String word, NonTerminalIndex nonTerminals) {
+		this(word, TokenStream.of(word), nonTerminals);
+	}
+
+	/**
+	 * Creates a new bitset-based Cocke-Younger-Kasami recognition matrix for the specified token stream and non terminal index.
+	 *
+	 * @param tokens the token stream.
+	 * @param nonTerminals the non terminal index.
+	 */
+	public CYKBitMatrix(TokenStream tokens, NonTerminalIndex nonTerminals) {
+		this(null, tokens, nonTerminals);
+	}
+
+	private CYKBitMatrix(String word, TokenStream tokens, NonTerminalIndex nonTerminals) {
+		this.word = word;
+		this.tokens = tokens;
+		this.nonTerminals = nonTerminals;
+		this.size = (tokens.length() == 0) ? 1 : tokens.length();
+		this.words = nonTerminals.getWords();
+		this.cells = new long[CYKMatrix.getFlatLength(this.size, this.words)];
+	}
+
+	/**
+	 * Returns the word to parse.
+	 *
+	 * @return the word to parse.
+	 */
+	public String getWord() {
+		return (this.word != null) ? this.word : this.tokens.toString();
+	}
+
+	/**
+	 * Returns the token stream to parse.
+	 *
+	 * @return the token stream to parse.
+	 */
+	public TokenStream getTokens() {
+		return this.tokens;
+	}
+
+	/**
+	 * Returns the non terminal index.
+	 *
+	 * @return the non terminal index.
+	 */
+	public NonTerminalIndex getNonTerminals() {
+		return this.nonTerminals;
+	}
+
+	/**
+	 * Returns the size of the matrix, that is the number of rows (word lengths).
+	 *
+	 * @return the size of the matrix.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the number of longs of every cell.
+	 *
+	 * @return the number of longs of every cell.
+	 */
+	public int getWords() {
+		return this.words;
+	}
+
+	/**
+	 * Returns the offset of the cell (l, p) in the flat array of cells.
+	 *
+	 * @param l the length of the substring (row index, from 1).
+	 * @param p the position of the substring (column index, from 1).
+	 *
+	 * @return the offset of the cell (l, p) in the flat array of cells.
+	 */
+	int offset(int l, int p) {
+		return CYKMatrix.getOffset(this.size, l, p, this.words);
+	}
+
+	/**
+	 * Returns the flat array of cells.
+	 *
+	 * @return the flat array of cells.
+	 */
+	long[] getCells() {
+		return this.cells;
+	}
+
+	/**
+	 * Checks if the specified cell is inside the upper triangle of the matrix.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 *
+	 * @return true if the specified cell is inside the upper triangle of the matrix; false, otherwise.
+	 */
+	public boolean isDefined(int l, int p) {
+		return (l >= 1 && l <= this.size && p >= 1 && p <= this.size - l + 1);
+	}
+
+	/**
+	 * Checks if the cell (l, p) contains the non terminal symbol with the specified index.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param index the non terminal index.
+	 *
+	 * @return true if the cell (l, p) contains the non terminal symbol with the specified index; false, otherwise.
+	 */
+	public boolean contains(int l, int p, int index) {
+		if (index < 0 || !this.isDefined(l, p))
+			return false;
+		return (this.cells[this.offset(l, p) + (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Adds to the cell (l, p) the non terminal symbol with the specified index.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param index the non terminal index.
+	 */
+	public void add(int l, int p, int index) {
+		this.cells[this.offset(l, p) + (index >>> 6)] |= (1L << index);
+	}
+
+	/**
+	 * Adds to the cell (l, p) all the non terminal symbols in the specified bitmask.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param mask the bitmask, of {@code getWords()} longs.
+	 */
+	public void or(int l, int p, long mask[]) {
+		int offset = this.offset(l, p);
+		for (int w = 0; w < this.words; w ++)
+			this.cells[offset + w] |= mask[w];
+	}
+
+	/**
+	 * Copies the bitmask of the cell (l, p) into the specified array.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param mask the destination array, of {@code getWords()} longs.
+	 */
+	public void get(int l, int p, long mask[]) {
+		System.arraycopy(this.cells, this.offset(l, p), mask, 0, this.words);
+	}
+
+	/**
+	 * Checks if the cell (l, p) contains no non terminal symbol.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 *
+	 * @return true if the cell (l, p) contains no non terminal symbol; false, otherwise.
+	 */
+	public boolean isEmpty(int l, int p) {
+		int offset = this.offset(l, p);
+		for (int w = 0; w < this.words; w ++)
+			if (this.cells[offset + w] != 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Generates the Cocke-Younger-Kasami recognition matrix equivalent to the current bitset-based matrix.
+	 *
+	 * @return the Cocke-Younger-Kasami recognition matrix equivalent to the current bitset-based matrix.
+	 */
+	public CYKMatrix toCYKMatrix() {
+		CYKMatrix matrix = new CYKMatrix(this.getWord());
+		for (int l = 1; l <= this.size; l ++)
+			for (int p = 1; p <= this.size - l + 1; p ++)
+				if (!this.isEmpty(l, p))
+					matrix.put(l, p, this.getNonTerminals().toAlphabet(this.cells, this.offset(l, p)));
+		return matrix;
+	}
+
+	@Override public String toString() {
+		return "CYKBitMatrix(" + this.getWord() + "," + this.getNonTerminals() + ")";
+	}
+
+}
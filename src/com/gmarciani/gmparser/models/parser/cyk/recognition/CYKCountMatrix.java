@@ -0,0 +1,222 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.math.BigInteger;
+
+/**
+ * <p>The derivation count matrix for the Cocke-Younger-Kasami parser.<p>
+ * <p>Every cell (l, p) stores, for every non terminal symbol A, the number of distinct derivations A =>* w(p, l),
+ * computed in the same O(n^3) pass as the recognition, without building any tree.
+ * Counts are stored in one flat array of longs; if any count overflows, 
+ * the whole matrix is computed again with BigInteger counts.<p>
+ * <p>Only the upper triangle of the matrix is stored, with the same layout as the bitset-based recognition matrix.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKCountMatrix {
+
+	private final String word;
+	private final NonTerminalIndex nonTerminals;
+	private final int size;
+	private final int symbols;
+	private final long counts[];
+	private final BigInteger bigCounts[];
+
+	/**
+	 * Creates and fills the derivation count matrix for the specified word.
+	 *
+	 * @param rules the rule table.
+	 * @param word the word.
+	 */
+	public CYKCountMatrix(CYKRuleTable rules, String word) {
+		this.word = word;
+		this.nonTerminals = rules.getNonTerminals();
+		this.size = (word.length() == 0) ? 1 : word.length();
+		this.symbols = this.nonTerminals.size();
+		long counts[] = new long[CYKMatrix.getFlatLength(this.size, this.symbols)];
+		if (this.fill(rules, counts)) {
+			this.counts = counts;
+			this.bigCounts = null;
+		} else { // some count overflowed: falls back to BigInteger counts.
+			this.counts = null;
+			this.bigCounts = new BigInteger[counts.length];
+			this.fill(rules, this.bigCounts);
+		}
+	}
+
+	/**
+	 * Fills the specified long counts.
+	 *
+	 * @return true if no count overflowed; false, otherwise.
+	 */
+	private boolean fill(CYKRuleTable rules, long counts[]) {
+		for (int p = 1; p <= this.word.length(); p ++) { // A -> a: one derivation for every terminal rule.
+			int target = this.offset(1, p);
+			int terminal = rules.indexOfTerminal(this.word.charAt(p - 1));
+			for (int i = 0; terminal != -1 && i < rules.getRuleCountByTerminal(terminal); i ++)
+				counts[target + rules.getRuleHead(rules.getRuleByTerminal(terminal, i))] ++;
+		}
+		for (int l = 2; l <= this.word.length(); l ++) {
+			for (int p = 1; p <= (this.word.length() - l + 1); p ++) {
+				int target = this.offset(l, p);
+				for (int l1 = 1; l1 < l; l1 ++) { // A -> BC: #(A, l, p) += #(B, l1, p) * #(C, l - l1, p + l1).
+					int left = this.offset(l1, p);
+					int right = this.offset(l - l1, p + l1);
+					for (int bi = 0; bi < this.symbols; bi ++) { // only the binary rules whose B derives the left substring.
+						long b = counts[left + bi];
+						if (b == 0)
+							continue;
+						for (int i = 0; i < rules.getRuleCountByLeft(bi); i ++) {
+							int r = rules.getRuleByLeft(bi, i);
+							long c = counts[right + rules.getRuleRight(r)];
+							if (c == 0)
+								continue;
+							if (b > Long.MAX_VALUE / c)
+								return false;
+							long sum = counts[target + rules.getRuleHead(r)] + b * c;
+							if (sum < 0)
+								return false;
+							counts[target + rules.getRuleHead(r)] = sum;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Fills the specified BigInteger counts.
+	 */
+	private void fill(CYKRuleTable rules, BigInteger counts[]) {
+		for (int i = 0; i < counts.length; i ++)
+			counts[i] = BigInteger.ZERO;
+		for (int p = 1; p <= this.word.length(); p ++) {
+			int target = this.offset(1, p);
+			int terminal = rules.indexOfTerminal(this.word.charAt(p - 1));
+			for (int i = 0; terminal != -1 && i < rules.getRuleCountByTerminal(terminal); i ++) {
+				int head = rules.getRuleHead(rules.getRuleByTerminal(terminal, i));
+				counts[target + head] = counts[target + head].add(BigInteger.ONE);
+			}
+		}
+		for (int l = 2; l <= this.word.length(); l ++) {
+			for (int p = 1; p <= (this.word.length() - l + 1); p ++) {
+				int target = this.offset(l, p);
+				for (int l1 = 1; l1 < l; l1 ++) {
+					int left = this.offset(l1, p);
+					int right = this.offset(l - l1, p + l1);
+					for (int bi = 0; bi < this.symbols; bi ++) {
+						BigInteger b = counts[left + bi];
+						if (b.signum() == 0)
+							continue;
+						for (int i = 0; i < rules.getRuleCountByLeft(bi); i ++) {
+							int r = rules.getRuleByLeft(bi, i);
+							BigInteger c = counts[right + rules.getRuleRight(r)];
+							if (c.signum() == 0)
+								continue;
+							counts[target + rules.getRuleHead(r)] = counts[target + rules.getRuleHead(r)].add(b.multiply(c));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private int offset(int l, int p) {
+		return CYKMatrix.getOffset(this.size, l, p, this.symbols);
+	}
+
+	/**
+	 * Returns the word.
+	 *
+	 * @return the word.
+	 */
+	public String getWord() {
+		return this.word;
+	}
+
+	/**
+	 * Returns the non terminal index.
+	 *
+	 * @return the non terminal index.
+	 */
+	public NonTerminalIndex getNonTerminals() {
+		return this.nonTerminals;
+	}
+
+	/**
+	 * Returns the size of the matrix, that is the number of rows (word lengths).
+	 *
+	 * @return the size of the matrix.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Checks if the counts overflowed longs, so they are stored as BigInteger.
+	 *
+	 * @return true if the counts are stored as BigInteger; false, otherwise.
+	 */
+	public boolean isBig() {
+		return this.bigCounts != null;
+	}
+
+	/**
+	 * Returns the number of derivations of the substring with length l starting at p from the specified non terminal symbol.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param index the non terminal index.
+	 *
+	 * @return the number of derivations; 0, if the non terminal symbol or the cell is not defined.
+	 */
+	public BigInteger getCount(int l, int p, int index) {
+		if (index < 0 || l < 1 || l > this.size || p < 1 || p > this.size - l + 1)
+			return BigInteger.ZERO;
+		int offset = this.offset(l, p) + index;
+		return this.isBig() ? this.bigCounts[offset] : BigInteger.valueOf(this.counts[offset]);
+	}
+
+	/**
+	 * Returns the number of derivations of the whole word from the specified non terminal symbol.
+	 *
+	 * @param symbol the non terminal symbol.
+	 *
+	 * @return the number of derivations of the whole word from the specified non terminal symbol.
+	 */
+	public BigInteger getCount(Character symbol) {
+		return this.getCount(this.size, 1, this.nonTerminals.indexOf(symbol));
+	}
+
+	@Override public String toString() {
+		return "CYKCountMatrix(" + this.getWord() + "," + this.getNonTerminals() + ")";
+	}
+
+}
@@ -0,0 +1,102 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>Fork/join task that fills a range of cells of the same length in the bitset-based Cocke-Younger-Kasami recognition matrix.<p>
+ * <p>All the cells (l, p) with the same length l only depend on cells with lower length,
+ * so they can be filled in parallel once the previous length level has been completed.
+ * Ranges with at most {@code cutoff} cells are filled sequentially.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKFillTask extends RecursiveAction {
+
+	private static final long serialVersionUID = -1740257369541205765L;
+
+	private final CYKRuleTable rules;
+	private final CYKPruner pruner;
+	private final CYKBitMatrix matrix;
+	private final int l;
+	private final int from;
+	private final int to;
+	private final int cutoff;
+
+	/**
+	 * Creates a new task that fills the cells (l, from), ..., (l, to) of the specified matrix.
+	 *
+	 * @param rules the rule table.
+	 * @param matrix the recognition matrix.
+	 * @param l the length of the substrings.
+	 * @param from the first position (inclusive).
+	 * @param to the last position (inclusive).
+	 * @param cutoff the maximum number of cells to fill sequentially.
+	 */
+	public CYKFillTask(CYKRuleTable rules, CYKBitMatrix matrix, int l, int from, int to, int cutoff) {
+		this(rules, null, matrix, l, from, to, cutoff);
+	}
+
+	/**
+	 * Creates a new task that fills the cells (l, from), ..., (l, to) of the specified matrix, 
+	 * keeping only the useful non terminal symbols.
+	 *
+	 * @param rules the rule table.
+	 * @param pruner the pruner; if null, cells are not pruned.
+	 * @param matrix the recognition matrix.
+	 * @param l the length of the substrings.
+	 * @param from the first position (inclusive).
+	 * @param to the last position (inclusive).
+	 * @param cutoff the maximum number of cells to fill sequentially.
+	 */
+	public CYKFillTask(CYKRuleTable rules, CYKPruner pruner, CYKBitMatrix matrix, int l, int from, int to, int cutoff) {
+		this.rules = rules;
+		this.pruner = pruner;
+		this.matrix = matrix;
+		this.l = l;
+		this.from = from;
+		this.to = to;
+		this.cutoff = Math.max(1, cutoff);
+	}
+
+	@Override protected void compute() {
+		if (this.to - this.from + 1 <= this.cutoff) {
+			for (int p = this.from; p <= this.to; p ++)
+				if (this.pruner == null)
+					this.rules.fill(this.matrix, this.l, p);
+				else
+					this.pruner.fill(this.matrix, this.l, p);
+			return;
+		}
+		int middle = (this.from + this.to) >>> 1;
+		invokeAll(new CYKFillTask(this.rules, this.pruner, this.matrix, this.l, this.from, middle, this.cutoff),
+				new CYKFillTask(this.rules, this.pruner, this.matrix, this.l, middle + 1, this.to, this.cutoff));
+	}
+
+}
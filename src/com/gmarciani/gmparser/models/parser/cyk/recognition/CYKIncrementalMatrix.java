@@ -0,0 +1,172 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.util.Arrays;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+
+/**
+ * <p>The incremental bitset-based recognition matrix for the Cocke-Younger-Kasami parser.<p>
+ * <p>The word grows one symbol at a time. Every cell (l, p) only depends on cells ending before or at p + l - 1,
+ * so appending the j-th symbol only computes the new column of cells ending at j (that is, j cells),
+ * and the whole session costs O(n^3) rather than O(n^4).<p>
+ * <p>Cells are stored column by column (by end position), in one growing flat array of longs.
+ * Note that the incremental matrix is mutable, so it must not be shared by threads.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKIncrementalMatrix {
+
+	private static final int INITIAL_LENGTH = 16;
+
+	private final CYKRuleTable rules;
+	private final int axiom;
+	private final int words;
+	private final boolean epsilonAccepted;
+	private final StringBuilder word;
+	private long cells[];
+
+	/**
+	 * Creates a new incremental recognition matrix, for the empty word.
+	 *
+	 * @param rules the rule table.
+	 * @param axiom the axiom.
+	 */
+	public CYKIncrementalMatrix(CYKRuleTable rules, Character axiom) {
+		this.rules = rules;
+		this.axiom = rules.getNonTerminals().indexOf(axiom);
+		this.words = rules.getNonTerminals().getWords();
+		this.word = new StringBuilder();
+		this.cells = new long[CYKMatrix.getFlatLength(INITIAL_LENGTH, this.words)];
+		long epsilon[] = new long[this.words];
+		rules.seed(epsilon, 0, Grammar.EPSILON); // the empty word is accepted if S -> epsilon.
+		this.epsilonAccepted = (this.axiom != -1) && (epsilon[this.axiom >>> 6] & (1L << this.axiom)) != 0;
+	}
+
+	/**
+	 * Returns the offset of the cell (l, p) in the flat array of cells.
+	 */
+	private int offset(int l, int p) {
+		long j = p + l - 1; // columns 1..j-1 hold 1, 2, ..., j-1 cells.
+		return (int) ((((j * (j - 1)) / 2) + l - 1) * this.words);
+	}
+
+	/**
+	 * Appends the specified symbol to the word, computing only the new column of cells.
+	 *
+	 * @param symbol the symbol to append.
+	 */
+	public void append(char symbol) {
+		int j = this.word.length() + 1;
+		int required = CYKMatrix.getFlatLength(j, this.words);
+		if (required > this.cells.length)
+			this.cells = Arrays.copyOf(this.cells, (int) Math.min(CYKMatrix.MAX_FLAT_LENGTH, Math.max(required, this.cells.length * 2L)));
+		this.word.append(symbol);
+
+		this.rules.seed(this.cells, this.offset(1, j), symbol); // the new symbol, as the substring (1, j).
+		for (int l = 2; l <= j; l ++) { // every substring ending at j, by increasing length: its inner substrings end before j, or at j with lower length.
+			int p = j - l + 1;
+			int target = this.offset(l, p);
+			for (int l1 = 1; l1 < l; l1 ++)
+				this.rules.join(this.cells, this.offset(l1, p), this.offset(l - l1, p + l1), target);
+		}
+	}
+
+	/**
+	 * Appends every symbol of the specified string to the word.
+	 *
+	 * @param symbols the symbols to append.
+	 */
+	public void append(String symbols) {
+		for (int i = 0; i < symbols.length(); i ++)
+			this.append(symbols.charAt(i));
+	}
+
+	/**
+	 * Returns the word so far.
+	 *
+	 * @return the word so far.
+	 */
+	public String getWord() {
+		return this.word.toString();
+	}
+
+	/**
+	 * Returns the length of the word so far.
+	 *
+	 * @return the length of the word so far.
+	 */
+	public int getLength() {
+		return this.word.length();
+	}
+
+	/**
+	 * Checks if the cell (l, p) contains the non terminal symbol with the specified index.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param index the non terminal index.
+	 *
+	 * @return true if the cell (l, p) contains the non terminal symbol with the specified index; false, otherwise.
+	 */
+	public boolean contains(int l, int p, int index) {
+		if (index < 0 || l < 1 || p < 1 || p + l - 1 > this.word.length())
+			return false;
+		return (this.cells[this.offset(l, p) + (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Checks if the word so far can be parsed, that is it can be fully produced from the axiom.
+	 *
+	 * @return true if the word so far can be parsed; false, otherwise.
+	 */
+	public boolean isAccepted() {
+		if (this.word.length() == 0)
+			return this.epsilonAccepted;
+		return this.contains(this.word.length(), 1, this.axiom);
+	}
+
+	/**
+	 * Generates the Cocke-Younger-Kasami recognition matrix equivalent to the current incremental matrix.
+	 *
+	 * @return the Cocke-Younger-Kasami recognition matrix equivalent to the current incremental matrix.
+	 */
+	public CYKMatrix toCYKMatrix() {
+		CYKMatrix matrix = new CYKMatrix(this.getWord());
+		for (int l = 1; l <= this.word.length(); l ++)
+			for (int p = 1; p <= this.word.length() - l + 1; p ++)
+				matrix.put(l, p, this.rules.getNonTerminals().toAlphabet(this.cells, this.offset(l, p)));
+		return matrix;
+	}
+
+	@Override public String toString() {
+		return "CYKIncrementalMatrix(" + this.getWord() + "," + this.rules.getNonTerminals() + ")";
+	}
+
+}
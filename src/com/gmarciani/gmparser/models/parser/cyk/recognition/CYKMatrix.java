@@ -24,9 +24,8 @@
 package com.gmarciani.gmparser.models.parser.cyk.recognition;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 
 import com.bethecoder.ascii_table.ASCIITable;
 import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
@@ -35,20 +34,29 @@ import com.google.common.collect.TreeBasedTable;
 
 /**
  * <p>The recognition matrix for the Cocke-Younger-Kasami parser.<p>
+ * <p>Only the upper triangle of the recognition matrix is stored (that is, every cell (l, p) with p <= n - l + 1),
+ * row by row, in one flat array. Every cell is allocated lazily, on its first non empty put.<p>
  * 
- * @see com.gmarciani.gmparser.model.parser.cyk.CYKParser
+ * @see com.gmarciani.gmparser.models.parser.cyk.CYKParser
  * 
  * @author Giacomo Marciani
  * @version 1.0
  */
-/**
- * @author giacomo
- *
- */
 public class CYKMatrix {
 	
-	private Table<Integer, Integer, Alphabet> matrix;
-	private String word;
+	/**
+	 * The maximum length of a flat triangular array, as allowed by most virtual machines.
+	 */
+	static final int MAX_FLAT_LENGTH = Integer.MAX_VALUE - 8;
+	
+	/**
+	 * The immutable empty alphabet, shared by every empty cell.
+	 */
+	private static final Alphabet EMPTY = new EmptyAlphabet();
+	
+	private final String word;
+	private final int size;
+	private final Alphabet cells[];
 
 	/**
 	 * Creates a new Cocke-Younger-Kasami recognition matrix for the specified word to parse.
@@ -57,16 +65,23 @@ public class CYKMatrix {
 	 */
 	public CYKMatrix(String word) {
 		this.word = word;
-		this.generate();		
+		this.size = (word.length() == 0) ? 1 : word.length();
+		this.cells = new Alphabet[getFlatLength(this.size, 1)];
 	}
 	
 	/**
-	 * Returns the Cocke-Younger-Kasami recognition matrix.
+	 * Returns the Cocke-Younger-Kasami recognition matrix, as a table.
+	 * <p>The table is generated on demand, as a snapshot of the upper triangle of the matrix: 
+	 * modifying it does not modify the recognition matrix.<p>
 	 * 
-	 * @return the Cocke-Younger-Kasami recognition matrix.
+	 * @return the Cocke-Younger-Kasami recognition matrix, as a table.
 	 */
 	public Table<Integer, Integer, Alphabet> getMatrix() {
-		return this.matrix;
+		Table<Integer, Integer, Alphabet> matrix = TreeBasedTable.create();
+		for (int r = 1; r <= this.size; r ++)
+			for (int c = 1; c <= this.size - r + 1; c ++)
+				matrix.put(r, c, this.get(r, c));
+		return matrix;
 	}
 	
 	/**
@@ -78,6 +93,15 @@ public class CYKMatrix {
 		return this.word;
 	}
 	
+	/**
+	 * Returns the size of the matrix, that is the number of rows (word lengths).
+	 * 
+	 * @return the size of the matrix.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+	
 	/**
 	 * Returns the columns key set for the Cocke-Younger-Kasami recognition matrix.
 	 * 
@@ -85,7 +109,8 @@ public class CYKMatrix {
 	 */
 	public List<Integer> getWordLenghts() {
 		List<Integer> target = new ArrayList<Integer>();		
-		target.addAll(this.getMatrix().rowKeySet());		
+		for (int r = 1; r <= this.size; r ++)
+			target.add(r);
 		return target;
 	}
 	
@@ -96,27 +121,69 @@ public class CYKMatrix {
 	 */
 	public List<Integer> getWordPositions() {
 		List<Integer> target = new ArrayList<Integer>();		
-		target.addAll(this.getMatrix().columnKeySet());		
+		for (int c = 1; c <= this.size; c ++)
+			target.add(c);
 		return target;
-		
 	}
 	
 	/**
-	 * Generates the Cocke-Younger-Kasami recognition matrix.
+	 * Checks if the specified cell is inside the upper triangle of the matrix.
+	 * 
+	 * @param row the row index.
+	 * @param column the column index.
+	 * 
+	 * @return true if the specified cell is inside the upper triangle of the matrix; false, otherwise.
 	 */
-	private void generate() {
-		int size = (this.getWord().length() == 0) ? 1 : this.getWord().length();
-		this.matrix = TreeBasedTable.create();
-		
-		for (int r = 1; r <= size; r ++) {
-			for (int c = 1; c <= size; c ++) {
-				this.matrix.put(r, c, new Alphabet());
-			}
-		}
-	}	
+	public boolean isDefined(int row, int column) {
+		return (row >= 1 && row <= this.size && column >= 1 && column <= this.size - row + 1);
+	}
 	
 	/**
-	 * Returns the non terminal alphabet stored in correspondence of the specified row and column.
+	 * Returns the index of the specified cell in the flat array of cells.
+	 */
+	private int index(int row, int column) {
+		return getOffset(this.size, row, column, 1);
+	}
+	
+	/**
+	 * Returns the length of a flat triangular array, with the specified number of entries per cell, for a word of the specified size.
+	 * The length is computed in long, so that a too long word is detected instead of overflowing.
+	 * 
+	 * @param size the size of the word, at least 1.
+	 * @param width the number of entries per cell.
+	 * 
+	 * @return the length of the flat triangular array.
+	 * 
+	 * @throws IllegalArgumentException if the flat triangular array would exceed the maximum array length.
+	 */
+	static int getFlatLength(int size, int width) {
+		long length = (((long) size * (size + 1)) / 2) * width;
+		if (length > MAX_FLAT_LENGTH)
+			throw new IllegalArgumentException("Cannot allocate a Cocke-Younger-Kasami matrix of " + length + " entries for a word of " + size + " symbols: use the off-heap matrix");
+		return (int) length;
+	}
+	
+	/**
+	 * Returns the offset of the cell (row, column) in a flat triangular array, with the specified number of entries per cell, for a word of the specified size.
+	 * The offset is computed in long, so that it never overflows for any array allowed by {@link #getFlatLength(int, int)}.
+	 * 
+	 * @param size the size of the word.
+	 * @param row the row index, from 1.
+	 * @param column the column index, from 1.
+	 * @param width the number of entries per cell.
+	 * 
+	 * @return the offset of the cell in the flat triangular array.
+	 */
+	static int getOffset(int size, int row, int column, int width) {
+		long cell = (long) (row - 1) * size - ((long) (row - 1) * (row - 2)) / 2 + column - 1; // rows 1..row-1 hold n, n-1, ..., n-row+2 cells.
+		return (int) (cell * width);
+	}
+	
+	/**
+	 * Returns a copy of the non terminal alphabet stored in correspondence of the specified row and column.
+	 * <p>Every non empty cell is returned as a copy, so that modifying it never modifies the matrix: 
+	 * use {@link #put(int, int, Alphabet)} to modify the matrix. 
+	 * Empty cells, and cells outside the upper triangle, return a shared immutable empty alphabet.<p>
 	 * 
 	 * @param row the row index.
 	 * @param column the column index.
@@ -124,7 +191,10 @@ public class CYKMatrix {
 	 * @return the non terminal alphabet stored in correspondence of the specified row and column.
 	 */
 	public Alphabet get(int row, int column) {
-		return this.getMatrix().get(row, column);
+		if (!this.isDefined(row, column))
+			return EMPTY;
+		Alphabet cell = this.cells[this.index(row, column)];
+		return (cell == null) ? EMPTY : new Alphabet(cell);
 	}
 	
 	/**
@@ -137,37 +207,30 @@ public class CYKMatrix {
 	 * @return true if the non terminal alphabet has been added; false, otherwise.
 	 */
 	public boolean put(int row, int column, Alphabet nonTerminals) {
-		return this.getMatrix().get(row, column).addAll(nonTerminals);
+		if (!this.isDefined(row, column) || nonTerminals.isEmpty())
+			return false;
+		int index = this.index(row, column);
+		if (this.cells[index] == null) {
+			this.cells[index] = new Alphabet(nonTerminals);
+			return true;
+		}
+		return this.cells[index].addAll(nonTerminals);
 	}
 	
 	public String toFormattedMatrix() {
-		List<Integer> lengths = new LinkedList<Integer>();
-		lengths.addAll(this.getMatrix().rowKeySet());
-		List<Character> symbols = new LinkedList<Character>();
-		for (Character symbol : this.getWord().toCharArray())
-			symbols.add(symbol);
-		
-		String header[] = new String[symbols.size() + 1];
+		String header[] = new String[this.getWord().length() + 1];
 		header[0] = "#";
-		int c = 1;
-		for (Character symbol : symbols) {
-			header[c] = String.valueOf(symbol);
-			c ++;
-		}
+		for (int c = 1; c <= this.getWord().length(); c ++)
+			header[c] = String.valueOf(this.getWord().charAt(c - 1));
 		
-		String data[][] = new String[lengths.size()][symbols.size() + 1];
-		int r = 0;
-		for (Integer length : lengths) {
-			data[r][0] = String.valueOf(length);
-			r ++;
-		}
-		
-		for (Table.Cell<Integer, Integer, Alphabet> cell : this.getMatrix().cellSet()) {
-			int symbolPosition = cell.getColumnKey();
-			int length = cell.getRowKey();
-			Alphabet alphabet = cell.getValue();
-			
-			data[length - 1][symbolPosition] = alphabet.toString();			
+		String empty = EMPTY.toString();
+		String data[][] = new String[this.size][this.getWord().length() + 1];
+		for (int r = 1; r <= this.size; r ++) {
+			data[r - 1][0] = String.valueOf(r);
+			for (int c = 1; c <= this.getWord().length(); c ++) {
+				Alphabet cell = this.isDefined(r, c) ? this.cells[this.index(r, c)] : null;
+				data[r - 1][c] = (cell == null) ? empty : cell.toString(); // cells are rendered on demand, without materializing the table.
+			}
 		}
 		
 		String table = ASCIITable.getInstance().getTable(header, ASCIITable.ALIGN_CENTER, data, ASCIITable.ALIGN_LEFT);
@@ -180,17 +243,47 @@ public class CYKMatrix {
 	}
 	
 	@Override public boolean equals(Object obj) {
-		if (this.getClass() != obj.getClass())
+		if (obj == null || this.getClass() != obj.getClass())
 			return false;
 		
 		CYKMatrix other = (CYKMatrix) obj;
 		
-		return (this.getWord().equals(other.getWord())
-				&& this.getMatrix().equals(other.getMatrix()));
+		if (!this.getWord().equals(other.getWord()))
+			return false;
+		for (int i = 0; i < this.cells.length; i ++) {
+			Alphabet cell = this.cells[i];
+			Alphabet otherCell = other.cells[i];
+			boolean empty = (cell == null || cell.isEmpty());
+			boolean otherEmpty = (otherCell == null || otherCell.isEmpty());
+			if (empty != otherEmpty || (!empty && !cell.equals(otherCell)))
+				return false;
+		}
+		return true;
 	}
 	
 	@Override public int hashCode() {
-		return Objects.hash(this.getWord(), this.getMatrix());
+		int hash = this.getWord().hashCode();
+		for (Alphabet cell : this.cells)
+			hash = 31 * hash + ((cell == null || cell.isEmpty()) ? 0 : cell.hashCode());
+		return hash;
+	}
+	
+	/**
+	 * The immutable empty alphabet, returned for the empty cells.
+	 * Removals are inherited, as they never modify an empty alphabet.
+	 */
+	private static final class EmptyAlphabet extends Alphabet {
+
+		private static final long serialVersionUID = -5318237806455915232L;
+		
+		@Override public boolean add(Character symbol) {
+			throw new UnsupportedOperationException("Cannot modify an empty cell: use put");
+		}
+		
+		@Override public boolean addAll(Collection<? extends Character> symbols) {
+			throw new UnsupportedOperationException("Cannot modify an empty cell: use put");
+		}
+		
 	}
 
 }
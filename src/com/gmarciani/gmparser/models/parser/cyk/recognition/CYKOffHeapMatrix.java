@@ -0,0 +1,368 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+import com.gmarciani.gmparser.models.parser.TokenStream;
+
+/**
+ * <p>The off-heap bitset-based recognition matrix for the Cocke-Younger-Kasami parser, for very long words.<p>
+ * <p>The layout is the same as {@link CYKBitMatrix}, but cells are stored outside of the heap, 
+ * either in direct buffers, or in a memory-mapped file.
+ * Every length level l is a separate view over a segment of at most {@code SEGMENT_BYTES} bytes, 
+ * so that the recognition pages through the matrix length by length, 
+ * and the matrix is not bounded by the size of a single buffer.<p>
+ * <p>The matrix must be closed when no more needed, to release the mapped file.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ * @see com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKOffHeapMatrix implements Closeable {
+
+	/**
+	 * The maximum number of bytes of every segment.
+	 */
+	public static final int SEGMENT_BYTES = 1 << 30;
+
+	private final TokenStream tokens;
+	private final NonTerminalIndex nonTerminals;
+	private final int size;
+	private final int words;
+	private final RandomAccessFile file;
+	private final LongBuffer levels[];
+
+	/**
+	 * Creates a new off-heap Cocke-Younger-Kasami recognition matrix for the specified word and non terminal index, 
+	 * stored in direct buffers.
+	 *
+	 * @param word the word.
+	 * @param nonTerminals the non terminal index.
+	 */
+	public CYKOffHeapMatrix(String word, NonTerminalIndex nonTerminals) {
+		this(TokenStream.of(word), nonTerminals);
+	}
+
+	/**
+	 * Creates a new off-heap Cocke-Younger-Kasami recognition matrix for the specified token stream and non terminal index, 
+	 * stored in direct buffers.
+	 *
+	 * @param tokens the token stream.
+	 * @param nonTerminals the non terminal index.
+	 */
+	public CYKOffHeapMatrix(TokenStream tokens, NonTerminalIndex nonTerminals) {
+		this.tokens = tokens;
+		this.nonTerminals = nonTerminals;
+		this.size = (tokens.length() == 0) ? 1 : tokens.length();
+		this.words = nonTerminals.getWords();
+		this.file = null;
+		this.levels = new LongBuffer[this.size + 1];
+		try {
+			this.allocate(null);
+		} catch (IOException exc) {
+			throw new AssertionError(exc); // direct buffers never do I/O.
+		}
+	}
+
+	/**
+	 * Creates a new off-heap Cocke-Younger-Kasami recognition matrix for the specified word and non terminal index, 
+	 * stored in the specified memory-mapped file.
+	 * The file is created, or overwritten if it exists.
+	 *
+	 * @param word the word.
+	 * @param nonTerminals the non terminal index.
+	 * @param file the file to map.
+	 *
+	 * @throws IOException if the file cannot be mapped.
+	 */
+	public CYKOffHeapMatrix(String word, NonTerminalIndex nonTerminals, File file) throws IOException {
+		this(TokenStream.of(word), nonTerminals, file);
+	}
+
+	/**
+	 * Creates a new off-heap Cocke-Younger-Kasami recognition matrix for the specified token stream and non terminal index, 
+	 * stored in the specified memory-mapped file.
+	 * The file is created, or overwritten if it exists.
+	 *
+	 * @param tokens the token stream.
+	 * @param nonTerminals the non terminal index.
+	 * @param file the file to map.
+	 *
+	 * @throws IOException if the file cannot be mapped.
+	 */
+	public CYKOffHeapMatrix(TokenStream tokens, NonTerminalIndex nonTerminals, File file) throws IOException {
+		this.tokens = tokens;
+		this.nonTerminals = nonTerminals;
+		this.size = (tokens.length() == 0) ? 1 : tokens.length();
+		this.words = nonTerminals.getWords();
+		this.file = new RandomAccessFile(file, "rw");
+		this.levels = new LongBuffer[this.size + 1];
+		try {
+			this.file.setLength(0); // a mapped region beyond the end of the file is zero-filled.
+			this.allocate(this.file.getChannel());
+		} catch (IOException | RuntimeException exc) { // e.g. a too large length level.
+			this.file.close();
+			throw exc;
+		}
+	}
+
+	/**
+	 * Allocates segments of whole length levels, and a view for every length level.
+	 */
+	private void allocate(FileChannel channel) throws IOException {
+		int l = 1;
+		long position = 0;
+		while (l <= this.size) {
+			int first = l;
+			long bytes = 0;
+			while (l <= this.size && (bytes == 0 || bytes + this.getLevelBytes(l) <= SEGMENT_BYTES))
+				bytes += this.getLevelBytes(l ++);
+			if (bytes > SEGMENT_BYTES)
+				throw new IllegalArgumentException("Cannot allocate a length level of " + bytes + " bytes");
+			ByteBuffer segment = (channel == null) ? ByteBuffer.allocateDirect((int) bytes) : channel.map(FileChannel.MapMode.READ_WRITE, position, bytes);
+			position += bytes;
+			int offset = 0;
+			for (int level = first; level < l; level ++) {
+				ByteBuffer view = segment.duplicate();
+				view.position(offset);
+				view.limit(offset + (int) this.getLevelBytes(level));
+				this.levels[level] = view.slice().order(ByteOrder.nativeOrder()).asLongBuffer();
+				offset += (int) this.getLevelBytes(level);
+			}
+		}
+	}
+
+	private long getLevelBytes(int l) {
+		return (long) (this.size - l + 1) * this.words * 8;
+	}
+
+	/**
+	 * Returns the number of bytes of the off-heap recognition matrix for a word with the specified length.
+	 *
+	 * @param length the length of the word.
+	 * @param nonTerminals the non terminal index.
+	 *
+	 * @return the number of bytes of the off-heap recognition matrix.
+	 */
+	public static long getBytes(int length, NonTerminalIndex nonTerminals) {
+		long size = Math.max(1, length);
+		return ((size * (size + 1)) / 2) * nonTerminals.getWords() * 8;
+	}
+
+	/**
+	 * Returns the word to parse.
+	 *
+	 * @return the word to parse.
+	 */
+	public String getWord() {
+		return this.tokens.toString();
+	}
+
+	/**
+	 * Returns the token stream to parse.
+	 *
+	 * @return the token stream to parse.
+	 */
+	public TokenStream getTokens() {
+		return this.tokens;
+	}
+
+	/**
+	 * Returns the non terminal index.
+	 *
+	 * @return the non terminal index.
+	 */
+	public NonTerminalIndex getNonTerminals() {
+		return this.nonTerminals;
+	}
+
+	/**
+	 * Returns the size of the matrix, that is the number of rows (word lengths).
+	 *
+	 * @return the size of the matrix.
+	 */
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the number of longs of every cell.
+	 *
+	 * @return the number of longs of every cell.
+	 */
+	public int getWords() {
+		return this.words;
+	}
+
+	/**
+	 * Checks if the matrix is stored in a memory-mapped file.
+	 *
+	 * @return true if the matrix is stored in a memory-mapped file; false, if it is stored in direct buffers.
+	 */
+	public boolean isMapped() {
+		return this.file != null;
+	}
+
+	/**
+	 * Checks if the specified cell is inside the upper triangle of the matrix.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 *
+	 * @return true if the specified cell is inside the upper triangle of the matrix; false, otherwise.
+	 */
+	public boolean isDefined(int l, int p) {
+		return (l >= 1 && l <= this.size && p >= 1 && p <= this.size - l + 1);
+	}
+
+	/**
+	 * Checks if the cell (l, p) contains the non terminal symbol with the specified index.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param index the non terminal index.
+	 *
+	 * @return true if the cell (l, p) contains the non terminal symbol with the specified index; false, otherwise.
+	 */
+	public boolean contains(int l, int p, int index) {
+		if (index < 0 || !this.isDefined(l, p))
+			return false;
+		return (this.levels[l].get((p - 1) * this.words + (index >>> 6)) & (1L << index)) != 0;
+	}
+
+	/**
+	 * Adds to the cell (l, p) the non terminal symbol with the specified index.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param index the non terminal index.
+	 */
+	public void add(int l, int p, int index) {
+		int offset = (p - 1) * this.words + (index >>> 6);
+		this.levels[l].put(offset, this.levels[l].get(offset) | (1L << index));
+	}
+
+	/**
+	 * Adds to the cell (l, p) all the non terminal symbols in the specified bitmask.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param mask the bitmask.
+	 * @param from the offset of the bitmask in the specified array.
+	 */
+	public void or(int l, int p, long mask[], int from) {
+		LongBuffer level = this.levels[l];
+		int offset = (p - 1) * this.words;
+		for (int w = 0; w < this.words; w ++)
+			level.put(offset + w, level.get(offset + w) | mask[from + w]);
+	}
+
+	/**
+	 * Keeps in the cell (l, p) only the non terminal symbols in the specified bitmask.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param mask the bitmask.
+	 * @param from the offset of the bitmask in the specified array.
+	 */
+	public void and(int l, int p, long mask[], int from) {
+		LongBuffer level = this.levels[l];
+		int offset = (p - 1) * this.words;
+		for (int w = 0; w < this.words; w ++)
+			level.put(offset + w, level.get(offset + w) & mask[from + w]);
+	}
+
+	/**
+	 * Copies the bitmask of the cell (l, p) into the specified array.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param mask the destination array.
+	 * @param from the offset of the bitmask in the destination array.
+	 */
+	public void get(int l, int p, long mask[], int from) {
+		LongBuffer level = this.levels[l];
+		int offset = (p - 1) * this.words;
+		for (int w = 0; w < this.words; w ++)
+			mask[from + w] = level.get(offset + w);
+	}
+
+	/**
+	 * Checks if the cell (l, p) contains no non terminal symbol.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 *
+	 * @return true if the cell (l, p) contains no non terminal symbol; false, otherwise.
+	 */
+	public boolean isEmpty(int l, int p) {
+		LongBuffer level = this.levels[l];
+		int offset = (p - 1) * this.words;
+		for (int w = 0; w < this.words; w ++)
+			if (level.get(offset + w) != 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Generates the on-heap bitset-based recognition matrix equivalent to the current off-heap matrix.
+	 *
+	 * @return the on-heap bitset-based recognition matrix equivalent to the current off-heap matrix.
+	 */
+	public CYKBitMatrix toCYKBitMatrix() {
+		CYKBitMatrix matrix = new CYKBitMatrix(this.getTokens(), this.getNonTerminals());
+		long mask[] = new long[this.words];
+		for (int l = 1; l <= this.size; l ++) {
+			for (int p = 1; p <= this.size - l + 1; p ++) {
+				this.get(l, p, mask, 0);
+				matrix.or(l, p, mask);
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * Closes the memory-mapped file, if any.
+	 * Note that the mapped segments are released when garbage collected.
+	 */
+	@Override public void close() throws IOException {
+		if (this.file != null)
+			this.file.close();
+	}
+
+	@Override public String toString() {
+		return "CYKOffHeapMatrix(" + this.getWord() + "," + this.getNonTerminals() + ")";
+	}
+
+}
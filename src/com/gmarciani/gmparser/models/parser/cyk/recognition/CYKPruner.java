@@ -0,0 +1,475 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.util.Arrays;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+
+/**
+ * <p>Reachability-based pruning of non terminal symbols for the bitset-based Cocke-Younger-Kasami recognition.<p>
+ * <p>A non terminal symbol A in the cell (l, p) can only contribute to a derivation of the whole word from the axiom if:
+ * <ul>
+ * <li>minYield(A) <= l <= maxYield(A), where yields are the lengths of the words derivable from A;</li>
+ * <li>A can occur with at least leftContext(A) symbols on its left, and rightContext(A) symbols on its right, that is p - 1 >= leftContext(A) and n - p - l + 1 >= rightContext(A);</li>
+ * <li>if p > 1, the symbol at p - 1 can immediately precede A (right corner of the left context);</li>
+ * <li>if p + l - 1 < n, the symbol at p + l can immediately follow A (left corner of the right context).</li>
+ * </ul>
+ * Every cell is filled only with the non terminal symbols that satisfy such conditions, 
+ * and cells with an empty mask are not filled at all.
+ * Furthermore, a split (l1, l - l1) is joined only if the left/right inner cell holds some B/C such that A -> BC for some useful A,
+ * and l1/l - l1 is in the yield range of some such B/C.
+ * So, the recognized language is unchanged, but the recognition matrix only holds useful non terminal symbols.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKPruner {
+
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	private final CYKRuleTable rules;
+	private final int size;
+	private final int words;
+	private final int minYields[];
+	private final int maxYields[];
+	private final int leftContexts[];
+	private final int rightContexts[];
+	private final long precedeMasks[];
+	private final long followMasks[];
+	private final long headLefts[];
+	private final long headRights[];
+
+	/**
+	 * Creates a new pruner for the specified rule table and axiom.
+	 *
+	 * @param rules the rule table.
+	 * @param axiom the axiom.
+	 */
+	public CYKPruner(CYKRuleTable rules, Character axiom) {
+		this.rules = rules;
+		this.size = rules.getNonTerminals().size();
+		this.words = rules.getNonTerminals().getWords();
+		this.minYields = new int[this.size];
+		this.maxYields = new int[this.size];
+		this.leftContexts = new int[this.size];
+		this.rightContexts = new int[this.size];
+		this.computeYields();
+		this.computeContexts(rules.getNonTerminals().indexOf(axiom));
+
+		int terminals = 0; // terminal symbols are indexed as in the rule table.
+		for (int r = 0; r < rules.getRuleCount(); r ++)
+			if (rules.isTerminalRule(r))
+				terminals = Math.max(terminals, rules.indexOfTerminal(rules.getRuleTerminal(r)) + 1);
+		this.precedeMasks = new long[terminals * this.words];
+		this.followMasks = new long[terminals * this.words];
+		this.computeCorners(terminals);
+
+		this.headLefts = new long[this.size * this.words]; // A -> {B | A -> BC}.
+		this.headRights = new long[this.size * this.words]; // A -> {C | A -> BC}.
+		for (int r = 0; r < rules.getRuleCount(); r ++) {
+			if (rules.isTerminalRule(r))
+				continue;
+			int a = rules.getRuleHead(r) * this.words;
+			this.headLefts[a + (rules.getRuleLeft(r) >>> 6)] |= (1L << rules.getRuleLeft(r));
+			this.headRights[a + (rules.getRuleRight(r) >>> 6)] |= (1L << rules.getRuleRight(r));
+		}
+	}
+
+	/**
+	 * Computes minYield and maxYield of every non terminal symbol, by fixpoint.
+	 * The empty word is ignored, as it is never derived inside the recognition matrix.
+	 */
+	private void computeYields() {
+		Arrays.fill(this.minYields, INFINITY);
+		Arrays.fill(this.maxYields, 0);
+		for (boolean changed = true, bounded = true; changed; bounded = false) {
+			for (int round = 0; changed && (round <= this.size || !bounded); round ++) {
+				changed = false;
+				for (int r = 0; r < this.rules.getRuleCount(); r ++) {
+					int a = this.rules.getRuleHead(r);
+					int min, max;
+					if (this.rules.isTerminalRule(r)) {
+						if (this.rules.getRuleTerminal(r) == Grammar.EPSILON)
+							continue;
+						min = 1;
+						max = 1;
+					} else {
+						int b = this.rules.getRuleLeft(r);
+						int c = this.rules.getRuleRight(r);
+						if (this.minYields[b] == INFINITY || this.minYields[c] == INFINITY)
+							continue;
+						min = this.minYields[b] + this.minYields[c];
+						max = (this.maxYields[b] == INFINITY || this.maxYields[c] == INFINITY) ? INFINITY : this.maxYields[b] + this.maxYields[c];
+					}
+					if (min < this.minYields[a]) {
+						this.minYields[a] = min;
+						changed = true;
+					}
+					if (max > this.maxYields[a]) {
+						this.maxYields[a] = bounded ? max : INFINITY; // still growing after |V| rounds: A is recursive.
+						changed = true;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes leftContext and rightContext of every non terminal symbol, that is the minimum number of symbols 
+	 * on its left/right in any sentential form derived from the axiom, by fixpoint.
+	 */
+	private void computeContexts(int axiom) {
+		Arrays.fill(this.leftContexts, INFINITY);
+		Arrays.fill(this.rightContexts, INFINITY);
+		if (axiom == -1)
+			return;
+		this.leftContexts[axiom] = 0;
+		this.rightContexts[axiom] = 0;
+		for (boolean changed = true; changed; ) {
+			changed = false;
+			for (int r = 0; r < this.rules.getRuleCount(); r ++) {
+				if (this.rules.isTerminalRule(r))
+					continue;
+				int x = this.rules.getRuleHead(r);
+				int b = this.rules.getRuleLeft(r);
+				int c = this.rules.getRuleRight(r);
+				if (this.leftContexts[x] == INFINITY || this.minYields[b] == INFINITY || this.minYields[c] == INFINITY)
+					continue;
+				changed |= this.lower(this.leftContexts, b, this.leftContexts[x]); // X -> BC: B has the same left context of X ...
+				changed |= this.lower(this.leftContexts, c, this.leftContexts[x] + this.minYields[b]); // ... and C has B on its left.
+				changed |= this.lower(this.rightContexts, b, this.rightContexts[x] + this.minYields[c]);
+				changed |= this.lower(this.rightContexts, c, this.rightContexts[x]);
+			}
+		}
+	}
+
+	private boolean lower(int values[], int index, int value) {
+		if (value < values[index]) {
+			values[index] = value;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Computes, for every terminal symbol t, the non terminal symbols that can be immediately preceded/followed by t.
+	 */
+	private void computeCorners(int terminals) {
+		int tWords = Math.max(1, (terminals + 63) >>> 6);
+		long firsts[] = new long[this.size * tWords];
+		long lasts[] = new long[this.size * tWords];
+		for (int r = 0; r < this.rules.getRuleCount(); r ++) {
+			if (this.rules.isTerminalRule(r) && this.rules.getRuleTerminal(r) != Grammar.EPSILON) {
+				int t = this.rules.indexOfTerminal(this.rules.getRuleTerminal(r));
+				firsts[this.rules.getRuleHead(r) * tWords + (t >>> 6)] |= (1L << t);
+				lasts[this.rules.getRuleHead(r) * tWords + (t >>> 6)] |= (1L << t);
+			}
+		}
+		for (boolean changed = true; changed; ) { // X -> BC: First(X) includes First(B), Last(X) includes Last(C).
+			changed = false;
+			for (int r = 0; r < this.rules.getRuleCount(); r ++) {
+				if (this.rules.isTerminalRule(r))
+					continue;
+				int x = this.rules.getRuleHead(r);
+				changed |= or(firsts, x * tWords, firsts, this.rules.getRuleLeft(r) * tWords, tWords);
+				changed |= or(lasts, x * tWords, lasts, this.rules.getRuleRight(r) * tWords, tWords);
+			}
+		}
+		long precedes[] = new long[this.size * tWords];
+		long follows[] = new long[this.size * tWords];
+		for (boolean changed = true; changed; ) { // X -> BC: Precede(C) includes Last(B) and Precede(X) ...; Follow(B) includes First(C) and Follow(X).
+			changed = false;
+			for (int r = 0; r < this.rules.getRuleCount(); r ++) {
+				if (this.rules.isTerminalRule(r))
+					continue;
+				int x = this.rules.getRuleHead(r);
+				int b = this.rules.getRuleLeft(r);
+				int c = this.rules.getRuleRight(r);
+				if (this.leftContexts[x] == INFINITY)
+					continue;
+				changed |= or(precedes, c * tWords, lasts, b * tWords, tWords);
+				changed |= or(precedes, b * tWords, precedes, x * tWords, tWords);
+				changed |= or(follows, b * tWords, firsts, c * tWords, tWords);
+				changed |= or(follows, c * tWords, follows, x * tWords, tWords);
+			}
+		}
+		for (int a = 0; a < this.size; a ++) { // transposes into terminal -> {A}.
+			for (int t = 0; t < terminals; t ++) {
+				if ((precedes[a * tWords + (t >>> 6)] & (1L << t)) != 0)
+					this.precedeMasks[t * this.words + (a >>> 6)] |= (1L << a);
+				if ((follows[a * tWords + (t >>> 6)] & (1L << t)) != 0)
+					this.followMasks[t * this.words + (a >>> 6)] |= (1L << a);
+			}
+		}
+	}
+
+	private static boolean or(long target[], int targetOffset, long source[], int sourceOffset, int length) {
+		boolean changed = false;
+		for (int w = 0; w < length; w ++) {
+			long value = target[targetOffset + w] | source[sourceOffset + w];
+			if (value != target[targetOffset + w]) {
+				target[targetOffset + w] = value;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Returns the minimum length of the non empty words derivable from the specified non terminal symbol.
+	 *
+	 * @param index the non terminal index.
+	 *
+	 * @return the minimum yield length; Integer.MAX_VALUE, if no non empty word is derivable.
+	 */
+	public int getMinYield(int index) {
+		return this.minYields[index];
+	}
+
+	/**
+	 * Returns the maximum length of the words derivable from the specified non terminal symbol.
+	 *
+	 * @param index the non terminal index.
+	 *
+	 * @return the maximum yield length; Integer.MAX_VALUE, if unbounded.
+	 */
+	public int getMaxYield(int index) {
+		return this.maxYields[index];
+	}
+
+	/**
+	 * Checks if the specified token stream can be pruned.
+	 * Token streams with the empty symbol are never pruned.
+	 *
+	 * @param tokens the token stream.
+	 *
+	 * @return true if the specified token stream can be pruned; false, otherwise.
+	 */
+	public boolean isPruning(TokenStream tokens) {
+		return tokens.indexOf(Grammar.EPSILON) == -1;
+	}
+
+	/**
+	 * Computes the w-th long of the mask of useful non terminal symbols for the cell (l, p).
+	 */
+	private long mask(TokenStream tokens, int l, int p, int w) {
+		int n = tokens.length();
+		long mask = 0;
+		int last = Math.min(this.size, (w + 1) << 6);
+		for (int a = w << 6; a < last; a ++)
+			if (this.minYields[a] <= l && l <= this.maxYields[a]
+					&& this.leftContexts[a] <= p - 1 && this.rightContexts[a] <= n - p - l + 1)
+				mask |= (1L << a);
+		if (mask != 0 && p > 1)
+			mask &= this.cornerMask(this.precedeMasks, tokens.get(p - 2), w);
+		if (mask != 0 && p + l - 1 < n)
+			mask &= this.cornerMask(this.followMasks, tokens.get(p + l - 1), w);
+		return mask;
+	}
+
+	private long cornerMask(long masks[], int terminal, int w) {
+		int t = this.rules.indexOfTerminal(terminal);
+		if (t == -1 || (t + 1) * this.words > masks.length)
+			return 0;
+		return masks[t * this.words + w];
+	}
+
+	/**
+	 * <p>Seeds the cell (1, p) of the specified matrix, keeping only the useful non terminal symbols.<p>
+	 *
+	 * @param matrix the recognition matrix.
+	 * @param p the position of the terminal symbol in the word.
+	 */
+	public void seed(CYKBitMatrix matrix, int p) {
+		TokenStream tokens = matrix.getTokens();
+		long cells[] = matrix.getCells();
+		int target = matrix.offset(1, p);
+		this.rules.seed(cells, target, tokens.get(p - 1));
+		for (int w = 0; w < this.words; w ++)
+			cells[target + w] &= this.mask(tokens, 1, p, w);
+	}
+
+	/**
+	 * <p>Fills the cell (l, p) of the specified matrix, adding only the useful non terminal symbols.
+	 * If no non terminal symbol can be useful, the cell is not filled at all; 
+	 * otherwise, only the useful splits are joined.<p>
+	 *
+	 * @param matrix the recognition matrix.
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 */
+	public void fill(CYKBitMatrix matrix, int l, int p) {
+		long scratch[] = new long[this.getScratchSize()];
+		if (!this.split(matrix.getTokens(), l, p, scratch, 0))
+			return;
+		int lefts = this.words;
+		int rights = 2 * this.words;
+		long cells[] = matrix.getCells();
+		int target = matrix.offset(l, p);
+		for (int l1 = (int) scratch[3 * this.words + 1]; l1 >= (int) scratch[3 * this.words]; l1 --) {
+			int left = matrix.offset(l1, p);
+			int right = matrix.offset(l - l1, p + l1);
+			if (intersects(cells, left, scratch, lefts, this.words) && intersects(cells, right, scratch, rights, this.words))
+				this.rules.join(cells, left, right, target, scratch, 0);
+		}
+	}
+
+	/**
+	 * <p>Seeds the cell (1, p) of the specified off-heap matrix, keeping only the useful non terminal symbols.<p>
+	 *
+	 * @param matrix the off-heap recognition matrix.
+	 * @param p the position of the terminal symbol in the word.
+	 */
+	public void seed(CYKOffHeapMatrix matrix, int p) {
+		TokenStream tokens = matrix.getTokens();
+		this.rules.seed(matrix, p, tokens.get(p - 1));
+		long mask[] = this.mask(tokens, 1, p);
+		matrix.and(1, p, (mask == null) ? new long[this.words] : mask, 0);
+	}
+
+	/**
+	 * <p>Fills the cell (l, p) of the specified off-heap matrix, adding only the useful non terminal symbols.
+	 * If no non terminal symbol can be useful, the cell is not filled at all; 
+	 * otherwise, only the useful splits are joined.<p>
+	 *
+	 * @param matrix the off-heap recognition matrix.
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param cells the buffer, as returned by {@link #newOffHeapBuffer()}.
+	 */
+	public void fill(CYKOffHeapMatrix matrix, int l, int p, long cells[]) {
+		int from = cells.length - this.getScratchSize(); // the scratch follows the cells of the rule table.
+		if (!this.split(matrix.getTokens(), l, p, cells, from))
+			return;
+		int lefts = from + this.words;
+		int rights = from + 2 * this.words;
+		int right = this.words; // left cell, right cell, target cell, as in the rule table.
+		int target = 2 * this.words;
+		Arrays.fill(cells, target, target + this.words, 0L);
+		for (int l1 = (int) cells[from + 3 * this.words + 1]; l1 >= (int) cells[from + 3 * this.words]; l1 --) {
+			matrix.get(l1, p, cells, 0);
+			if (!intersects(cells, 0, cells, lefts, this.words))
+				continue;
+			matrix.get(l - l1, p + l1, cells, right);
+			if (!intersects(cells, right, cells, rights, this.words))
+				continue;
+			this.rules.join(cells, 0, right, target, cells, from);
+		}
+		matrix.or(l, p, cells, target);
+	}
+
+	/**
+	 * Returns a new buffer to fill off-heap matrices, to be reused by every fill of the same thread.
+	 *
+	 * @return a new buffer to fill off-heap matrices.
+	 */
+	public long[] newOffHeapBuffer() {
+		long cells[] = this.rules.newOffHeapBuffer();
+		return Arrays.copyOf(cells, cells.length + this.getScratchSize()); // rule table cells, scratch.
+	}
+
+	/**
+	 * Returns the size of the scratch of a fill: mask of useful A, useful B, useful C, first and last split.
+	 */
+	private int getScratchSize() {
+		return 3 * this.words + 2;
+	}
+
+	/**
+	 * Computes into the specified scratch the mask of useful non terminal symbols A for the cell (l, p), 
+	 * the useful B and C such that A -> BC, and the first and last useful split l1; false, if no split is useful.
+	 */
+	private boolean split(TokenStream tokens, int l, int p, long scratch[], int from) {
+		if (!this.mask(tokens, l, p, scratch, from))
+			return false;
+		int lefts = from + this.words;
+		int rights = from + 2 * this.words;
+		Arrays.fill(scratch, lefts, rights + this.words, 0L);
+		for (int w = 0; w < this.words; w ++) {
+			long as = scratch[from + w];
+			while (as != 0) {
+				int a = (w << 6) + Long.numberOfTrailingZeros(as);
+				as &= as - 1;
+				or(scratch, lefts, this.headLefts, a * this.words, this.words);
+				or(scratch, rights, this.headRights, a * this.words, this.words);
+			}
+		}
+		int first = Math.max(1, Math.max(this.minYield(scratch, lefts), l - this.maxYield(scratch, rights)));
+		int last = Math.min(l - 1, Math.min(this.maxYield(scratch, lefts), l - this.minYield(scratch, rights)));
+		scratch[rights + this.words] = first;
+		scratch[rights + this.words + 1] = last;
+		return first <= last;
+	}
+
+	private int minYield(long symbols[], int from) {
+		int min = INFINITY;
+		for (int w = 0; w < this.words; w ++)
+			for (long bs = symbols[from + w]; bs != 0; bs &= bs - 1)
+				min = Math.min(min, this.minYields[(w << 6) + Long.numberOfTrailingZeros(bs)]);
+		return min;
+	}
+
+	private int maxYield(long symbols[], int from) {
+		int max = 0;
+		for (int w = 0; w < this.words; w ++)
+			for (long bs = symbols[from + w]; bs != 0; bs &= bs - 1)
+				max = Math.max(max, this.maxYields[(w << 6) + Long.numberOfTrailingZeros(bs)]);
+		return max;
+	}
+
+	private static boolean intersects(long cells[], int offset, long mask[], int from, int length) {
+		for (int w = 0; w < length; w ++)
+			if ((cells[offset + w] & mask[from + w]) != 0)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Computes the mask of useful non terminal symbols for the cell (l, p); null, if empty.
+	 */
+	private long[] mask(TokenStream tokens, int l, int p) {
+		long mask[] = new long[this.words];
+		return this.mask(tokens, l, p, mask, 0) ? mask : null;
+	}
+
+	/**
+	 * Computes the mask of useful non terminal symbols for the cell (l, p) into the specified array; false, if empty.
+	 */
+	private boolean mask(TokenStream tokens, int l, int p, long mask[], int from) {
+		boolean useful = false;
+		for (int w = 0; w < this.words; w ++)
+			useful |= ((mask[from + w] = this.mask(tokens, l, p, w)) != 0);
+		return useful;
+	}
+
+	@Override public String toString() {
+		return "CYKPruner(" + this.rules.getNonTerminals() + ")";
+	}
+
+}
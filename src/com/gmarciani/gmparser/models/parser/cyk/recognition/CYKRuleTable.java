@@ -0,0 +1,466 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+
+/**
+ * <p>The compiled rule table of a grammar in Chomsky Normal Form, for the Cocke-Younger-Kasami parser.<p>
+ * <p>Binary productions A -> BC are indexed as (B, C) -> set of A,
+ * and terminal productions A -> a are indexed as a -> set of A,
+ * where every set of non terminals is a bitmask over the dense non terminal index.
+ * So, the split step of the recognition is a bitmask join, rather than a scan of the whole set of productions.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.NonTerminalIndex
+ * @see com.gmarciani.gmparser.models.parser.cyk.CYKParser
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKRuleTable {
+
+	private final NonTerminalIndex nonTerminals;
+	private final int size;
+	private final int words;
+	private final char terminals[];
+	private final long terminalMasks[];
+	private final long lefts[];
+	private final long partners[];
+	private final long heads[];
+	private final long all[];
+	private final Production rules[];
+	private final int ruleHeads[];
+	private final int ruleLefts[];
+	private final int ruleRights[];
+	private final char ruleTerminals[];
+	private final int rulesByHead[][];
+	private final int rulesByLeft[][];
+	private final int rulesByTerminal[][];
+
+	/**
+	 * Creates a new rule table for the specified grammar.
+	 *
+	 * @param grammar the grammar, in Chomsky Normal Form.
+	 */
+	public CYKRuleTable(Grammar grammar) {
+		this.nonTerminals = new NonTerminalIndex(grammar.getNonTerminals());
+		this.size = this.nonTerminals.size();
+		this.words = this.nonTerminals.getWords();
+
+		Alphabet producedTerminals = new Alphabet();
+		for (Production production : grammar.getProductions())
+			if (production.getRight().getSize() == 1)
+				producedTerminals.add(production.getRight().getValue().charAt(0));
+		this.terminals = new char[producedTerminals.size()];
+		int t = 0;
+		for (Character terminal : producedTerminals) {
+			this.terminals[t] = terminal;
+			t ++;
+		}
+		Arrays.sort(this.terminals);
+
+		this.terminalMasks = new long[this.terminals.length * this.words]; // a -> {A | A -> a}.
+		this.lefts = new long[this.words]; // {B | A -> BC}.
+		this.partners = new long[this.size * this.words]; // B -> {C | A -> BC}.
+		this.heads = new long[this.size * this.size * this.words]; // (B, C) -> {A | A -> BC}.
+		this.all = new long[this.words]; // every A, for unmasked joins.
+		Arrays.fill(this.all, -1L);
+		List<Production> rules = new ArrayList<Production>();
+		for (Production production : grammar.getProductions()) {
+			int head = this.nonTerminals.indexOf(production.getLeft().getValue().charAt(0));
+			String rhs = production.getRight().getValue();
+			if (rhs.length() == 1) {
+				int terminal = this.indexOfTerminal(rhs.charAt(0));
+				setBit(this.terminalMasks, terminal * this.words, head);
+				rules.add(production);
+			} else if (rhs.length() == 2) {
+				int left = this.nonTerminals.indexOf(rhs.charAt(0));
+				int right = this.nonTerminals.indexOf(rhs.charAt(1));
+				if (left == -1 || right == -1)
+					continue;
+				setBit(this.lefts, 0, left);
+				setBit(this.partners, left * this.words, right);
+				setBit(this.heads, (left * this.size + right) * this.words, head);
+				rules.add(production);
+			}
+		}
+
+		this.rules = rules.toArray(new Production[rules.size()]); // every production has a dense rule id, for derivations.
+		this.ruleHeads = new int[this.rules.length];
+		this.ruleLefts = new int[this.rules.length];
+		this.ruleRights = new int[this.rules.length];
+		this.ruleTerminals = new char[this.rules.length];
+		int headCounts[] = new int[this.size];
+		int leftCounts[] = new int[this.size];
+		int terminalCounts[] = new int[this.terminals.length];
+		for (int r = 0; r < this.rules.length; r ++) {
+			String rhs = this.rules[r].getRight().getValue();
+			this.ruleHeads[r] = this.nonTerminals.indexOf(this.rules[r].getLeft().getValue().charAt(0));
+			this.ruleLefts[r] = (rhs.length() == 2) ? this.nonTerminals.indexOf(rhs.charAt(0)) : -1;
+			this.ruleRights[r] = (rhs.length() == 2) ? this.nonTerminals.indexOf(rhs.charAt(1)) : -1;
+			this.ruleTerminals[r] = (rhs.length() == 1) ? rhs.charAt(0) : 0;
+			headCounts[this.ruleHeads[r]] ++;
+			if (this.ruleLefts[r] != -1)
+				leftCounts[this.ruleLefts[r]] ++;
+			else
+				terminalCounts[this.indexOfTerminal(this.ruleTerminals[r])] ++;
+		}
+		this.rulesByHead = new int[this.size][];
+		this.rulesByLeft = new int[this.size][];
+		for (int a = 0; a < this.size; a ++) {
+			this.rulesByHead[a] = new int[headCounts[a]];
+			this.rulesByLeft[a] = new int[leftCounts[a]];
+		}
+		this.rulesByTerminal = new int[this.terminals.length][];
+		for (int i = 0; i < this.terminals.length; i ++)
+			this.rulesByTerminal[i] = new int[terminalCounts[i]];
+		for (int r = 0; r < this.rules.length; r ++) { // every rule is indexed by head, and by left symbol (A -> BC) or terminal symbol (A -> a).
+			int a = this.ruleHeads[r];
+			this.rulesByHead[a][this.rulesByHead[a].length - headCounts[a]] = r;
+			headCounts[a] --;
+			if (this.ruleLefts[r] != -1) {
+				int b = this.ruleLefts[r];
+				this.rulesByLeft[b][this.rulesByLeft[b].length - leftCounts[b]] = r;
+				leftCounts[b] --;
+			} else {
+				int i = this.indexOfTerminal(this.ruleTerminals[r]);
+				this.rulesByTerminal[i][this.rulesByTerminal[i].length - terminalCounts[i]] = r;
+				terminalCounts[i] --;
+			}
+		}
+	}
+
+	/**
+	 * Returns the dense index of the non terminal symbols.
+	 *
+	 * @return the dense index of the non terminal symbols.
+	 */
+	public NonTerminalIndex getNonTerminals() {
+		return this.nonTerminals;
+	}
+
+	/**
+	 * Returns the number of rules, that is the number of productions A -> BC and A -> a.
+	 *
+	 * @return the number of rules.
+	 */
+	public int getRuleCount() {
+		return this.rules.length;
+	}
+
+	/**
+	 * Returns the production with the specified rule id.
+	 *
+	 * @param rule the rule id.
+	 *
+	 * @return the production with the specified rule id.
+	 */
+	public Production getRule(int rule) {
+		return this.rules[rule];
+	}
+
+	/**
+	 * Checks if the specified rule is a terminal rule A -> a.
+	 *
+	 * @param rule the rule id.
+	 *
+	 * @return true if the specified rule is a terminal rule; false, otherwise.
+	 */
+	public boolean isTerminalRule(int rule) {
+		return this.ruleLefts[rule] == -1;
+	}
+
+	/**
+	 * Returns the non terminal index of the head A of the specified rule.
+	 *
+	 * @param rule the rule id.
+	 *
+	 * @return the non terminal index of the head of the specified rule.
+	 */
+	public int getRuleHead(int rule) {
+		return this.ruleHeads[rule];
+	}
+
+	/**
+	 * Returns the non terminal index of B, for the specified rule A -> BC.
+	 *
+	 * @param rule the rule id.
+	 *
+	 * @return the non terminal index of B, if binary rule; -1, otherwise.
+	 */
+	public int getRuleLeft(int rule) {
+		return this.ruleLefts[rule];
+	}
+
+	/**
+	 * Returns the non terminal index of C, for the specified rule A -> BC.
+	 *
+	 * @param rule the rule id.
+	 *
+	 * @return the non terminal index of C, if binary rule; -1, otherwise.
+	 */
+	public int getRuleRight(int rule) {
+		return this.ruleRights[rule];
+	}
+
+	/**
+	 * Returns the terminal symbol a, for the specified rule A -> a.
+	 *
+	 * @param rule the rule id.
+	 *
+	 * @return the terminal symbol a, if terminal rule; 0, otherwise.
+	 */
+	public char getRuleTerminal(int rule) {
+		return this.ruleTerminals[rule];
+	}
+
+	/**
+	 * Returns the number of rules with the specified head.
+	 *
+	 * @param head the non terminal index of the head.
+	 *
+	 * @return the number of rules with the specified head.
+	 */
+	public int getRuleCountByHead(int head) {
+		return this.rulesByHead[head].length;
+	}
+
+	/**
+	 * Returns the i-th rule with the specified head.
+	 *
+	 * @param head the non terminal index of the head.
+	 * @param i the position of the rule, in [0, getRuleCountByHead(head)).
+	 *
+	 * @return the rule id of the i-th rule with the specified head.
+	 */
+	public int getRuleByHead(int head, int i) {
+		return this.rulesByHead[head][i];
+	}
+
+	/**
+	 * Returns the number of binary rules A -> BC with the specified left symbol B.
+	 *
+	 * @param left the non terminal index of B.
+	 *
+	 * @return the number of binary rules with the specified left symbol.
+	 */
+	public int getRuleCountByLeft(int left) {
+		return this.rulesByLeft[left].length;
+	}
+
+	/**
+	 * Returns the i-th binary rule A -> BC with the specified left symbol B.
+	 *
+	 * @param left the non terminal index of B.
+	 * @param i the position of the rule, in [0, getRuleCountByLeft(left)).
+	 *
+	 * @return the rule id of the i-th binary rule with the specified left symbol.
+	 */
+	public int getRuleByLeft(int left, int i) {
+		return this.rulesByLeft[left][i];
+	}
+
+	/**
+	 * Returns the number of terminal rules A -> a with the specified terminal symbol.
+	 *
+	 * @param terminal the index of the terminal symbol, as returned by {@link #indexOfTerminal(int)}.
+	 *
+	 * @return the number of terminal rules with the specified terminal symbol.
+	 */
+	public int getRuleCountByTerminal(int terminal) {
+		return this.rulesByTerminal[terminal].length;
+	}
+
+	/**
+	 * Returns the i-th terminal rule A -> a with the specified terminal symbol.
+	 *
+	 * @param terminal the index of the terminal symbol, as returned by {@link #indexOfTerminal(int)}.
+	 * @param i the position of the rule, in [0, getRuleCountByTerminal(terminal)).
+	 *
+	 * @return the rule id of the i-th terminal rule with the specified terminal symbol.
+	 */
+	public int getRuleByTerminal(int terminal, int i) {
+		return this.rulesByTerminal[terminal][i];
+	}
+
+	/**
+	 * Returns the index of the specified terminal symbol, among the terminal symbols produced by some production A -> a.
+	 *
+	 * @param terminal the terminal symbol, or terminal id.
+	 *
+	 * @return the index of the specified terminal symbol, if produced; -1, otherwise.
+	 */
+	public int indexOfTerminal(int terminal) {
+		if (!TokenStream.isChar(terminal)) // terminal symbols are chars.
+			return -1;
+		int index = Arrays.binarySearch(this.terminals, (char) terminal);
+		return (index >= 0) ? index : -1;
+	}
+
+	/**
+	 * <p>Seeds the cell (1, p) of the specified matrix with all the non terminal symbols that produce the specified terminal symbol.<p>
+	 *
+	 * @param matrix the recognition matrix.
+	 * @param p the position of the terminal symbol in the word.
+	 * @param terminal the terminal symbol.
+	 */
+	public void seed(CYKBitMatrix matrix, int p, int terminal) {
+		this.seed(matrix.getCells(), matrix.offset(1, p), terminal);
+	}
+
+	/**
+	 * <p>Seeds the cell (1, p) of the specified off-heap matrix with all the non terminal symbols that produce the specified terminal symbol.<p>
+	 *
+	 * @param matrix the off-heap recognition matrix.
+	 * @param p the position of the terminal symbol in the word.
+	 * @param terminal the terminal symbol.
+	 */
+	public void seed(CYKOffHeapMatrix matrix, int p, int terminal) {
+		int index = this.indexOfTerminal(terminal);
+		if (index != -1)
+			matrix.or(1, p, this.terminalMasks, index * this.words);
+	}
+
+	/**
+	 * <p>Adds to the target cell all the non terminal symbols that produce the specified terminal symbol.<p>
+	 *
+	 * @param cells the flat array of cells.
+	 * @param target the offset of the target cell.
+	 * @param terminal the terminal symbol.
+	 */
+	void seed(long cells[], int target, int terminal) {
+		int index = this.indexOfTerminal(terminal);
+		if (index == -1)
+			return;
+		int source = index * this.words;
+		for (int w = 0; w < this.words; w ++)
+			cells[target + w] |= this.terminalMasks[source + w];
+	}
+
+	/**
+	 * <p>Fills the cell (l, p) of the specified matrix, joining every pair of inner substrings (l1, p), (l - l1, p + l1).<p>
+	 * <p>Note that all the cells with length lower than l must be already filled.<p>
+	 *
+	 * @param matrix the recognition matrix.
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 */
+	public void fill(CYKBitMatrix matrix, int l, int p) {
+		long cells[] = matrix.getCells();
+		int target = matrix.offset(l, p);
+		for (int l1 = (l - 1), l2 = 1, p2 = (p + l - 1); l1 >= 1; l1 --, l2 ++, p2 --)
+			this.join(cells, matrix.offset(l1, p), matrix.offset(l2, p2), target);
+	}
+
+	/**
+	 * Returns a new buffer to fill off-heap matrices, to be reused by every fill of the same thread.
+	 *
+	 * @return a new buffer to fill off-heap matrices.
+	 */
+	public long[] newOffHeapBuffer() {
+		return new long[3 * this.words]; // left cell, right cell, target cell.
+	}
+
+	/**
+	 * <p>Fills the cell (l, p) of the specified off-heap matrix, joining every pair of inner substrings (l1, p), (l - l1, p + l1).<p>
+	 * <p>Every pair of inner cells is copied to the specified buffer, joined, and the result is written back once.
+	 * Note that all the cells with length lower than l must be already filled.<p>
+	 *
+	 * @param matrix the off-heap recognition matrix.
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param cells the buffer, as returned by {@link #newOffHeapBuffer()}.
+	 */
+	public void fill(CYKOffHeapMatrix matrix, int l, int p, long cells[]) {
+		int right = this.words;
+		int target = 2 * this.words;
+		Arrays.fill(cells, target, target + this.words, 0L);
+		for (int l1 = (l - 1), l2 = 1, p2 = (p + l - 1); l1 >= 1; l1 --, l2 ++, p2 --) {
+			matrix.get(l1, p, cells, 0);
+			matrix.get(l2, p2, cells, right);
+			this.join(cells, 0, right, target);
+		}
+		matrix.or(l, p, cells, target);
+	}
+
+	/**
+	 * <p>Adds to the target cell every A such that A -> BC, with B in the left cell and C in the right cell.<p>
+	 *
+	 * @param cells the flat array of cells.
+	 * @param left the offset of the left cell.
+	 * @param right the offset of the right cell.
+	 * @param target the offset of the target cell.
+	 */
+	void join(long cells[], int left, int right, int target) {
+		this.join(cells, left, right, target, this.all, 0);
+	}
+
+	/**
+	 * <p>Adds to the target cell every A in the specified mask such that A -> BC, with B in the left cell and C in the right cell.<p>
+	 *
+	 * @param cells the flat array of cells.
+	 * @param left the offset of the left cell.
+	 * @param right the offset of the right cell.
+	 * @param target the offset of the target cell.
+	 * @param mask the mask of the admitted non terminal symbols A.
+	 * @param from the offset of the mask.
+	 */
+	void join(long cells[], int left, int right, int target, long mask[], int from) {
+		for (int w = 0; w < this.words; w ++) {
+			long bs = cells[left + w] & this.lefts[w]; // for each B in the left cell ...
+			while (bs != 0) {
+				int b = (w << 6) + Long.numberOfTrailingZeros(bs);
+				bs &= bs - 1;
+				int partner = b * this.words;
+				for (int w2 = 0; w2 < this.words; w2 ++) {
+					long cs = this.partners[partner + w2] & cells[right + w2]; // ... for each C in the right cell such that A -> BC ...
+					while (cs != 0) {
+						int c = (w2 << 6) + Long.numberOfTrailingZeros(cs);
+						cs &= cs - 1;
+						int head = (b * this.size + c) * this.words;
+						for (int w3 = 0; w3 < this.words; w3 ++) // ... add every such A.
+							cells[target + w3] |= this.heads[head + w3] & mask[from + w3];
+					}
+				}
+			}
+		}
+	}
+
+	private static void setBit(long mask[], int offset, int index) {
+		mask[offset + (index >>> 6)] |= (1L << index);
+	}
+
+	@Override public String toString() {
+		return "CYKRuleTable(" + this.getNonTerminals() + "," + String.valueOf(this.terminals) + ")";
+	}
+
+}
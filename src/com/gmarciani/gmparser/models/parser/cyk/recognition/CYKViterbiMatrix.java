@@ -0,0 +1,206 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.gmarciani.gmparser.models.grammar.production.Production;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseTree;
+
+/**
+ * <p>The Viterbi matrix for the probabilistic Cocke-Younger-Kasami parser.<p>
+ * <p>Every cell (l, p) stores, for every non terminal symbol A, the log-probability of the best derivation A =>* w(p, l),
+ * together with its back-pointer (rule, split point), in flat arrays of primitives.
+ * The best derivation of the word is then rebuilt by following back-pointers from the axiom.<p>
+ * <p>The probability of a derivation is the product of the probabilities of its productions.
+ * Productions without a probability (e.g. the ones introduced by the normalization in Chomsky Normal Form) are neutral, that is with probability 1.<p>
+ * <p>Only the upper triangle of the matrix is stored, with the same layout as the bitset-based recognition matrix.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable
+ * @see com.gmarciani.gmparser.models.parser.cyk.forest.ParseTree
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CYKViterbiMatrix {
+
+	private final CYKRuleTable rules;
+	private final String word;
+	private final int size;
+	private final int symbols;
+	private final double scores[];
+	private final int backRules[];
+	private final int backSplits[];
+
+	/**
+	 * Creates and fills the Viterbi matrix for the specified word.
+	 *
+	 * @param rules the rule table.
+	 * @param probabilities the probabilities of the productions of the rule table, in (0, 1].
+	 * @param word the word.
+	 */
+	public CYKViterbiMatrix(CYKRuleTable rules, Map<Production, Double> probabilities, String word) {
+		this(rules, getRuleScores(rules, probabilities), word);
+	}
+
+	/**
+	 * Creates and fills the Viterbi matrix for the specified word, by the specified rule log-probabilities.
+	 *
+	 * @param rules the rule table.
+	 * @param ruleScores the log-probability of every rule, indexed by rule id.
+	 * @param word the word.
+	 */
+	public CYKViterbiMatrix(CYKRuleTable rules, double ruleScores[], String word) {
+		this.rules = rules;
+		this.word = word;
+		this.size = (word.length() == 0) ? 1 : word.length();
+		this.symbols = rules.getNonTerminals().size();
+		int cells = CYKMatrix.getFlatLength(this.size, this.symbols);
+		this.scores = new double[cells];
+		this.backRules = new int[cells];
+		this.backSplits = new int[cells];
+		Arrays.fill(this.scores, Double.NEGATIVE_INFINITY); // log(0): no derivation.
+		Arrays.fill(this.backRules, -1);
+		this.fill(ruleScores);
+	}
+
+	private static double[] getRuleScores(CYKRuleTable rules, Map<Production, Double> probabilities) {
+		double ruleScores[] = new double[rules.getRuleCount()]; // log-probabilities, so that products become sums.
+		for (int r = 0; r < ruleScores.length; r ++) {
+			Double probability = probabilities.get(rules.getRule(r));
+			ruleScores[r] = (probability == null) ? 0.0 : Math.log(probability);
+		}
+		return ruleScores;
+	}
+
+	private void fill(double ruleScores[]) {
+		for (int p = 1; p <= this.word.length(); p ++) { // A -> a.
+			int target = this.offset(1, p);
+			int terminal = this.rules.indexOfTerminal(this.word.charAt(p - 1));
+			for (int i = 0; terminal != -1 && i < this.rules.getRuleCountByTerminal(terminal); i ++) {
+				int r = this.rules.getRuleByTerminal(terminal, i);
+				this.relax(target + this.rules.getRuleHead(r), ruleScores[r], r, 0);
+			}
+		}
+		for (int l = 2; l <= this.word.length(); l ++) {
+			for (int p = 1; p <= (this.word.length() - l + 1); p ++) {
+				int target = this.offset(l, p);
+				for (int l1 = 1; l1 < l; l1 ++) { // A -> BC: best(A, l, p) = max(P(A -> BC) * best(B, l1, p) * best(C, l - l1, p + l1)).
+					int left = this.offset(l1, p);
+					int right = this.offset(l - l1, p + l1);
+					for (int bi = 0; bi < this.symbols; bi ++) { // only the binary rules whose B derives the left substring.
+						double b = this.scores[left + bi];
+						if (b == Double.NEGATIVE_INFINITY)
+							continue;
+						for (int i = 0; i < this.rules.getRuleCountByLeft(bi); i ++) {
+							int r = this.rules.getRuleByLeft(bi, i);
+							double c = this.scores[right + this.rules.getRuleRight(r)];
+							if (c == Double.NEGATIVE_INFINITY)
+								continue;
+							this.relax(target + this.rules.getRuleHead(r), ruleScores[r] + b + c, r, l1);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void relax(int offset, double score, int rule, int split) {
+		if (score > this.scores[offset]) {
+			this.scores[offset] = score;
+			this.backRules[offset] = rule;
+			this.backSplits[offset] = split;
+		}
+	}
+
+	private int offset(int l, int p) {
+		return CYKMatrix.getOffset(this.size, l, p, this.symbols);
+	}
+
+	/**
+	 * Returns the word.
+	 *
+	 * @return the word.
+	 */
+	public String getWord() {
+		return this.word;
+	}
+
+	/**
+	 * Returns the log-probability of the best derivation of the substring with length l starting at p from the specified non terminal symbol.
+	 *
+	 * @param l the length of the substring.
+	 * @param p the position of the substring.
+	 * @param index the non terminal index.
+	 *
+	 * @return the log-probability of the best derivation; negative infinity, if there is no derivation.
+	 */
+	public double getScore(int l, int p, int index) {
+		if (index < 0 || l < 1 || l > this.size || p < 1 || p > this.size - l + 1)
+			return Double.NEGATIVE_INFINITY;
+		return this.scores[this.offset(l, p) + index];
+	}
+
+	/**
+	 * Returns the log-probability of the best derivation of the whole word from the specified non terminal symbol.
+	 *
+	 * @param symbol the non terminal symbol.
+	 *
+	 * @return the log-probability of the best derivation; negative infinity, if there is no derivation.
+	 */
+	public double getScore(Character symbol) {
+		return this.getScore(this.size, 1, this.rules.getNonTerminals().indexOf(symbol));
+	}
+
+	/**
+	 * Returns the best derivation of the whole word from the specified non terminal symbol.
+	 *
+	 * @param symbol the non terminal symbol.
+	 *
+	 * @return the best parse tree; null, if there is no derivation.
+	 */
+	public ParseTree getBestTree(Character symbol) {
+		int index = this.rules.getNonTerminals().indexOf(symbol);
+		if (this.getScore(this.size, 1, index) == Double.NEGATIVE_INFINITY)
+			return null;
+		return this.getBestTree(this.size, 1, index);
+	}
+
+	private ParseTree getBestTree(int l, int p, int index) {
+		int offset = this.offset(l, p) + index;
+		int rule = this.backRules[offset];
+		if (this.rules.isTerminalRule(rule))
+			return new ParseTree(this.rules.getRule(rule));
+		int l1 = this.backSplits[offset];
+		return new ParseTree(this.rules.getRule(rule), 
+				this.getBestTree(l1, p, this.rules.getRuleLeft(rule)), 
+				this.getBestTree(l - l1, p + l1, this.rules.getRuleRight(rule)));
+	}
+
+	@Override public String toString() {
+		return "CYKViterbiMatrix(" + this.getWord() + "," + this.rules.getNonTerminals() + ")";
+	}
+
+}
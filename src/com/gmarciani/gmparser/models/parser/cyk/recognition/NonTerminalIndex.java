@@ -0,0 +1,127 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.recognition;
+
+import java.util.Arrays;
+
+import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
+
+/**
+ * <p>Dense index of non terminal symbols for the bitset-based Cocke-Younger-Kasami recognition.<p>
+ * <p>Every non terminal symbol is interned to an int index in [0, size), so that a set of non terminals
+ * can be stored as a bitmask of {@code getWords()} longs.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class NonTerminalIndex {
+
+	private final char symbols[];
+	private final int words;
+
+	/**
+	 * Creates a new dense index for the specified non terminal alphabet.
+	 *
+	 * @param nonTerminals the non terminal alphabet.
+	 */
+	public NonTerminalIndex(Alphabet nonTerminals) {
+		this.symbols = new char[nonTerminals.size()];
+		int i = 0;
+		for (Character nonTerminal : nonTerminals) {
+			this.symbols[i] = nonTerminal;
+			i ++;
+		}
+		Arrays.sort(this.symbols); // sorted symbols allow an allocation-free lookup by binary search.
+		this.words = Math.max(1, (this.symbols.length + 63) >>> 6);
+	}
+
+	/**
+	 * Returns the number of indexed non terminal symbols.
+	 *
+	 * @return the number of indexed non terminal symbols.
+	 */
+	public int size() {
+		return this.symbols.length;
+	}
+
+	/**
+	 * Returns the number of longs needed to store a set of indexed non terminal symbols as a bitmask.
+	 *
+	 * @return the number of longs needed to store a set of indexed non terminal symbols as a bitmask.
+	 */
+	public int getWords() {
+		return this.words;
+	}
+
+	/**
+	 * Returns the index of the specified non terminal symbol.
+	 *
+	 * @param symbol the non terminal symbol.
+	 *
+	 * @return the index of the specified non terminal symbol, if indexed; -1, otherwise.
+	 */
+	public int indexOf(char symbol) {
+		int index = Arrays.binarySearch(this.symbols, symbol);
+		return (index >= 0) ? index : -1;
+	}
+
+	/**
+	 * Returns the non terminal symbol with the specified index.
+	 *
+	 * @param index the index.
+	 *
+	 * @return the non terminal symbol with the specified index.
+	 */
+	public char getSymbol(int index) {
+		return this.symbols[index];
+	}
+
+	/**
+	 * Returns the non terminal alphabet represented by the specified bitmask.
+	 *
+	 * @param mask the bitmask.
+	 * @param offset the offset of the bitmask in the specified array.
+	 *
+	 * @return the non terminal alphabet represented by the specified bitmask.
+	 */
+	public Alphabet toAlphabet(long mask[], int offset) {
+		Alphabet target = new Alphabet();
+		for (int w = 0; w < this.getWords(); w ++) {
+			long word = mask[offset + w];
+			while (word != 0) {
+				int bit = Long.numberOfTrailingZeros(word);
+				target.add(this.getSymbol((w << 6) + bit));
+				word &= word - 1;
+			}
+		}
+		return target;
+	}
+
+	@Override public String toString() {
+		return "NonTerminalIndex(" + String.valueOf(this.symbols) + ")";
+	}
+
+}
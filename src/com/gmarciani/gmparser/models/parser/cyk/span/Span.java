@@ -0,0 +1,108 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.span;
+
+/**
+ * <p>Span of a word, that is the half-open interval of positions [start, end).<p>
+ * <p>Positions are 0-based, so the span [i, j) is the substring word.substring(i, j).<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.span.SpanIndex
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class Span {
+
+	private final int start;
+	private final int end;
+
+	/**
+	 * Creates the span [start, end).
+	 *
+	 * @param start the start position (inclusive).
+	 * @param end the end position (exclusive).
+	 */
+	public Span(int start, int end) {
+		if (start < 0 || end < start)
+			throw new IllegalArgumentException("Illegal span [" + start + ", " + end + ")");
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Returns the start position (inclusive).
+	 *
+	 * @return the start position (inclusive).
+	 */
+	public int getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Returns the end position (exclusive).
+	 *
+	 * @return the end position (exclusive).
+	 */
+	public int getEnd() {
+		return this.end;
+	}
+
+	/**
+	 * Returns the length of the span.
+	 *
+	 * @return the length of the span.
+	 */
+	public int getLength() {
+		return this.end - this.start;
+	}
+
+	/**
+	 * Checks if the specified span is contained in this span.
+	 *
+	 * @param other the span.
+	 *
+	 * @return true if the specified span is contained in this span; false, otherwise.
+	 */
+	public boolean contains(Span other) {
+		return this.start <= other.start && other.end <= this.end;
+	}
+
+	@Override public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Span))
+			return false;
+		Span other = (Span) obj;
+		return this.start == other.start && this.end == other.end;
+	}
+
+	@Override public int hashCode() {
+		return 31 * this.start + this.end;
+	}
+
+	@Override public String toString() {
+		return "[" + this.start + ", " + this.end + ")";
+	}
+
+}
@@ -0,0 +1,266 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.cyk.span;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.NonTerminalIndex;
+
+/**
+ * <p>Substring-derivation index of a completed Cocke-Younger-Kasami run.<p>
+ * <p>A filled recognition matrix holds every pair (A, [i, j)) such that A derives word.substring(i, j).
+ * The index stores, for every non terminal symbol, its spans sorted by start position and decreasing length, 
+ * and its maximal spans (that is, the spans not contained in any other span of the same non terminal symbol), 
+ * so that every query runs in time proportional to its output, without parsing any substring again.<p>
+ * <p>Positions are 0-based, and spans are half-open. The empty word is indexed as the span [0, 0).<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.cyk.span.Span
+ * @see com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class SpanIndex {
+
+	private static final int EMPTY[] = new int[0];
+
+	private final CYKBitMatrix matrix;
+	private final NonTerminalIndex nonTerminals;
+	private final int length;
+	private final int starts[][];
+	private final int ends[][];
+	private final int maximals[][];
+
+	/**
+	 * Creates the substring-derivation index of the specified filled recognition matrix.
+	 *
+	 * @param matrix the filled recognition matrix.
+	 */
+	public SpanIndex(CYKBitMatrix matrix) {
+		this.matrix = matrix;
+		this.nonTerminals = matrix.getNonTerminals();
+		this.length = matrix.getWord().equals(Grammar.EPSILON.toString()) ? 0 : matrix.getSize();
+		int size = this.nonTerminals.size();
+		this.starts = new int[size][];
+		this.ends = new int[size][];
+		this.maximals = new int[size][];
+
+		int counts[] = new int[size];
+		int maximalCounts[] = new int[size];
+		this.scan(counts, maximalCounts, false); // first pass: counts spans, so that every array is allocated once.
+		for (int a = 0; a < size; a ++) {
+			this.starts[a] = (counts[a] == 0) ? EMPTY : new int[counts[a]];
+			this.ends[a] = (counts[a] == 0) ? EMPTY : new int[counts[a]];
+			this.maximals[a] = (maximalCounts[a] == 0) ? EMPTY : new int[maximalCounts[a]];
+		}
+		Arrays.fill(counts, 0);
+		Arrays.fill(maximalCounts, 0);
+		this.scan(counts, maximalCounts, true); // second pass: stores spans.
+	}
+
+	/**
+	 * Scans the matrix by increasing start position and decreasing length, so that a span is maximal
+	 * if and only if it ends after every span of the same non terminal symbol already scanned.
+	 */
+	private void scan(int counts[], int maximalCounts[], boolean store) {
+		int size = this.nonTerminals.size();
+		int words = this.nonTerminals.getWords();
+		int maxEnds[] = new int[size];
+		Arrays.fill(maxEnds, -1);
+		long mask[] = new long[words];
+		int n = this.matrix.getSize();
+		for (int p = 1; p <= n; p ++) {
+			for (int l = n - p + 1; l >= 1; l --) {
+				this.matrix.get(l, p, mask);
+				int start = (this.length == 0) ? 0 : p - 1;
+				int end = (this.length == 0) ? 0 : p - 1 + l;
+				for (int w = 0; w < words; w ++) {
+					for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+						int a = (w << 6) + Long.numberOfTrailingZeros(bits);
+						int span = counts[a] ++;
+						if (store) {
+							this.starts[a][span] = start;
+							this.ends[a][span] = end;
+						}
+						if (end > maxEnds[a]) {
+							maxEnds[a] = end;
+							if (store)
+								this.maximals[a][maximalCounts[a]] = span;
+							maximalCounts[a] ++;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the length of the indexed word.
+	 *
+	 * @return the length of the indexed word.
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Checks if the specified non terminal symbol derives the substring [start, end).
+	 *
+	 * @param nonTerminal the non terminal symbol.
+	 * @param start the start position (inclusive).
+	 * @param end the end position (exclusive).
+	 *
+	 * @return true if the specified non terminal symbol derives the substring [start, end); false, otherwise.
+	 */
+	public boolean derives(Character nonTerminal, int start, int end) {
+		int a = this.nonTerminals.indexOf(nonTerminal);
+		return a != -1 && this.isCell(start, end) && this.matrix.contains(this.l(start, end), start + 1, a);
+	}
+
+	/**
+	 * Returns the non terminal symbols that derive the substring [start, end).
+	 *
+	 * @param start the start position (inclusive).
+	 * @param end the end position (exclusive).
+	 *
+	 * @return the non terminal symbols that derive the substring [start, end); an empty alphabet, if there are none.
+	 */
+	public Alphabet getNonTerminals(int start, int end) {
+		long mask[] = new long[this.nonTerminals.getWords()];
+		if (this.isCell(start, end))
+			this.matrix.get(this.l(start, end), start + 1, mask);
+		return this.nonTerminals.toAlphabet(mask, 0);
+	}
+
+	/**
+	 * Returns all the spans derivable from the specified non terminal symbol, 
+	 * sorted by start position and decreasing length.
+	 *
+	 * @param nonTerminal the non terminal symbol.
+	 *
+	 * @return all the spans derivable from the specified non terminal symbol.
+	 */
+	public List<Span> getSpans(Character nonTerminal) {
+		int a = this.nonTerminals.indexOf(nonTerminal);
+		if (a == -1)
+			return Collections.emptyList();
+		return this.toSpans(a, 0, this.starts[a].length);
+	}
+
+	/**
+	 * Returns the spans derivable from the specified non terminal symbol that start at the specified position, 
+	 * sorted by decreasing length.
+	 *
+	 * @param nonTerminal the non terminal symbol.
+	 * @param start the start position.
+	 *
+	 * @return the spans derivable from the specified non terminal symbol that start at the specified position.
+	 */
+	public List<Span> getSpansStartingAt(Character nonTerminal, int start) {
+		int a = this.nonTerminals.indexOf(nonTerminal);
+		if (a == -1)
+			return Collections.emptyList();
+		int from = lowerBound(this.starts[a], start);
+		int to = lowerBound(this.starts[a], start + 1);
+		return this.toSpans(a, from, to);
+	}
+
+	/**
+	 * Returns the maximal spans derivable from the specified non terminal symbol, 
+	 * that is the spans not contained in any other span derivable from the same non terminal symbol, 
+	 * sorted by start position.
+	 *
+	 * @param nonTerminal the non terminal symbol.
+	 *
+	 * @return the maximal spans derivable from the specified non terminal symbol.
+	 */
+	public List<Span> getMaximalSpans(Character nonTerminal) {
+		int a = this.nonTerminals.indexOf(nonTerminal);
+		if (a == -1)
+			return Collections.emptyList();
+		int indexes[] = this.maximals[a];
+		List<Span> spans = new ArrayList<Span>(indexes.length);
+		for (int span : indexes)
+			spans.add(new Span(this.starts[a][span], this.ends[a][span]));
+		return spans;
+	}
+
+	/**
+	 * Returns the number of spans derivable from the specified non terminal symbol.
+	 *
+	 * @param nonTerminal the non terminal symbol.
+	 *
+	 * @return the number of spans derivable from the specified non terminal symbol.
+	 */
+	public int getSpanCount(Character nonTerminal) {
+		int a = this.nonTerminals.indexOf(nonTerminal);
+		return (a == -1) ? 0 : this.starts[a].length;
+	}
+
+	private List<Span> toSpans(int a, int from, int to) {
+		List<Span> spans = new ArrayList<Span>(to - from);
+		for (int span = from; span < to; span ++)
+			spans.add(new Span(this.starts[a][span], this.ends[a][span]));
+		return spans;
+	}
+
+	private boolean isCell(int start, int end) {
+		if (this.length == 0)
+			return start == 0 && end == 0;
+		return 0 <= start && start < end && end <= this.length;
+	}
+
+	private int l(int start, int end) {
+		return (this.length == 0) ? 1 : end - start;
+	}
+
+	private static int lowerBound(int values[], int key) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (values[middle] < key)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	@Override public String toString() {
+		StringBuilder string = new StringBuilder();
+		for (int a = 0; a < this.nonTerminals.size(); a ++) {
+			Character nonTerminal = this.nonTerminals.getSymbol(a);
+			string.append(nonTerminal).append(": ").append(this.getSpans(nonTerminal)).append("\n");
+		}
+		return string.toString();
+	}
+
+}
@@ -0,0 +1,112 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.Parser;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.lr.recognition.CanonicalCollection;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LookAheadType;
+import com.gmarciani.gmparser.models.parser.lr.session.LROneParsingSession;
+
+/**
+ * <p>Base implementation of the parsers over LR(0) item sets.<p>
+ * <p>A parser instance builds the LR(0) item sets once, from a private copy of the grammar,
+ * where every complete item reduces on the terminal symbols of the specified look-ahead type,
+ * and compiles their recognition matrix once into an immutable parse table.
+ * Every word is then parsed by the same driver of the LR(1) parser,
+ * so the parser can be used by any number of threads at once.<p>
+ * 
+ * @see com.gmarciani.gmparser.models.parser.lr.LRZeroParser
+ * @see com.gmarciani.gmparser.models.parser.lr.SLROneParser
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+abstract class AbstractLRZeroItemsParser implements Parser {
+	
+	private final Grammar grammar;
+	private final LROneMatrix recognitionMatrix;
+	private final LROneTable table;
+	
+	/**
+	 * Creates a new parser over LR(0) item sets for the specified grammar, with the specified look-ahead type.
+	 * The specified grammar is copied and augmented, so it is not modified.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 * @param lookAheadType the look-ahead type of the reductions.
+	 */
+	AbstractLRZeroItemsParser(Grammar grammar, LookAheadType lookAheadType) {
+		this.grammar = new Grammar(grammar);
+		this.grammar.toAugmentedGrammar();
+		CanonicalCollection itemSets = new CanonicalCollection(this.grammar, lookAheadType);
+		this.recognitionMatrix = new LROneMatrix(this.grammar, itemSets.getAutomaton());
+		this.table = new LROneTable(this.recognitionMatrix, false);
+	}
+	
+	/**
+	 * Returns a copy of the augmented grammar to parse with.
+	 * 
+	 * @return a copy of the augmented grammar to parse with.
+	 */
+	public Grammar getGrammar() {
+		return new Grammar(this.grammar);
+	}
+	
+	/**
+	 * Returns the recognition matrix to parse with.
+	 * 
+	 * @return the recognition matrix to parse with.
+	 */
+	public LROneMatrix getRecognitionMatrix() {
+		return this.recognitionMatrix;
+	}
+	
+	/**
+	 * Returns the parse table to parse with.
+	 * 
+	 * @return the parse table to parse with.
+	 */
+	public LROneTable getTable() {
+		return this.table;
+	}
+	
+	@Override public boolean parse(String word) {
+		return this.parse(TokenStream.of(word));
+	}
+	
+	@Override public boolean parse(TokenStream tokens) {
+		return this.getTable().isLROne() 
+			&& LROneParser.parseWithPushDownAutomaton(this.getTable(), tokens);
+	}
+	
+	@Override public LROneParsingSession parseWithSession(String word) {
+		boolean result = this.parse(word);
+		word += '$'; // adds the end marker for PDA parsing.
+		return new LROneParsingSession(this.getGrammar(), word, this.getParserType(), this.getRecognitionMatrix(), result);
+	}
+
+}
@@ -0,0 +1,183 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr;
+
+import java.util.List;
+
+import com.gmarciani.gmparser.models.commons.nple.Pair;
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.Parser;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LALROneAutomaton;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable;
+import com.gmarciani.gmparser.models.parser.lr.session.LROneParsingSession;
+
+/**
+ * <p>LALR(1) parser implementation.<p>
+ * <p>A parser instance builds the canonical LR(1) automaton of items once, from a private copy of the grammar,
+ * merges every state with the same core, and compiles the recognition matrix of the merged automaton
+ * once into an immutable parse table, so that the table has as many states as the LR(0) automaton.
+ * Every word is then parsed by the same driver of the LR(1) parser,
+ * so the parser can be used by any number of threads at once.<p>
+ * <p>Every reduce/reduce conflict introduced by merging is reported by {@link #getMergeConflicts()}.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.Parser
+ * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LALROneAutomaton
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public class LALROneParser implements Parser {
+
+	private final Grammar grammar;
+	private final LALROneAutomaton automaton;
+	private final LROneMatrix recognitionMatrix;
+	private final LROneTable table;
+
+	/**
+	 * Creates a new LALR(1) parser for the specified grammar.
+	 * The specified grammar is copied and augmented, so it is not modified.
+	 *
+	 * @param grammar the grammar to parse with.
+	 */
+	public LALROneParser(Grammar grammar) {
+		this(grammar, false);
+	}
+
+	/**
+	 * Creates a new LALR(1) parser for the specified grammar, optionally with a compressed parse table.
+	 * The specified grammar is copied and augmented, so it is not modified.
+	 *
+	 * @param grammar the grammar to parse with.
+	 * @param compressed true to compress the parse table by comb-vector packing; false, to keep the dense table.
+	 */
+	public LALROneParser(Grammar grammar, boolean compressed) {
+		this.grammar = new Grammar(grammar);
+		this.grammar.toAugmentedGrammar();
+		this.automaton = new LALROneAutomaton(LROneParser.generateItemSetsFiniteAutomaton(this.grammar));
+		this.recognitionMatrix = new LROneMatrix(this.grammar, this.automaton.getAutomaton());
+		this.table = new LROneTable(this.recognitionMatrix, compressed);
+	}
+
+	/**
+	 * Returns a copy of the augmented grammar to parse with.
+	 *
+	 * @return a copy of the augmented grammar to parse with.
+	 */
+	public Grammar getGrammar() {
+		return new Grammar(this.grammar);
+	}
+
+	/**
+	 * Returns the LALR(1) automaton of items, merged from the canonical LR(1) one.
+	 *
+	 * @return the LALR(1) automaton of items.
+	 */
+	public LALROneAutomaton getAutomaton() {
+		return this.automaton;
+	}
+
+	/**
+	 * Returns the LALR(1) recognition matrix to parse with.
+	 *
+	 * @return the LALR(1) recognition matrix to parse with.
+	 */
+	public LROneMatrix getRecognitionMatrix() {
+		return this.recognitionMatrix;
+	}
+
+	/**
+	 * Returns the LALR(1) parse table to parse with.
+	 *
+	 * @return the LALR(1) parse table to parse with.
+	 */
+	public LROneTable getTable() {
+		return this.table;
+	}
+
+	/**
+	 * Returns the reduce/reduce conflicts introduced by merging the states with the same core,
+	 * as (state id, look-ahead symbol) pairs.
+	 *
+	 * @return the reduce/reduce conflicts introduced by merging.
+	 */
+	public List<Pair<Integer, Character>> getMergeConflicts() {
+		return this.getAutomaton().getMergeConflicts();
+	}
+
+	/**
+	 * Checks if the grammar to parse with is a LALR(1) grammar.
+	 *
+	 * @return true if the grammar to parse with is a LALR(1) grammar; false, otherwise.
+	 */
+	public boolean isLALROneGrammar() {
+		return this.getTable().isLROne();
+	}
+
+	@Override public ParserType getParserType() {
+		return ParserType.LALR1;
+	}
+
+	@Override public boolean parse(String word) {
+		return this.parse(TokenStream.of(word));
+	}
+
+	@Override public boolean parse(TokenStream tokens) {
+		return this.isLALROneGrammar()
+			&& LROneParser.parseWithPushDownAutomaton(this.getTable(), tokens);
+	}
+
+	@Override public LROneParsingSession parseWithSession(String word) {
+		boolean result = this.parse(word);
+		word += '$'; // adds the end marker for PDA parsing.
+		return new LROneParsingSession(this.getGrammar(), word, ParserType.LALR1, this.getRecognitionMatrix(), result);
+	}
+
+	/**
+	 * <p>Checks if the specified word can be parsed by the specified grammar.<p>
+	 *
+	 * @param grammar the grammar to parse with.
+	 * @param word the word to parse.
+	 *
+	 * @return true if the specified word can be parsed by the specified grammar; false, otherwise.
+	 */
+	public static boolean parse(Grammar grammar, String word) {
+		return new LALROneParser(grammar).parse(word);
+	}
+
+	/**
+	 * <p>Checks if the specified grammar is a LALR(1) grammar.<p>
+	 *
+	 * @param grammar the grammar.
+	 *
+	 * @return true if the specified grammar is a LALR(1) grammar.
+	 */
+	public static boolean isLALROneGrammar(Grammar grammar) {
+		return new LALROneParser(grammar).isLALROneGrammar();
+	}
+
+}
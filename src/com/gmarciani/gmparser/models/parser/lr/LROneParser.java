@@ -23,29 +23,167 @@
 
 package com.gmarciani.gmparser.models.parser.lr;
 
-import java.util.Stack;
+import java.io.File;
+import java.io.IOException;
 
 import com.gmarciani.gmparser.models.automaton.FiniteAutomaton;
-import com.gmarciani.gmparser.models.commons.nple.Pair;
 import com.gmarciani.gmparser.models.grammar.Grammar;
-import com.gmarciani.gmparser.models.grammar.production.Production;
-import com.gmarciani.gmparser.models.parser.lr.recognition.Action;
-import com.gmarciani.gmparser.models.parser.lr.recognition.ActionType;
-import com.gmarciani.gmparser.models.parser.lr.recognition.BigProductionGraph;
+import com.gmarciani.gmparser.models.parser.Parser;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.lr.recognition.CanonicalCollection;
 import com.gmarciani.gmparser.models.parser.lr.recognition.Item;
 import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTableFile;
 import com.gmarciani.gmparser.models.parser.lr.session.LROneParsingSession;
 
 /**
  * <p>CLR(1) parser implementation.<p>
+ * <p>A parser instance builds the LR(1) recognition matrix once, from a private copy of the grammar, 
+ * and compiles it once into an immutable LR(1) parse table, checked for conflicts at construction.
+ * Every word is then parsed by a lightweight driver over the table, 
+ * so the parser can be used by any number of threads at once.<p>
  * <p>Every algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg. 5.4.1]<p>
  * 
- * @see com.gmarciani.gmparser.models.parser.cyk.session.CYKParsingSession
+ * @see com.gmarciani.gmparser.models.parser.Parser
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable
+ * @see com.gmarciani.gmparser.models.parser.lr.LROnePushParser
+ * @see com.gmarciani.gmparser.models.parser.lr.session.LROneParsingSession
  * 
  * @author Giacomo Marciani
  * @version 1.0
  */
-public class LROneParser {
+public class LROneParser implements Parser {
+	
+	/**
+	 * The initial number of states of the PDA stack, doubled whenever full.
+	 */
+	public static final int STACK_SIZE = 64;
+	
+	static final char END_MARKER = '$';
+	
+	private final Grammar grammar;
+	private volatile LROneMatrix recognitionMatrix;
+	private final LROneTable table;
+	
+	/**
+	 * Creates a new LR(1) parser for the specified grammar.
+	 * The specified grammar is copied and augmented, so it is not modified.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 */
+	public LROneParser(Grammar grammar) {
+		this(grammar, false);
+	}
+	
+	/**
+	 * Creates a new LR(1) parser for the specified grammar, optionally with a compressed parse table.
+	 * A compressed parser keeps no recognition matrix: as for a table file, the recognition matrix is generated again only if requested.
+	 * The specified grammar is copied and augmented, so it is not modified.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 * @param compressed true to compress the parse table by comb-vector packing; false, to keep the dense table.
+	 */
+	public LROneParser(Grammar grammar, boolean compressed) {
+		this.grammar = new Grammar(grammar);
+		LROneMatrix matrix = getRecognitionMatrix(this.grammar);
+		this.table = new LROneTable(matrix, compressed);
+		this.recognitionMatrix = compressed ? null : matrix; // the compressed table must not be outweighed by the dense matrix.
+	}
+	
+	/**
+	 * Creates a new LR(1) parser for the specified grammar, with the parse table compiled once and stored in the specified table file.
+	 * The parse table is loaded in place, with no recognition matrix: the recognition matrix is generated only if a parsing session is requested.
+	 * The specified grammar is copied and augmented, so it is not modified.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 * @param tableFile the table file, as written by {@link #writeTable(File)}.
+	 * 
+	 * @throws IOException if the table file cannot be loaded, or has been compiled from another grammar.
+	 * 
+	 * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneTableFile
+	 */
+	public LROneParser(Grammar grammar, File tableFile) throws IOException {
+		this.grammar = new Grammar(grammar);
+		this.grammar.toAugmentedGrammar();
+		this.table = LROneTableFile.load(tableFile, this.grammar);
+	}
+	
+	/**
+	 * Returns a copy of the augmented grammar to parse with.
+	 * 
+	 * @return a copy of the augmented grammar to parse with.
+	 */
+	public Grammar getGrammar() {
+		return new Grammar(this.grammar);
+	}
+	
+	/**
+	 * Returns the LR(1) recognition matrix to parse with.
+	 * 
+	 * @return the LR(1) recognition matrix to parse with.
+	 */
+	public LROneMatrix getRecognitionMatrix() {
+		LROneMatrix matrix = this.recognitionMatrix;
+		if (matrix == null) { // a parser with a compressed or loaded table generates its recognition matrix only once, on demand.
+			synchronized (this) {
+				if (this.recognitionMatrix == null)
+					this.recognitionMatrix = new LROneMatrix(this.grammar, generateItemSetsFiniteAutomaton(this.grammar));
+				matrix = this.recognitionMatrix;
+			}
+		}
+		return matrix;
+	}
+	
+	/**
+	 * Returns the LR(1) parse table to parse with.
+	 * 
+	 * @return the LR(1) parse table to parse with.
+	 */
+	public LROneTable getTable() {
+		return this.table;
+	}
+	
+	/**
+	 * Writes the parse table to the specified table file, so that it can be loaded by {@link #LROneParser(Grammar, File)}.
+	 * 
+	 * @param tableFile the table file to write.
+	 * 
+	 * @throws IOException if the table file cannot be written.
+	 */
+	public void writeTable(File tableFile) throws IOException {
+		LROneTableFile.write(this.getRecognitionMatrix(), tableFile);
+	}
+	
+	/**
+	 * Checks if the grammar to parse with is a LR(1) grammar.
+	 * 
+	 * @return true if the grammar to parse with is a LR(1) grammar; false, otherwise.
+	 */
+	public boolean isLROneGrammar() {
+		return this.getTable().isLROne();
+	}
+	
+	@Override public ParserType getParserType() {
+		return ParserType.LR1;
+	}
+	
+	@Override public boolean parse(String word) {
+		return this.parse(TokenStream.of(word));
+	}
+	
+	@Override public boolean parse(TokenStream tokens) {
+		return this.isLROneGrammar() 
+			&& parseWithPushDownAutomaton(this.getTable(), tokens);
+	}
+	
+	@Override public LROneParsingSession parseWithSession(String word) {
+		boolean result = this.isLROneGrammar() 
+				&& parseWithPushDownAutomaton(this.getTable(), TokenStream.of(word));
+		word += '$'; // adds the end marker for PDA parsing.
+		return new LROneParsingSession(this.getGrammar(), word, this.getRecognitionMatrix(), result);
+	}
 	
 	/**
 	 * <p>Checks if the specified word can be parsed by the specified grammar.<p>
@@ -56,11 +194,8 @@ public class LROneParser {
 	 * 
 	 * @return true if the specified word can be parsed by the specified grammar; false, otherwise.
 	 */
-	public static synchronized boolean parse(Grammar grammar, String word) {
-		word += '$'; // adds the end marker for PDA parsing.
-		LROneMatrix recognitionMatrix = getRecognitionMatrix(grammar);
-		return isLROneGrammar(recognitionMatrix) 
-			&& parseWithPushDownAutomaton(recognitionMatrix, word);
+	public static boolean parse(Grammar grammar, String word) {
+		return new LROneParser(grammar).parse(word);
 	}
 
 	/**
@@ -73,15 +208,12 @@ public class LROneParser {
 	 * @return the LR(1) parsing session for the specified grammar and word.
 	 */
 	public static LROneParsingSession parseWithSession(Grammar grammar, String word) {
-		word += '$'; // adds the end marker for PDA parsing.
-		LROneMatrix recognitionMatrix = getRecognitionMatrix(grammar);
-		boolean result = isLROneGrammar(recognitionMatrix) 
-				&& parseWithPushDownAutomaton(recognitionMatrix, word);
-		return new LROneParsingSession(grammar, word, recognitionMatrix, result);
+		return new LROneParser(grammar).parseWithSession(word);
 	}	
 	
 	/**
 	 * <p>Generates the LR(1) recognition matrix derived from the specified grammar.<p>
+	 * <p>Note that the specified grammar is augmented.<p>
 	 * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg. 5.4.1]<p>
 	 * 
 	 * @param grammar the grammar.
@@ -90,73 +222,41 @@ public class LROneParser {
 	 */
 	public static LROneMatrix getRecognitionMatrix(Grammar grammar) {
 		grammar.toAugmentedGrammar(); // Generate the augmented grammar ...
-		FiniteAutomaton<Item> automaton = generateBigProductionFiniteAutomaton(grammar); // ... then generate the associated Big Productions graph ...	
+		FiniteAutomaton<Item> automaton = generateItemSetsFiniteAutomaton(grammar); // ... then generate the canonical collection of LR(1) item sets ...	
 		return new LROneMatrix(grammar, automaton); // ... and derive the LR(1) recognition matrix.
 	}
 
 	/**
 	 * <p>Generates the deterministic finite automaton of items derived from the specified grammar.<p>
+	 * <p>Every state is generated directly by closure and goto over item sets, 
+	 * so that neither the Big Productions graph nor its powerset construction is needed.<p>
 	 * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg. 5.4.1]<p>
 	 * 
-	 * @param grammar the grammar.
+	 * @param grammar the augmented grammar.
 	 * 
 	 * @return the deterministic finite automaton of items derived from the specified grammar.
 	 */
-	private static FiniteAutomaton<Item> generateBigProductionFiniteAutomaton(Grammar grammar) {
-		BigProductionGraph bigProductionGraph = new BigProductionGraph(grammar); // Generates the Big Productions linear graph ...
-		FiniteAutomaton<Item> bigProductionFiniteAutomaton = bigProductionGraph.powersetConstruction(); // ... and generates the equivalent deterministic finite automaton.
-		return bigProductionFiniteAutomaton;
+	static FiniteAutomaton<Item> generateItemSetsFiniteAutomaton(Grammar grammar) {
+		return new CanonicalCollection(grammar).getAutomaton();
 	}	
 	
 	/**
-	 * <p>Checks if the specified word can be accepted by a the non deterministic PDA by the specified LR(1) recognition matrix.<p>
+	 * <p>Checks if the specified token stream can be accepted by a the non deterministic PDA by the specified LR(1) parse table.<p>
+	 * <p>The whole token stream is pushed into a {@link LROnePushParser}, then the end marker is read after the last token, 
+	 * so it is never appended to the input.
+	 * The stack holds primitive state ids only, and grows by doubling, so that no object is allocated per token:
+	 * every reduction pops exactly as many states as the right symbols of the production.<p>
 	 * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg. 5.4.1]<p>
 	 * 
-	 * @param recognitionMatrix the LR(1) recognition matrix to parse with.
-	 * @param word the word to parse.
+	 * @param table the LR(1) parse table to parse with.
+	 * @param tokens the token stream to parse.
 	 * 
-	 * @return true if the non deterministic PDA can accept the specified word by the specified LR(1) recognition matrix.
+	 * @return true if the non deterministic PDA can accept the specified token stream by the specified LR(1) parse table.
 	 */
-	private static boolean parseWithPushDownAutomaton(LROneMatrix recognitionMatrix, String word) {
-		int inputTape = 0;
-		Stack<Pair<Character, Integer>> stack = new Stack<Pair<Character, Integer>>();
-		stack.push(new Pair<Character, Integer>('$', recognitionMatrix.getAutomaton().getInitial().getId()));		
-		Action action = null;
-		while(!stack.isEmpty()) {
-			int currentState = stack.peek().getY();
-			Character tapeSymbol = word.charAt(inputTape);
-			action = recognitionMatrix.getAction(currentState, tapeSymbol);
-			if (action == null) // found no action, but expected.
-				return false;
-			if (action.isActionType(ActionType.ACCEPT)) { // acceptance: accept the word.
-				return true;
-			} else if (action.isActionType(ActionType.SHIFT)) { // shift: push into the stack the cover state with its covered tape symbol.
-				Integer coverState = action.getValue();
-				stack.push(new Pair<Character, Integer>(tapeSymbol, coverState));
-				inputTape ++;
-			} else if (action.isActionType(ActionType.GOTO)) { //goto: push into the stack the non terminal symbol.
-				Integer dState = action.getValue();
-				stack.push(new Pair<Character, Integer>(null, dState));
-			} else if (action.isActionType(ActionType.REDUCE)) { // reduction (the backtracking step): backtracks the stack.
-				Integer productionIndex = action.getValue();
-				Production production = recognitionMatrix.getProductions().get(productionIndex);
-				Character productionLhs = production.getLeft().getValueAsChars()[0];
-				char productionRhs[] = production.getRight().getValueAsChars();
-				for (int i = productionRhs.length - 1; i >=0; i --)
-					if (stack.peek().getX().equals(productionRhs[i]) 
-							|| stack.peek().getX().equals(null))
-						stack.pop();
-				currentState = stack.peek().getY();
-				action = recognitionMatrix.getAction(currentState, productionLhs);
-				if (action.isActionType(ActionType.GOTO)) {
-					Integer dState = action.getValue();
-					stack.push(new Pair<Character, Integer>(productionLhs, dState));
-				} else {
-					return false;
-				}					
-			}
-		}
-		return false;
+	static boolean parseWithPushDownAutomaton(LROneTable table, TokenStream tokens) {
+		LROnePushParser parser = new LROnePushParser(table); // the push parser holds the only PDA moves, for both the whole and the streamed input.
+		parser.feed(tokens);
+		return parser.finish();
 	}
 	
 	/**
@@ -169,25 +269,7 @@ public class LROneParser {
 	 */
 	public static boolean isLROneGrammar(Grammar grammar) {
 		// a LR(1) grammar can be recognized by the LR(1) recognition matrix that generates.
-		LROneMatrix recognitionMatrix = getRecognitionMatrix(grammar);
-		return isLROneGrammar(recognitionMatrix);
+		return new LROneParser(grammar).isLROneGrammar();
 	}
-	
-	/**
-	 * Checks if the specified LR(1) recognition matrix has been derived from a LR(1) grammar.
-	 * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", rem. 5.4.4]<p>
-	 * 
-	 * @param recognitionMatrix the LR(1) recognition matrix.
-	 * 
-	 * @return true if the specified LR(1) recognition matrix has been derived from a LR(1) grammar; false, otherwise.
-	 */
-	private static boolean isLROneGrammar(LROneMatrix recognitionMatrix) {
-		// a LR(1) grammar generates a LR(1) recognition matrix without colliding action, so without production ambiguity deeper than one.
-		for (Integer stateId : recognitionMatrix.getDomainX())
-			for (Character symbol : recognitionMatrix.getDomainY())
-				if (recognitionMatrix.getAllForXY(stateId, symbol).size() > 1)
-					return false;
-		return true;
-	}	
 
 }
@@ -0,0 +1,265 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr;
+
+import java.util.Arrays;
+
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.lr.recognition.ActionType;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable;
+import com.gmarciani.gmparser.models.parser.lr.recognition.PackedActionTable;
+
+/**
+ * <p>Push-based incremental LR parser, over a compiled LR parse table.<p>
+ * <p>The input is pushed into the parser as it arrives, by any number of {@code feed(...)} calls,
+ * token by token or chunk by chunk, and the end of the input is signalled by {@link #finish()},
+ * that reads the end marker and reports whether the whole input has been accepted.
+ * Every token is processed as soon as it is fed, so the input is never buffered:
+ * apart from the primitive state stack, the parser state has a constant size.<p>
+ * <p>An input is rejected as soon as a token has no action, so that an invalid input is detected
+ * without waiting for its end; {@link #getPosition()} then returns the index of the offending token.<p>
+ * <p>The PDA moves of the push parser are the only ones: every LR parser drives its whole input through a push parser.<p>
+ * <p>A push parser is not thread-safe, but any number of push parsers can share the same table.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class LROnePushParser {
+
+	private final LROneTable table;
+	private int stack[];
+	private int top;
+	private long position;
+	private boolean rejected;
+	private boolean accepted;
+	private boolean finished;
+
+	/**
+	 * Creates a new push parser over the specified LR parse table.
+	 *
+	 * @param table the LR parse table to parse with.
+	 *
+	 * @throws IllegalArgumentException if the specified table has conflicts.
+	 */
+	public LROnePushParser(LROneTable table) {
+		if (!table.isLROne())
+			throw new IllegalArgumentException("Cannot push parse by a table with " + table.getConflictCount() + " conflicts");
+		this.table = table;
+		this.stack = new int[LROneParser.STACK_SIZE];
+		this.reset();
+	}
+
+	/**
+	 * Resets the parser to the initial state, so that a new input can be pushed.
+	 * The stack is kept, so that reusing a parser never allocates.
+	 */
+	public void reset() {
+		this.top = 0;
+		this.stack[this.top] = this.table.getInitialState();
+		this.position = 0;
+		this.rejected = false;
+		this.accepted = false;
+		this.finished = false;
+	}
+
+	/**
+	 * Pushes the specified terminal id.
+	 * The end marker ends the input, as for {@link LROneParser}: every following token is ignored.
+	 *
+	 * @param token the terminal id.
+	 *
+	 * @return true if the input pushed so far is still a prefix of an acceptable input; false, if it has been rejected.
+	 *
+	 * @throws IllegalStateException if the parser has already been finished.
+	 */
+	public boolean feed(int token) {
+		this.checkNotFinished();
+		if (this.rejected)
+			return false;
+		if (this.accepted) // the input has already been ended by the end marker.
+			return true;
+		if (token == LROneParser.END_MARKER)
+			this.readEndMarker();
+		else if (!TokenStream.isChar(token) || !this.move(token)) // terminal symbols are chars.
+			this.rejected = true;
+		if (this.rejected)
+			return false;
+		this.position ++;
+		return true;
+	}
+
+	/**
+	 * Pushes every character of the specified chunk, as a terminal id.
+	 *
+	 * @param chunk the chunk of characters.
+	 *
+	 * @return true if the input pushed so far is still a prefix of an acceptable input; false, if it has been rejected.
+	 *
+	 * @throws IllegalStateException if the parser has already been finished.
+	 */
+	public boolean feed(CharSequence chunk) {
+		this.checkNotFinished();
+		for (int i = 0; i < chunk.length() && !this.rejected; i ++)
+			this.feed(chunk.charAt(i));
+		return !this.rejected;
+	}
+
+	/**
+	 * Pushes every terminal id of the specified token stream.
+	 *
+	 * @param tokens the token stream.
+	 *
+	 * @return true if the input pushed so far is still a prefix of an acceptable input; false, if it has been rejected.
+	 *
+	 * @throws IllegalStateException if the parser has already been finished.
+	 */
+	public boolean feed(TokenStream tokens) {
+		this.checkNotFinished();
+		for (int i = 0; i < tokens.length() && !this.rejected; i ++)
+			this.feed(tokens.get(i));
+		return !this.rejected;
+	}
+
+	/**
+	 * Signals the end of the input, by reading the end marker.
+	 * Finishing a finished parser has no effect.
+	 *
+	 * @return true if the whole input pushed has been accepted; false, otherwise.
+	 */
+	public boolean finish() {
+		if (!this.finished) {
+			this.readEndMarker();
+			this.finished = true;
+		}
+		return this.accepted;
+	}
+
+	/**
+	 * Checks if the input pushed so far has been rejected.
+	 *
+	 * @return true if the input pushed so far has been rejected; false, otherwise.
+	 */
+	public boolean isRejected() {
+		return this.rejected;
+	}
+
+	/**
+	 * Checks if the whole input has been accepted, that is if the parser has been finished with success.
+	 *
+	 * @return true if the whole input has been accepted; false, otherwise.
+	 */
+	public boolean isAccepted() {
+		return this.accepted;
+	}
+
+	/**
+	 * Checks if the parser has been finished.
+	 *
+	 * @return true if the parser has been finished; false, otherwise.
+	 */
+	public boolean isFinished() {
+		return this.finished;
+	}
+
+	/**
+	 * Returns the number of tokens read, that is the index of the offending token if the input has been rejected.
+	 *
+	 * @return the number of tokens read.
+	 */
+	public long getPosition() {
+		return this.position;
+	}
+
+	/**
+	 * Returns the number of states in the stack.
+	 *
+	 * @return the number of states in the stack.
+	 */
+	public int getDepth() {
+		return this.top + 1;
+	}
+
+	private void checkNotFinished() {
+		if (this.finished)
+			throw new IllegalStateException("Cannot feed a finished push parser");
+	}
+
+	/**
+	 * Reads the end marker, until the input is accepted or rejected.
+	 */
+	private void readEndMarker() {
+		while (!this.rejected && !this.accepted) // a shift of the end marker reads it again, as the PDA does past the last token.
+			this.rejected = !this.move(LROneParser.END_MARKER);
+	}
+
+	/**
+	 * Moves the PDA by the specified terminal id: every reduction is executed, until the terminal id is shifted, or accepted.
+	 *
+	 * @param token the terminal id.
+	 *
+	 * @return true if the terminal id has been shifted or accepted; false, if it has no action.
+	 */
+	private boolean move(int token) {
+		while(true) {
+			int action = this.table.getActionCode(this.stack[this.top], token);
+			if (action == 0) { // found no action, but expected.
+				return false;
+			} else if (PackedActionTable.isType(action, ActionType.ACCEPT)) { // acceptance: accept the input.
+				this.accepted = true;
+				return true;
+			} else if (PackedActionTable.isType(action, ActionType.SHIFT)
+					|| PackedActionTable.isType(action, ActionType.GOTO)) { // shift (or goto): push into the stack the cover state.
+				this.push(PackedActionTable.getValue(action));
+				if (PackedActionTable.isType(action, ActionType.SHIFT)) // only a shift reads the token.
+					return true;
+			} else if (PackedActionTable.isType(action, ActionType.REDUCE)) { // reduction: pops a state for every right symbol ...
+				int productionIndex = PackedActionTable.getValue(action);
+				this.top -= this.table.getProductionLength(productionIndex);
+				if (this.top < 0)
+					return false;
+				action = this.table.getActionCode(this.stack[this.top], this.table.getProductionLeft(productionIndex)); // ... then goes to the state by the left symbol.
+				if (!PackedActionTable.isType(action, ActionType.GOTO))
+					return false;
+				this.push(PackedActionTable.getValue(action));
+			} else {
+				return false;
+			}
+		}
+	}
+
+	private void push(int state) {
+		if (++ this.top == this.stack.length)
+			this.stack = Arrays.copyOf(this.stack, this.stack.length << 1);
+		this.stack[this.top] = state;
+	}
+
+	@Override public String toString() {
+		return "LROnePushParser(position: " + this.position + ", depth: " + this.getDepth() +
+				", rejected: " + this.rejected + ", accepted: " + this.accepted + ")";
+	}
+
+}
@@ -0,0 +1,90 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LookAheadType;
+
+/**
+ * <p>LR(0) parser implementation.<p>
+ * <p>A parser instance builds the LR(0) item sets once, from a private copy of the grammar,
+ * where every complete item reduces on every terminal symbol, 
+ * so that the grammar is LR(0) exactly when the parse table has no conflict.<p>
+ * 
+ * @see com.gmarciani.gmparser.models.parser.Parser
+ * @see com.gmarciani.gmparser.models.parser.lr.SLROneParser
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public class LRZeroParser extends AbstractLRZeroItemsParser {
+	
+	/**
+	 * Creates a new LR(0) parser for the specified grammar.
+	 * The specified grammar is copied and augmented, so it is not modified.
+	 * 
+	 * @param grammar the grammar to parse with.
+	 */
+	public LRZeroParser(Grammar grammar) {
+		super(grammar, LookAheadType.NONE);
+	}
+	
+	/**
+	 * Checks if the grammar to parse with is a LR(0) grammar.
+	 * 
+	 * @return true if the grammar to parse with is a LR(0) grammar; false, otherwise.
+	 */
+	public boolean isLRZeroGrammar() {
+		return this.getTable().isLROne();
+	}
+	
+	@Override public ParserType getParserType() {
+		return ParserType.LR0;
+	}
+	
+	/**
+	 * <p>Checks if the specified word can be parsed by the specified grammar.<p>
+	 * 
+	 * @param grammar the grammar to parse with.
+	 * @param word the word to parse.
+	 * 
+	 * @return true if the specified word can be parsed by the specified grammar; false, otherwise.
+	 */
+	public static boolean parse(Grammar grammar, String word) {
+		return new LRZeroParser(grammar).parse(word);
+	}
+	
+	/**
+	 * <p>Checks if the specified grammar is a LR(0) grammar.<p>
+	 * 
+	 * @param grammar the grammar.
+	 * 
+	 * @return true if the specified grammar is a LR(0) grammar.
+	 */
+	public static boolean isLRZeroGrammar(Grammar grammar) {
+		return new LRZeroParser(grammar).isLRZeroGrammar();
+	}
+
+}
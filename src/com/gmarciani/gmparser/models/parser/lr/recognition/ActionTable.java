@@ -0,0 +1,73 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+/**
+ * <p>The ACTION/GOTO table model of the LR parsers.<p>
+ * <p>Every action is available both packed into an int, as defined by {@link PackedActionTable}, 
+ * and as an {@link Action}; both lookups are O(1) and allocation-free.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.PackedActionTable
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.CombActionTable
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public interface ActionTable {
+
+	/**
+	 * Returns the packed action stored in correspondence of the specified state id and symbol.
+	 *
+	 * @param stateId the state id.
+	 * @param symbol the symbol.
+	 *
+	 * @return the packed action stored in correspondence of the specified state id and symbol; 0, if there is none.
+	 */
+	public int getCode(int stateId, int symbol);
+
+	/**
+	 * Returns the action stored in correspondence of the specified state id and symbol.
+	 *
+	 * @param stateId the state id.
+	 * @param symbol the symbol.
+	 *
+	 * @return the action stored in correspondence of the specified state id and symbol; null, if there is none.
+	 */
+	public Action getAction(int stateId, int symbol);
+
+	/**
+	 * Returns the number of state/symbol pairs with more than one action.
+	 *
+	 * @return the number of state/symbol pairs with more than one action.
+	 */
+	public int getConflictCount();
+
+	/**
+	 * Returns the number of ints stored by the table, as a measure of its memory footprint.
+	 *
+	 * @return the number of ints stored by the table.
+	 */
+	public int getSize();
+
+}
@@ -0,0 +1,467 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.gmarciani.gmparser.models.automaton.FiniteAutomaton;
+import com.gmarciani.gmparser.models.automaton.state.State;
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+
+/**
+ * <p>The canonical collection of LR(1) item sets, generated directly by closure and goto.<p>
+ * <p>Every production is interned to a dense index, every (production, dot) pair to a dense core index,
+ * and every look-ahead set is a bitmask over the interned terminal symbols.
+ * Every item set is keyed by its kernel, that is the map from the kernel cores to their look-ahead sets,
+ * so that every goto is resolved by a single hash lookup, and the states of the deterministic finite automaton of items
+ * are generated immediately, with no transition graph and no powerset construction.<p>
+ * <p>Every look-ahead set is computed by First1 over the whole remainder of the item,
+ * and the First1 sets of the non terminal symbols are computed once, by fixpoint.<p>
+ * <p>With no canonical look-ahead, the collection is made of LR(0) item sets,
+ * and every item gets either the Follow1 set of its production left side (SLR(1)) or every terminal symbol (LR(0)).<p>
+ * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg 5.4.1]<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.BigProductionGraph
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.Item
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LookAheadType
+ * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CanonicalCollection {
+
+	private final Grammar grammar;
+	private final LookAheadType lookAheadType;
+	private final List<Production> productions;
+	private final char lefts[];
+	private final char rights[][];
+	private final int offsets[];
+	private final int coreProductions[];
+	private final Map<Character, List<Integer>> productionsByLeft;
+	private final Map<Character, Integer> terminals;
+	private final char terminalSymbols[];
+	private final Map<Character, BitSet> firsts;
+	private final Map<Character, Boolean> nullables;
+	private final BitSet suffixFirsts[];
+	private final boolean suffixNullables[];
+	private final Map<Character, BitSet> follows;
+	private final List<TreeMap<Integer, BitSet>> itemSets;
+	private final List<Map<Character, Integer>> gotos;
+	private final FiniteAutomaton<Item> automaton;
+
+	/**
+	 * Creates the canonical collection of LR(1) item sets for the specified augmented grammar.
+	 * The specified grammar is not modified.
+	 *
+	 * @param grammar the augmented grammar.
+	 */
+	public CanonicalCollection(Grammar grammar) {
+		this(grammar, LookAheadType.CANONICAL);
+	}
+
+	/**
+	 * Creates the canonical collection of item sets for the specified augmented grammar, with the specified look-ahead type.
+	 * The specified grammar is not modified.
+	 *
+	 * @param grammar the augmented grammar.
+	 * @param lookAheadType the look-ahead type.
+	 */
+	public CanonicalCollection(Grammar grammar, LookAheadType lookAheadType) {
+		this.grammar = grammar;
+		this.lookAheadType = lookAheadType;
+		this.productions = new ArrayList<Production>();
+		for (Production production : grammar.getProductions())
+			this.productions.add(production);
+		int size = this.productions.size();
+		this.lefts = new char[size];
+		this.rights = new char[size][];
+		this.offsets = new int[size + 1];
+		this.productionsByLeft = new HashMap<Character, List<Integer>>();
+		for (int p = 0; p < size; p ++) {
+			Production production = this.productions.get(p);
+			this.lefts[p] = production.getLeft().getValueAsChars()[0];
+			this.rights[p] = production.isEpsilonProduction() ? new char[0] : production.getRight().getValueAsChars();
+			this.offsets[p + 1] = this.offsets[p] + this.rights[p].length + 1; // one core for every dot position.
+			List<Integer> alternatives = this.productionsByLeft.get(this.lefts[p]);
+			if (alternatives == null) {
+				alternatives = new ArrayList<Integer>();
+				this.productionsByLeft.put(this.lefts[p], alternatives);
+			}
+			alternatives.add(p);
+		}
+		this.coreProductions = new int[this.offsets[size]];
+		for (int p = 0; p < size; p ++)
+			for (int c = this.offsets[p]; c < this.offsets[p + 1]; c ++)
+				this.coreProductions[c] = p;
+		this.terminals = new LinkedHashMap<Character, Integer>();
+		for (Character terminal : grammar.getTerminals())
+			this.terminals.put(terminal, this.terminals.size());
+		if (!this.terminals.containsKey(BigProductionGraph.END_MARKER))
+			this.terminals.put(BigProductionGraph.END_MARKER, this.terminals.size());
+		this.terminalSymbols = new char[this.terminals.size()];
+		for (Map.Entry<Character, Integer> entry : this.terminals.entrySet())
+			this.terminalSymbols[entry.getValue()] = entry.getKey();
+		this.firsts = new HashMap<Character, BitSet>();
+		this.nullables = new HashMap<Character, Boolean>();
+		this.generateFirsts();
+		this.suffixFirsts = new BitSet[this.offsets[size]];
+		this.suffixNullables = new boolean[this.offsets[size]];
+		this.generateSuffixFirsts();
+		this.follows = new HashMap<Character, BitSet>();
+		if (lookAheadType == LookAheadType.FOLLOW)
+			this.generateFollows();
+		this.itemSets = new ArrayList<TreeMap<Integer, BitSet>>();
+		this.gotos = new ArrayList<Map<Character, Integer>>();
+		this.generate();
+		this.automaton = this.toFiniteAutomaton();
+	}
+
+	/**
+	 * Returns the augmented grammar.
+	 *
+	 * @return the augmented grammar.
+	 */
+	public Grammar getGrammar() {
+		return this.grammar;
+	}
+
+	/**
+	 * Returns the look-ahead type.
+	 *
+	 * @return the look-ahead type.
+	 */
+	public LookAheadType getLookAheadType() {
+		return this.lookAheadType;
+	}
+
+	/**
+	 * Returns the deterministic finite automaton of items, whose states are the item sets.
+	 *
+	 * @return the deterministic finite automaton of items.
+	 */
+	public FiniteAutomaton<Item> getAutomaton() {
+		return this.automaton;
+	}
+
+	/**
+	 * Returns the number of item sets.
+	 *
+	 * @return the number of item sets.
+	 */
+	public int size() {
+		return this.itemSets.size();
+	}
+
+	/**
+	 * <p>Computes the First1 set and the nullability of every non terminal symbol, by fixpoint over the productions.<p>
+	 * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg. 4.2.2]<p>
+	 */
+	private void generateFirsts() {
+		for (Character left : this.productionsByLeft.keySet()) {
+			this.firsts.put(left, new BitSet(this.terminals.size()));
+			this.nullables.put(left, false);
+		}
+		boolean loop = true;
+		while (loop) { // until no First1 set grows and no new nullable symbol is found ...
+			loop = false;
+			for (int p = 0; p < this.productions.size(); p ++) {
+				BitSet first = this.firsts.get(this.lefts[p]);
+				int cardinality = first.cardinality();
+				boolean nullable = this.addFirst(this.rights[p], 0, first); // ... add First1(B1...Bk) - {e} to First1(A) ...
+				if (nullable && !this.nullables.get(this.lefts[p])) { // ... and A is nullable if B1...Bk ->* e.
+					this.nullables.put(this.lefts[p], true);
+					loop = true;
+				}
+				loop = (first.cardinality() != cardinality) ? true : loop;
+			}
+		}
+	}
+
+	/**
+	 * Adds to the specified bitmask the First1 set of the specified symbols, from the specified position.
+	 *
+	 * @param symbols the symbols.
+	 * @param from the position of the first symbol.
+	 * @param first the bitmask to add to.
+	 *
+	 * @return true if the symbols from the specified position are nullable; false, otherwise.
+	 */
+	private boolean addFirst(char symbols[], int from, BitSet first) {
+		for (int i = from; i < symbols.length; i ++) {
+			Integer terminal = this.terminals.get(symbols[i]);
+			if (terminal != null) { // First1(a...) = {a}.
+				first.set(terminal);
+				return false;
+			}
+			BitSet symbolFirst = this.firsts.get(symbols[i]);
+			if (symbolFirst == null) // a symbol with no production derives nothing.
+				return false;
+			first.or(symbolFirst);
+			if (!this.nullables.get(symbols[i]))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the First1 set and the nullability of the remainder of every core, after its next symbol.
+	 */
+	private void generateSuffixFirsts() {
+		for (int p = 0; p < this.productions.size(); p ++) {
+			for (int dot = 0; dot < this.rights[p].length; dot ++) {
+				int core = this.offsets[p] + dot;
+				this.suffixFirsts[core] = new BitSet(this.terminals.size());
+				this.suffixNullables[core] = this.addFirst(this.rights[p], dot + 1, this.suffixFirsts[core]);
+			}
+		}
+	}
+
+	/**
+	 * <p>Computes the Follow1 set of every non terminal symbol, by fixpoint over the productions.<p>
+	 * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg. 4.2.4]<p>
+	 */
+	private void generateFollows() {
+		for (Character left : this.productionsByLeft.keySet())
+			this.follows.put(left, new BitSet(this.terminals.size()));
+		this.follows.get(this.getGrammar().getAxiom()).set(this.terminals.get(BigProductionGraph.END_MARKER)); // $ follows the axiom.
+		boolean loop = true;
+		while (loop) { // until no Follow1 set grows ...
+			loop = false;
+			for (int p = 0; p < this.productions.size(); p ++) {
+				for (int dot = 0; dot < this.rights[p].length; dot ++) {
+					BitSet follow = this.follows.get(this.rights[p][dot]);
+					if (follow == null) // terminal symbols have no Follow1 set.
+						continue;
+					int core = this.offsets[p] + dot;
+					int cardinality = follow.cardinality();
+					follow.or(this.suffixFirsts[core]); // ... for every A->aBb, add First1(b) - {e} to Follow1(B) ...
+					if (this.suffixNullables[core]) // ... and Follow1(A) too, if b ->* e.
+						follow.or(this.follows.get(this.lefts[p]));
+					loop = (follow.cardinality() != cardinality) ? true : loop;
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>Generates every item set reachable from the initial one, by closure and goto.<p>
+	 * <p>The algorithm has been derived from [A. Pettorossi "Techniques for Searching, Parsing and Matching (3rd edition)", alg 5.4.1]<p>
+	 */
+	private void generate() {
+		Map<TreeMap<Integer, BitSet>, Integer> kernels = new HashMap<TreeMap<Integer, BitSet>, Integer>();
+		TreeMap<Integer, BitSet> initialKernel = new TreeMap<Integer, BitSet>();
+		Production axiomProduction = this.getGrammar().getProductions().getProductionsLeftContaining(this.getGrammar().getAxiom()).getFirst();
+		BitSet endMarker = new BitSet(this.terminals.size());
+		if (this.getLookAheadType() == LookAheadType.CANONICAL) // LR(0) item sets carry no look-ahead.
+			endMarker.set(this.terminals.get(BigProductionGraph.END_MARKER));
+		initialKernel.put(this.offsets[this.productions.indexOf(axiomProduction)], endMarker); // Initialization Rule
+		kernels.put(initialKernel, 0);
+		this.itemSets.add(this.closure(initialKernel));
+		for (int s = 0; s < this.itemSets.size(); s ++) {
+			Map<Character, TreeMap<Integer, BitSet>> nextKernels = new LinkedHashMap<Character, TreeMap<Integer, BitSet>>();
+			for (Map.Entry<Integer, BitSet> item : this.itemSets.get(s).entrySet()) { // Goto Rule: advance the dot of every item over its next symbol.
+				int core = item.getKey();
+				int p = this.coreProductions[core];
+				int dot = core - this.offsets[p];
+				if (dot == this.rights[p].length)
+					continue;
+				TreeMap<Integer, BitSet> nextKernel = nextKernels.get(this.rights[p][dot]);
+				if (nextKernel == null) {
+					nextKernel = new TreeMap<Integer, BitSet>();
+					nextKernels.put(this.rights[p][dot], nextKernel);
+				}
+				BitSet lookAhead = nextKernel.get(core + 1);
+				if (lookAhead == null)
+					nextKernel.put(core + 1, (BitSet) item.getValue().clone());
+				else
+					lookAhead.or(item.getValue());
+			}
+			Map<Character, Integer> transitions = new LinkedHashMap<Character, Integer>();
+			for (Map.Entry<Character, TreeMap<Integer, BitSet>> entry : nextKernels.entrySet()) {
+				Integer dId = kernels.get(entry.getValue()); // an item set is identified by its kernel.
+				if (dId == null) {
+					dId = this.itemSets.size();
+					kernels.put(entry.getValue(), dId);
+					this.itemSets.add(this.closure(entry.getValue()));
+				}
+				transitions.put(entry.getKey(), dId);
+			}
+			this.gotos.add(transitions);
+		}
+	}
+
+	/**
+	 * <p>Generates the closure of the specified kernel.<p>
+	 * <p>For every item A->a.Bb with look-ahead set L, and every production B->c,
+	 * the item B->.c gets the look-ahead set First1(b), joined with L if b is nullable.
+	 * An item is propagated again whenever its look-ahead set grows.<p>
+	 *
+	 * @param kernel the kernel.
+	 *
+	 * @return the closure of the specified kernel.
+	 */
+	private TreeMap<Integer, BitSet> closure(TreeMap<Integer, BitSet> kernel) {
+		TreeMap<Integer, BitSet> items = new TreeMap<Integer, BitSet>();
+		Deque<Integer> pending = new ArrayDeque<Integer>();
+		for (Map.Entry<Integer, BitSet> item : kernel.entrySet()) {
+			items.put(item.getKey(), (BitSet) item.getValue().clone());
+			pending.add(item.getKey());
+		}
+		while (!pending.isEmpty()) { // Closure Rule
+			int core = pending.poll();
+			int p = this.coreProductions[core];
+			int dot = core - this.offsets[p];
+			if (dot == this.rights[p].length)
+				continue;
+			List<Integer> nextProductions = this.productionsByLeft.get(this.rights[p][dot]);
+			if (nextProductions == null) // the next symbol is a terminal symbol.
+				continue;
+			BitSet lookAheadSet = new BitSet(this.terminals.size());
+			if (this.getLookAheadType() == LookAheadType.CANONICAL) {
+				lookAheadSet.or(this.suffixFirsts[core]);
+				if (this.suffixNullables[core])
+					lookAheadSet.or(items.get(core));
+			}
+			for (Integer nextProduction : nextProductions) {
+				int nextCore = this.offsets[nextProduction];
+				BitSet lookAhead = items.get(nextCore);
+				if (lookAhead == null) {
+					items.put(nextCore, (BitSet) lookAheadSet.clone());
+					pending.add(nextCore);
+				} else if (!isSubset(lookAheadSet, lookAhead)) {
+					lookAhead.or(lookAheadSet);
+					pending.add(nextCore);
+				}
+			}
+		}
+		return items;
+	}
+
+	/**
+	 * Generates the deterministic finite automaton of items, with a state for every item set, by index.
+	 * The state with the complete axiom item is the final state.
+	 *
+	 * @return the deterministic finite automaton of items.
+	 */
+	private FiniteAutomaton<Item> toFiniteAutomaton() {
+		List<State<Item>> states = new ArrayList<State<Item>>();
+		for (int s = 0; s < this.itemSets.size(); s ++) {
+			List<Item> items = new ArrayList<Item>();
+			boolean isFinal = false;
+			for (Map.Entry<Integer, BitSet> entry : this.itemSets.get(s).entrySet()) {
+				int p = this.coreProductions[entry.getKey()];
+				int dot = entry.getKey() - this.offsets[p];
+				Production production = this.productions.get(p);
+				Alphabet lookAhead = this.toAlphabet(this.getLookAhead(p, entry.getValue()));
+				items.add(new Item(production, production.isEpsilonProduction() ? 1 : dot, lookAhead)); // the dot of an epsilon item always follows the epsilon.
+				if (dot == this.rights[p].length && this.lefts[p] == this.getGrammar().getAxiom())
+					isFinal = true;
+			}
+			State<Item> state = new State<Item>(s, items);
+			states.add(state);
+			state.setIsFinal(isFinal);
+		}
+		FiniteAutomaton<Item> automaton = new FiniteAutomaton<Item>(states.get(0));
+		for (State<Item> state : states) {
+			boolean isFinal = state.isFinal();
+			automaton.addState(state);
+			if (isFinal)
+				automaton.addAsFinal(state);
+		}
+		for (int s = 0; s < this.gotos.size(); s ++) {
+			for (Map.Entry<Character, Integer> transition : this.gotos.get(s).entrySet()) {
+				automaton.addSymbol(transition.getKey());
+				automaton.addTransition(states.get(s), states.get(transition.getValue()), transition.getKey());
+			}
+		}
+		return automaton;
+	}
+
+	/**
+	 * Returns the look-ahead set of an item of the specified production, with respect to the look-ahead type.
+	 *
+	 * @param production the production index.
+	 * @param lookAhead the look-ahead set of the item, as generated.
+	 *
+	 * @return the look-ahead set of the item.
+	 */
+	private BitSet getLookAhead(int production, BitSet lookAhead) {
+		switch (this.getLookAheadType()) {
+		case NONE:
+			BitSet all = new BitSet(this.terminals.size());
+			all.set(0, this.terminals.size());
+			return all;
+		case FOLLOW:
+			return this.follows.get(this.lefts[production]);
+		case CANONICAL:
+			return lookAhead;
+		default:
+			throw new AssertionError(this.getLookAheadType());
+		}
+	}
+
+	/**
+	 * Converts the specified bitmask over the interned terminal symbols to an alphabet.
+	 *
+	 * @param symbols the bitmask.
+	 *
+	 * @return the alphabet.
+	 */
+	private Alphabet toAlphabet(BitSet symbols) {
+		Alphabet alphabet = new Alphabet();
+		for (int t = symbols.nextSetBit(0); t >= 0; t = symbols.nextSetBit(t + 1))
+			alphabet.add(this.terminalSymbols[t]);
+		return alphabet;
+	}
+
+	/**
+	 * Checks if the first bitmask is a subset of the second one.
+	 *
+	 * @param subset the candidate subset.
+	 * @param set the set.
+	 *
+	 * @return true if the first bitmask is a subset of the second one; false, otherwise.
+	 */
+	private static boolean isSubset(BitSet subset, BitSet set) {
+		BitSet difference = (BitSet) subset.clone();
+		difference.andNot(set);
+		return difference.isEmpty();
+	}
+
+	@Override public String toString() {
+		return "CanonicalCollection(" + this.getLookAheadType() + ", productions: " + this.productions.size() + ", item sets: " + this.size() + ")";
+	}
+
+}
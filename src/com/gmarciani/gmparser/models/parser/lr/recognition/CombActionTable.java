@@ -0,0 +1,246 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Compressed ACTION/GOTO table of the LR parsers, by comb-vector (row displacement) packing.<p>
+ * <p>The dense table is compressed in three steps:
+ * <ul>
+ * <li>default reductions: the most frequent reduce action of every row becomes the default of the row, 
+ * and is removed from the row;</li>
+ * <li>row deduplication: identical rows (with the same default) are stored once;</li>
+ * <li>row displacement: the remaining actions of every row are stored at {@code base[row] + column} in a shared vector, 
+ * where rows interleave without overlapping, together with the row owning every slot (check).</li>
+ * </ul>
+ * Every lookup reads one check/value pair, and falls back to the default of the row when the check fails, so it stays O(1).<p>
+ * <p>Note that default reductions turn some error entries into reductions: an error is then detected later, 
+ * before the next shift, so the recognized language is unchanged.<p>
+ * <p>A table is never modified after construction, so it can be shared by any number of threads.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.ActionTable
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.PackedActionTable
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class CombActionTable implements ActionTable {
+
+	private final int rows[];
+	private final int columns[];
+	private final int rowIds[];
+	private final int bases[];
+	private final int defaults[];
+	private final int entries[];
+	private final int conflicts;
+
+	/**
+	 * Compresses the specified dense table.
+	 *
+	 * @param dense the dense table.
+	 */
+	public CombActionTable(PackedActionTable dense) {
+		this.rows = dense.getRows();
+		this.columns = dense.getColumns();
+		this.conflicts = dense.getConflictCount();
+		int symbols = dense.getSymbols();
+		int codes[] = dense.getCodes();
+		int states = (symbols == 0) ? 0 : codes.length / symbols;
+
+		this.rowIds = new int[states];
+		List<int[]> uniqueRows = new ArrayList<int[]>(); // every unique row is: default, then (column, action) pairs.
+		Map<Row, Integer> ids = new HashMap<Row, Integer>();
+		for (int r = 0; r < states; r ++) {
+			int row[] = compress(codes, r * symbols, symbols);
+			Row key = new Row(row);
+			Integer id = ids.get(key);
+			if (id == null) {
+				id = uniqueRows.size();
+				ids.put(key, id);
+				uniqueRows.add(row);
+			}
+			this.rowIds[r] = id;
+		}
+
+		this.bases = new int[uniqueRows.size()];
+		this.defaults = new int[uniqueRows.size()];
+		List<Integer> order = new ArrayList<Integer>();
+		for (int u = 0; u < uniqueRows.size(); u ++)
+			order.add(u);
+		final List<int[]> sortable = uniqueRows;
+		Collections.sort(order, new Comparator<Integer>() {
+			@Override public int compare(Integer u1, Integer u2) { // densest rows first, as they are the hardest to fit.
+				return sortable.get(u2).length - sortable.get(u1).length;
+			}
+		});
+
+		int check[] = new int[Math.max(16, symbols)];
+		Arrays.fill(check, -1);
+		int values[] = new int[check.length];
+		int used = 0;
+		for (int u : order) {
+			int row[] = uniqueRows.get(u);
+			this.defaults[u] = row[0];
+			int base = 0;
+			while (!fits(check, row, base))
+				base ++;
+			this.bases[u] = base;
+			for (int i = 1; i < row.length; i += 2) {
+				int slot = base + row[i];
+				if (slot >= check.length) {
+					int capacity = Math.max(slot + 1, check.length * 2);
+					int oldLength = check.length;
+					check = Arrays.copyOf(check, capacity);
+					Arrays.fill(check, oldLength, capacity, -1);
+					values = Arrays.copyOf(values, capacity);
+				}
+				check[slot] = u;
+				values[slot] = row[i + 1];
+				used = Math.max(used, slot + 1);
+			}
+		}
+
+		this.entries = new int[2 * used]; // check/value pairs are interleaved, so that every lookup reads one cache line.
+		for (int slot = 0; slot < used; slot ++) {
+			this.entries[2 * slot] = check[slot];
+			this.entries[2 * slot + 1] = values[slot];
+		}
+	}
+
+	/**
+	 * Compresses a dense row: picks the most frequent reduce action as default, and keeps every other action.
+	 */
+	private static int[] compress(int codes[], int offset, int symbols) {
+		Map<Integer, Integer> reductions = new HashMap<Integer, Integer>();
+		int defaultCode = 0;
+		int defaultCount = 0;
+		for (int c = 0; c < symbols; c ++) {
+			int code = codes[offset + c];
+			if (code == 0 || !PackedActionTable.isType(code, ActionType.REDUCE))
+				continue;
+			Integer count = reductions.get(code);
+			count = (count == null) ? 1 : count + 1;
+			reductions.put(code, count);
+			if (count > defaultCount) {
+				defaultCode = code;
+				defaultCount = count;
+			}
+		}
+		int size = 0;
+		for (int c = 0; c < symbols; c ++)
+			if (codes[offset + c] != 0 && codes[offset + c] != defaultCode)
+				size ++;
+		int row[] = new int[1 + 2 * size];
+		row[0] = defaultCode;
+		for (int c = 0, i = 1; c < symbols; c ++) {
+			if (codes[offset + c] != 0 && codes[offset + c] != defaultCode) {
+				row[i ++] = c;
+				row[i ++] = codes[offset + c];
+			}
+		}
+		return row;
+	}
+
+	private static boolean fits(int check[], int row[], int base) {
+		for (int i = 1; i < row.length; i += 2)
+			if (base + row[i] < check.length && check[base + row[i]] != -1)
+				return false;
+		return true;
+	}
+
+	private int indexOf(int stateId, int symbol) {
+		if (stateId < 0 || stateId >= this.rows.length || symbol < 0 || symbol >= this.columns.length)
+			return -1;
+		int row = this.rows[stateId];
+		int column = this.columns[symbol];
+		if (row == -1 || column == -1)
+			return -1;
+		int u = this.rowIds[row];
+		int slot = this.bases[u] + column;
+		if (2 * slot < this.entries.length && this.entries[2 * slot] == u)
+			return slot;
+		return -2 - u; // the default of the row u.
+	}
+
+	@Override public int getCode(int stateId, int symbol) {
+		int slot = this.indexOf(stateId, symbol);
+		if (slot >= 0)
+			return this.entries[2 * slot + 1];
+		return (slot == -1) ? 0 : this.defaults[-2 - slot];
+	}
+
+	@Override public Action getAction(int stateId, int symbol) {
+		return PackedActionTable.decode(this.getCode(stateId, symbol));
+	}
+
+	@Override public int getConflictCount() {
+		return this.conflicts;
+	}
+
+	@Override public int getSize() {
+		return this.rows.length + this.columns.length + this.rowIds.length + this.bases.length + this.defaults.length + this.entries.length;
+	}
+
+	/**
+	 * Returns the number of unique rows, after deduplication.
+	 *
+	 * @return the number of unique rows.
+	 */
+	public int getUniqueRowCount() {
+		return this.bases.length;
+	}
+
+	@Override public String toString() {
+		return "CombActionTable(" + this.rowIds.length + "->" + this.bases.length + " rows," + (this.entries.length / 2) + " slots)";
+	}
+
+	/**
+	 * A compressed row, compared by content.
+	 */
+	private static final class Row {
+
+		private final int values[];
+
+		private Row(int values[]) {
+			this.values = values;
+		}
+
+		@Override public boolean equals(Object obj) {
+			return (obj instanceof Row) && Arrays.equals(this.values, ((Row) obj).values);
+		}
+
+		@Override public int hashCode() {
+			return Arrays.hashCode(this.values);
+		}
+
+	}
+
+}
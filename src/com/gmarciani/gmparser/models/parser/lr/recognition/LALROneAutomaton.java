@@ -0,0 +1,274 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.gmarciani.gmparser.models.automaton.FiniteAutomaton;
+import com.gmarciani.gmparser.models.automaton.state.State;
+import com.gmarciani.gmparser.models.commons.nple.Pair;
+import com.gmarciani.gmparser.models.commons.nple.Triple;
+import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+
+/**
+ * <p>The LALR(1) automaton of items, derived from the canonical LR(1) automaton of items.<p>
+ * <p>Every canonical state is merged with every other canonical state with the same core,
+ * that is the same set of (production, dot) pairs, and the look-ahead sets of every item are joined.
+ * The merged automaton has as many states as the LR(0) automaton, and it is a well-formed automaton of items,
+ * so that the LR(1) recognition matrix can be derived from it as it is.<p>
+ * <p>Merging never introduces shift/reduce conflicts, but it may introduce reduce/reduce conflicts:
+ * every such conflict is recorded as the (merged state id, look-ahead symbol) pair where it occurs.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.LALROneParser
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class LALROneAutomaton {
+
+	private final FiniteAutomaton<Item> canonical;
+	private final FiniteAutomaton<Item> automaton;
+	private final Map<Integer, Integer> mergedIds;
+	private final List<Pair<Integer, Character>> mergeConflicts;
+
+	/**
+	 * Creates a new LALR(1) automaton of items, by merging the states with the same core of the specified canonical LR(1) automaton of items.
+	 * The specified automaton is not modified.
+	 *
+	 * @param canonical the canonical LR(1) automaton of items.
+	 */
+	public LALROneAutomaton(FiniteAutomaton<Item> canonical) {
+		this.canonical = canonical;
+		this.mergedIds = new HashMap<Integer, Integer>();
+		this.mergeConflicts = new ArrayList<Pair<Integer, Character>>();
+		Map<Set<Item>, List<State<Item>>> groups = this.groupByCore();
+		this.automaton = this.merge(groups);
+		this.findMergeConflicts(groups);
+	}
+
+	/**
+	 * Returns the canonical LR(1) automaton of items.
+	 *
+	 * @return the canonical LR(1) automaton of items.
+	 */
+	public FiniteAutomaton<Item> getCanonical() {
+		return this.canonical;
+	}
+
+	/**
+	 * Returns the merged LALR(1) automaton of items.
+	 *
+	 * @return the merged LALR(1) automaton of items.
+	 */
+	public FiniteAutomaton<Item> getAutomaton() {
+		return this.automaton;
+	}
+
+	/**
+	 * Returns the id of the merged state the specified canonical state has been merged into.
+	 *
+	 * @param canonicalId the canonical state id.
+	 *
+	 * @return the id of the merged state; null, if there is no such canonical state.
+	 */
+	public Integer getMergedId(Integer canonicalId) {
+		return this.mergedIds.get(canonicalId);
+	}
+
+	/**
+	 * Returns the number of canonical states merged away.
+	 *
+	 * @return the number of canonical states merged away.
+	 */
+	public int getMergedStateCount() {
+		return this.getCanonical().getStates().size() - this.getAutomaton().getStates().size();
+	}
+
+	/**
+	 * Returns the reduce/reduce conflicts introduced by merging,
+	 * as (merged state id, look-ahead symbol) pairs, sorted by state id.
+	 * Conflicts already present in the canonical automaton are not reported.
+	 *
+	 * @return the reduce/reduce conflicts introduced by merging.
+	 */
+	public List<Pair<Integer, Character>> getMergeConflicts() {
+		return this.mergeConflicts;
+	}
+
+	/**
+	 * Checks if merging introduced any reduce/reduce conflict.
+	 *
+	 * @return true if merging introduced at least one reduce/reduce conflict; false, otherwise.
+	 */
+	public boolean hasMergeConflicts() {
+		return !this.getMergeConflicts().isEmpty();
+	}
+
+	/**
+	 * Groups the canonical states by core, in canonical state order, so that the initial state is always in the first group.
+	 *
+	 * @return the canonical states grouped by core.
+	 */
+	private Map<Set<Item>, List<State<Item>>> groupByCore() {
+		Map<Set<Item>, List<State<Item>>> groups = new LinkedHashMap<Set<Item>, List<State<Item>>>();
+		List<State<Item>> states = new ArrayList<State<Item>>(this.getCanonical().getStates());
+		states.remove(this.getCanonical().getInitial());
+		states.add(0, this.getCanonical().getInitial());
+		for (State<Item> state : states) {
+			Set<Item> core = getCore(state);
+			List<State<Item>> group = groups.get(core);
+			if (group == null) {
+				group = new ArrayList<State<Item>>();
+				groups.put(core, group);
+			}
+			group.add(state);
+		}
+		return groups;
+	}
+
+	/**
+	 * Generates the merged automaton: a state for every group of canonical states,
+	 * with the look-ahead sets of the items with the same core joined, and the transitions of the canonical states renamed.
+	 *
+	 * @param groups the canonical states grouped by core.
+	 *
+	 * @return the merged automaton.
+	 */
+	private FiniteAutomaton<Item> merge(Map<Set<Item>, List<State<Item>>> groups) {
+		List<State<Item>> mergedStates = new ArrayList<State<Item>>();
+		for (List<State<Item>> group : groups.values()) {
+			Integer mergedId = mergedStates.size();
+			Map<Item, Alphabet> lookAheads = new LinkedHashMap<Item, Alphabet>();
+			for (State<Item> state : group) {
+				this.mergedIds.put(state.getId(), mergedId);
+				for (Item item : state.getValue()) {
+					Item core = new Item(item.getProduction(), item.getDot());
+					Alphabet lookAhead = lookAheads.get(core);
+					if (lookAhead == null) {
+						lookAhead = new Alphabet();
+						lookAheads.put(core, lookAhead);
+					}
+					lookAhead.addAll(item.getLookAhead()); // joins the look-ahead sets of the items with the same core.
+				}
+			}
+			List<Item> items = new ArrayList<Item>();
+			for (Map.Entry<Item, Alphabet> entry : lookAheads.entrySet())
+				items.add(new Item(entry.getKey().getProduction(), entry.getKey().getDot(), entry.getValue()));
+			mergedStates.add(new State<Item>(mergedId, items));
+		}
+		FiniteAutomaton<Item> merged = new FiniteAutomaton<Item>(mergedStates.get(0)); // the initial state is always in the first group.
+		for (State<Item> mergedState : mergedStates)
+			merged.addState(mergedState);
+		for (State<Item> state : this.getCanonical().getFinals())
+			merged.addAsFinal(mergedStates.get(this.getMergedId(state.getId())));
+		for (Character symbol : this.getCanonical().getAlphabet())
+			merged.addSymbol(symbol);
+		for (Triple<State<Item>, Character, State<Item>> transition : this.getCanonical().getAllTransitions()) {
+			State<Item> sState = mergedStates.get(this.getMergedId(transition.getX().getId()));
+			State<Item> dState = mergedStates.get(this.getMergedId(transition.getZ().getId()));
+			if (merged.getTransition(sState, transition.getY()) == null) // states with the same core have transitions to states with the same core.
+				merged.addTransition(sState, dState, transition.getY());
+		}
+		return merged;
+	}
+
+	/**
+	 * Finds the reduce/reduce conflicts of the merged automaton not present in any of the canonical states merged.
+	 *
+	 * @param groups the canonical states grouped by core.
+	 */
+	private void findMergeConflicts(Map<Set<Item>, List<State<Item>>> groups) {
+		for (int id = 0; id < this.getAutomaton().getStates().size(); id ++) {
+			State<Item> mergedState = this.getAutomaton().getStates().getState(id);
+			if (this.getAutomaton().isFinal(mergedState)) // the final state accepts, and never reduces.
+				continue;
+			Map<Character, Set<Production>> mergedReductions = getReductions(mergedState);
+			for (Map.Entry<Character, Set<Production>> entry : mergedReductions.entrySet()) {
+				if (entry.getValue().size() < 2)
+					continue;
+				boolean inherited = false; // a conflict is inherited if a canonical state already had it.
+				for (State<Item> state : groups.get(getCore(mergedState))) {
+					Set<Production> reductions = getReductions(state).get(entry.getKey());
+					if (reductions != null && reductions.size() >= 2)
+						inherited = true;
+				}
+				if (!inherited)
+					this.mergeConflicts.add(new Pair<Integer, Character>(mergedState.getId(), entry.getKey()));
+			}
+		}
+	}
+
+	/**
+	 * Returns the core of the specified state, that is the set of items without look-ahead sets.
+	 *
+	 * @param state the state.
+	 *
+	 * @return the core of the specified state.
+	 */
+	private static Set<Item> getCore(State<Item> state) {
+		Set<Item> core = new HashSet<Item>();
+		for (Item item : state.getValue())
+			core.add(new Item(item.getProduction(), item.getDot()));
+		return core;
+	}
+
+	/**
+	 * Returns the productions reduced by the specified state, by look-ahead symbol.
+	 *
+	 * @param state the state.
+	 *
+	 * @return the productions reduced by the specified state, by look-ahead symbol.
+	 */
+	private static Map<Character, Set<Production>> getReductions(State<Item> state) {
+		Map<Character, Set<Production>> reductions = new HashMap<Character, Set<Production>>();
+		for (Item item : state.getValue()) {
+			if (!item.isComplete())
+				continue;
+			for (Character symbol : item.getLookAhead()) {
+				Set<Production> productions = reductions.get(symbol);
+				if (productions == null) {
+					productions = new HashSet<Production>();
+					reductions.put(symbol, productions);
+				}
+				productions.add(item.getProduction());
+			}
+		}
+		return reductions;
+	}
+
+	@Override public String toString() {
+		return "LALROneAutomaton(states: " + this.getAutomaton().getStates().size() +
+				", merged: " + this.getMergedStateCount() +
+				", merge conflicts: " + this.getMergeConflicts() + ")";
+	}
+
+}
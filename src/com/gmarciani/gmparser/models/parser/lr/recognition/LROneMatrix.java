@@ -37,21 +37,22 @@ import com.gmarciani.gmparser.models.grammar.production.Production;
 
 /**
  * <p>The recognition matrix for the LR(1) parser.<p>
+ * <p>Once generated, the matrix is packed into a dense primitive ACTION/GOTO table, 
+ * so that every action lookup is O(1) and allocation-free;
+ * the object view is kept for rendering only.<p>
  * 
  * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.PackedActionTable
  * 
  * @author Giacomo Marciani
  * @version 1.0
  */
-/**
- * @author giacomo
- *
- */
 public final class LROneMatrix extends NonDeterministicFunction<Integer, Character, Action> {
 	
 	private final Grammar grammar;
 	private final FiniteAutomaton<Item> automaton;
 	private final List<Production> productions;
+	private final PackedActionTable packedActions;
 
 	/**
 	 * Creates a new LR(1) recognition matrix based on the specified grammar and finite automaton.
@@ -68,6 +69,7 @@ public final class LROneMatrix extends NonDeterministicFunction<Integer, Charact
 		for (Production production : this.getGrammar().getProductions())
 			this.getProductions().add(production);
 		this.generate();
+		this.packedActions = new PackedActionTable(this);
 	}
 	
 	/**
@@ -97,6 +99,15 @@ public final class LROneMatrix extends NonDeterministicFunction<Integer, Charact
 		return this.productions;
 	}
 		
+	/**
+	 * Returns the dense primitive ACTION/GOTO table packed from the LR(1) recognition matrix, once generated.
+	 * 
+	 * @return the dense primitive ACTION/GOTO table.
+	 */
+	public PackedActionTable getPackedActions() {
+		return this.packedActions;
+	}
+		
 	/**
 	 * Generates the LR(1) recognition matrix.
 	 */
@@ -143,12 +154,12 @@ public final class LROneMatrix extends NonDeterministicFunction<Integer, Charact
 	 * @param stateId the state id.
 	 * @param symbol the symbol.
 	 * 
-	 * @return the action stored in correspondence of the specified state id and symbol. 
+	 * @return the action stored in correspondence of the specified state id and symbol; null, if there is none.
 	 */
 	public Action getAction(Integer stateId, Character symbol) {
-		if (!super.containsXY(stateId, symbol))
+		if (stateId == null || symbol == null)
 			return null;
-		return super.getAllForXY(stateId, symbol).getFirst().getZ();
+		return this.getPackedActions().getAction(stateId, symbol);
 	}
 	
 	public String toExtendedFormattedMatrix() {
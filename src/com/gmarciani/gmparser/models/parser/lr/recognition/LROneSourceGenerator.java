@@ -0,0 +1,300 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+import javax.lang.model.SourceVersion;
+
+import com.gmarciani.gmparser.models.grammar.production.Production;
+
+/**
+ * <p>The generator of specialized LR(1) parser classes.<p>
+ * <p>A generated class is a self-contained Java source, with no dependency on GMParser:
+ * the dense ACTION/GOTO table of the recognition matrix, as defined by {@link PackedActionTable},
+ * is stored into static int arrays, and the driver of {@link com.gmarciani.gmparser.models.parser.lr.LROneParser}
+ * is inlined over a primitive state stack, so that no object is created per token.<p>
+ * <p>The tables are emitted as string literals of at most {@code CHUNK_SIZE} chars, two chars per int, and unpacked once at class initialization,
+ * so that neither the constant pool nor the class initializer overflows, whatever the size of the table.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.PackedActionTable
+ * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class LROneSourceGenerator {
+
+	/**
+	 * The maximum number of chars of every string literal, so that every literal fits the constant pool.
+	 */
+	public static final int CHUNK_SIZE = 16384;
+
+	private static final String INDENT = "\t";
+
+	private LROneSourceGenerator() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Generates the Java source of the specialized parser class of the specified LR(1) recognition matrix.
+	 *
+	 * @param recognitionMatrix the LR(1) recognition matrix.
+	 * @param className the fully qualified name of the class to generate; a simple name, for the default package.
+	 *
+	 * @return the Java source of the specialized parser class.
+	 *
+	 * @throws IllegalArgumentException if the class name is not a valid qualified name, or the recognition matrix has conflicts.
+	 */
+	public static String generate(LROneMatrix recognitionMatrix, String className) {
+		if (className == null || !SourceVersion.isName(className))
+			throw new IllegalArgumentException("Not a valid class name: " + className);
+		PackedActionTable actions = recognitionMatrix.getPackedActions();
+		if (actions.getConflictCount() != 0)
+			throw new IllegalArgumentException("Cannot generate a parser from a table with " + actions.getConflictCount() + " conflicts");
+		int dot = className.lastIndexOf('.');
+		String packageName = (dot == -1) ? null : className.substring(0, dot);
+		String simpleName = className.substring(dot + 1);
+		List<Production> productions = recognitionMatrix.getProductions();
+		StringBuilder lefts = new StringBuilder();
+		StringBuilder lengths = new StringBuilder();
+		for (Production production : productions) {
+			lefts.append(production.getLeft().getValueAsChars()[0]);
+			lengths.append((char) (production.isEpsilonProduction() ? 0 : production.getRight().getValueAsChars().length)); // an epsilon production pops no state.
+		}
+
+		StringBuilder source = new StringBuilder();
+		if (packageName != null)
+			source.append("package ").append(packageName).append(";\n\n");
+		source.append("/**\n");
+		source.append(" * <p>LR(1) parser generated by GMParser: do not edit.<p>\n");
+		source.append(" * <p>Grammar: ").append(escapeComment(recognitionMatrix.getGrammar().toString())).append("<p>\n");
+		source.append(" * <p>States: ").append(actions.getCodes().length / Math.max(1, actions.getSymbols()))
+			.append(", symbols: ").append(actions.getSymbols())
+			.append(", productions: ").append(productions.size()).append(".<p>\n");
+		source.append(" */\n");
+		source.append("public final class ").append(simpleName).append(" {\n\n");
+		appendConstant(source, "SHIFT", ActionType.SHIFT.ordinal() + 1);
+		appendConstant(source, "REDUCE", ActionType.REDUCE.ordinal() + 1);
+		appendConstant(source, "GOTO", ActionType.GOTO.ordinal() + 1);
+		appendConstant(source, "ACCEPT", ActionType.ACCEPT.ordinal() + 1);
+		appendConstant(source, "VALUE_BITS", PackedActionTable.VALUE_BITS);
+		appendConstant(source, "VALUE_MASK", (1 << PackedActionTable.VALUE_BITS) - 1);
+		appendConstant(source, "END_MARKER", '$');
+		appendConstant(source, "INITIAL_STATE", recognitionMatrix.getAutomaton().getInitial().getId());
+		appendConstant(source, "SYMBOLS", actions.getSymbols());
+		source.append("\n");
+		appendInts(source, "ROWS", actions.getRows());
+		appendInts(source, "COLUMNS", actions.getColumns());
+		appendInts(source, "CODES", actions.getCodes());
+		appendChars(source, "LEFTS", lefts);
+		appendChars(source, "LENGTHS", lengths);
+		source.append("\n");
+		source.append(INDENT).append("private ").append(simpleName).append("() {\n");
+		source.append(INDENT).append(INDENT).append("throw new AssertionError();\n");
+		source.append(INDENT).append("}\n\n");
+		source.append(DRIVER);
+		source.append("}\n");
+		return source.toString();
+	}
+
+	/**
+	 * Generates the Java source of the specialized parser class of the specified LR(1) recognition matrix, into the specified file, as UTF-8.
+	 * The file is created, or overwritten if it exists.
+	 *
+	 * @param recognitionMatrix the LR(1) recognition matrix.
+	 * @param className the fully qualified name of the class to generate; a simple name, for the default package.
+	 * @param file the file to write.
+	 *
+	 * @throws IOException if the file cannot be written.
+	 * @throws IllegalArgumentException if the class name is not a valid qualified name, or the recognition matrix has conflicts.
+	 */
+	public static void write(LROneMatrix recognitionMatrix, String className, File file) throws IOException {
+		String source = generate(recognitionMatrix, className);
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			out.write(source);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void appendConstant(StringBuilder source, String name, int value) {
+		source.append(INDENT).append("private static final int ").append(name).append(" = ").append(value).append(";\n");
+	}
+
+	private static void appendInts(StringBuilder source, String name, int values[]) {
+		StringBuilder chars = new StringBuilder(values.length * 2);
+		for (int value : values)
+			chars.append((char) (value >>> 16)).append((char) value); // every int as its high and low chars.
+		source.append(INDENT).append("private static final int ").append(name).append("[] = unpack(");
+		appendLiterals(source, chars);
+		source.append(");\n");
+	}
+
+	private static void appendChars(StringBuilder source, String name, CharSequence chars) {
+		source.append(INDENT).append("private static final String ").append(name).append(" = join(");
+		appendLiterals(source, chars);
+		source.append(");\n");
+	}
+
+	private static void appendLiterals(StringBuilder source, CharSequence chars) {
+		if (chars.length() == 0)
+			source.append("\"\"");
+		for (int from = 0; from < chars.length(); from += CHUNK_SIZE) {
+			if (from != 0)
+				source.append(",\n").append(INDENT).append(INDENT); // separate arguments, so that the compiler never folds them into a single constant.
+			source.append('"');
+			for (int i = from; i < Math.min(chars.length(), from + CHUNK_SIZE); i ++)
+				appendEscaped(source, chars.charAt(i));
+			source.append('"');
+		}
+	}
+
+	private static void appendEscaped(StringBuilder source, char c) {
+		if (c == '"' || c == '\\')
+			source.append('\\').append(c);
+		else if (c == '\n') // a unicode escape of a line terminator would end the literal.
+			source.append("\\n");
+		else if (c == '\r')
+			source.append("\\r");
+		else if (c >= 0x20 && c < 0x7F)
+			source.append(c);
+		else
+			source.append(String.format("\\u%04x", (int) c));
+	}
+
+	private static String escapeComment(String text) {
+		StringBuilder escaped = new StringBuilder();
+		for (int i = 0; i < text.length(); i ++) {
+			char c = text.charAt(i);
+			if (c == '*' && i + 1 < text.length() && text.charAt(i + 1) == '/')
+				escaped.append("*&#47;"); // never closes the comment.
+			else if (c == '\\')
+				escaped.append("&#92;"); // never starts a unicode escape.
+			else if (c < 0x20 || c >= 0x7F)
+				escaped.append("&#").append((int) c).append(';');
+			else
+				escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * The driver of every generated class, the same of {@link com.gmarciani.gmparser.models.parser.lr.LROneParser}.
+	 */
+	private static final String DRIVER =
+			"\t/**\n" +
+			"\t * Checks if the specified word is accepted.\n" +
+			"\t *\n" +
+			"\t * @param word the word to parse.\n" +
+			"\t *\n" +
+			"\t * @return true if the specified word is accepted; false, otherwise.\n" +
+			"\t */\n" +
+			"\tpublic static boolean parse(CharSequence word) {\n" +
+			"\t\treturn parse(word, null, 0, word.length());\n" +
+			"\t}\n" +
+			"\n" +
+			"\t/**\n" +
+			"\t * Checks if the specified tokens are accepted.\n" +
+			"\t *\n" +
+			"\t * @param tokens the tokens to parse, every terminal symbol as its char value.\n" +
+			"\t * @param offset the index of the first token to parse.\n" +
+			"\t * @param length the number of tokens to parse.\n" +
+			"\t *\n" +
+			"\t * @return true if the specified tokens are accepted; false, otherwise.\n" +
+			"\t */\n" +
+			"\tpublic static boolean parse(int tokens[], int offset, int length) {\n" +
+			"\t\tif (offset < 0 || length < 0 || offset + length > tokens.length)\n" +
+			"\t\t\tthrow new IndexOutOfBoundsException();\n" +
+			"\t\treturn parse(null, tokens, offset, length);\n" +
+			"\t}\n" +
+			"\n" +
+			"\tprivate static boolean parse(CharSequence word, int tokens[], int offset, int length) {\n" +
+			"\t\tint inputTape = 0;\n" +
+			"\t\tint stack[] = new int[64];\n" +
+			"\t\tint top = 0;\n" +
+			"\t\tstack[top] = INITIAL_STATE;\n" +
+			"\t\twhile(true) {\n" +
+			"\t\t\tint token = (inputTape == length) ? END_MARKER : (word != null) ? word.charAt(inputTape) : tokens[offset + inputTape];\n" +
+			"\t\t\tif (token < Character.MIN_VALUE || token > Character.MAX_VALUE)\n" +
+			"\t\t\t\treturn false;\n" +
+			"\t\t\tint action = getActionCode(stack[top], token);\n" +
+			"\t\t\tint type = action >>> VALUE_BITS;\n" +
+			"\t\t\tif (type == ACCEPT) {\n" +
+			"\t\t\t\treturn true;\n" +
+			"\t\t\t} else if (type == SHIFT || type == GOTO) {\n" +
+			"\t\t\t\tif (++ top == stack.length)\n" +
+			"\t\t\t\t\tstack = java.util.Arrays.copyOf(stack, stack.length << 1);\n" +
+			"\t\t\t\tstack[top] = (action & VALUE_MASK) - 1;\n" +
+			"\t\t\t\tif (type == SHIFT)\n" +
+			"\t\t\t\t\tinputTape ++;\n" +
+			"\t\t\t} else if (type == REDUCE) {\n" +
+			"\t\t\t\tint production = (action & VALUE_MASK) - 1;\n" +
+			"\t\t\t\ttop -= LENGTHS.charAt(production);\n" +
+			"\t\t\t\tif (top < 0)\n" +
+			"\t\t\t\t\treturn false;\n" +
+			"\t\t\t\taction = getActionCode(stack[top], LEFTS.charAt(production));\n" +
+			"\t\t\t\tif ((action >>> VALUE_BITS) != GOTO)\n" +
+			"\t\t\t\t\treturn false;\n" +
+			"\t\t\t\tif (++ top == stack.length)\n" +
+			"\t\t\t\t\tstack = java.util.Arrays.copyOf(stack, stack.length << 1);\n" +
+			"\t\t\t\tstack[top] = (action & VALUE_MASK) - 1;\n" +
+			"\t\t\t} else {\n" +
+			"\t\t\t\treturn false;\n" +
+			"\t\t\t}\n" +
+			"\t\t}\n" +
+			"\t}\n" +
+			"\n" +
+			"\tprivate static int getActionCode(int state, int symbol) {\n" +
+			"\t\tif (state < 0 || state >= ROWS.length || symbol >= COLUMNS.length)\n" +
+			"\t\t\treturn 0;\n" +
+			"\t\tint row = ROWS[state];\n" +
+			"\t\tint column = COLUMNS[symbol];\n" +
+			"\t\treturn (row == -1 || column == -1) ? 0 : CODES[row * SYMBOLS + column];\n" +
+			"\t}\n" +
+			"\n" +
+			"\tprivate static int[] unpack(String... chunks) {\n" +
+			"\t\tString chars = join(chunks);\n" +
+			"\t\tint values[] = new int[chars.length() / 2];\n" +
+			"\t\tfor (int i = 0; i < values.length; i ++)\n" +
+			"\t\t\tvalues[i] = (chars.charAt(2 * i) << 16) | chars.charAt(2 * i + 1);\n" +
+			"\t\treturn values;\n" +
+			"\t}\n" +
+			"\n" +
+			"\tprivate static String join(String... chunks) {\n" +
+			"\t\tStringBuilder chars = new StringBuilder();\n" +
+			"\t\tfor (String chunk : chunks)\n" +
+			"\t\t\tchars.append(chunk);\n" +
+			"\t\treturn chars.toString();\n" +
+			"\t}\n" +
+			"\n";
+
+}
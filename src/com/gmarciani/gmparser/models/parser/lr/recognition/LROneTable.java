@@ -0,0 +1,209 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.gmarciani.gmparser.models.grammar.production.Production;
+
+/**
+ * <p>The immutable LR(1) parse table, compiled once from the LR(1) recognition matrix.<p>
+ * <p>Actions are packed into a dense primitive ACTION/GOTO table, and productions are split into their left symbol and right symbols, 
+ * so that the driver never scans the recognition matrix, nor splits a production, while parsing.
+ * Conflicts are checked once, at construction: if a state has more than one action for the same symbol, 
+ * the table is not LR(1), and only the first action is kept.<p>
+ * <p>A table is never modified after construction, so it can be shared by any number of threads.<p>
+ * 
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.ActionTable
+ * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class LROneTable {
+	
+	private final ActionTable actions;
+	private final List<Production> productions;
+	private final char lefts[];
+	private final char rights[][];
+	private final int initialState;
+
+	/**
+	 * Compiles the LR(1) parse table of the specified LR(1) recognition matrix.
+	 * 
+	 * @param recognitionMatrix the LR(1) recognition matrix.
+	 */
+	public LROneTable(LROneMatrix recognitionMatrix) {
+		this(recognitionMatrix, false);
+	}
+
+	/**
+	 * Compiles the LR(1) parse table of the specified LR(1) recognition matrix, 
+	 * optionally compressing its actions by default reductions, row deduplication and row displacement.
+	 * 
+	 * @param recognitionMatrix the LR(1) recognition matrix.
+	 * @param compressed true to compress the actions; false, to keep the dense actions.
+	 * 
+	 * @see com.gmarciani.gmparser.models.parser.lr.recognition.CombActionTable
+	 */
+	public LROneTable(LROneMatrix recognitionMatrix, boolean compressed) {
+		this(compressed ? new CombActionTable(recognitionMatrix.getPackedActions()) : recognitionMatrix.getPackedActions(), 
+				recognitionMatrix.getProductions(), 
+				recognitionMatrix.getAutomaton().getInitial().getId());
+	}
+	
+	/**
+	 * Creates the LR(1) parse table with the specified actions, productions and initial state.
+	 * 
+	 * @param actions the ACTION/GOTO table.
+	 * @param productions the productions mapping, indexed by the values of the reduce actions.
+	 * @param initialState the initial state id.
+	 * 
+	 * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneTableFile
+	 */
+	LROneTable(ActionTable actions, List<Production> productions, int initialState) {
+		this.actions = actions;
+		this.productions = Collections.unmodifiableList(new ArrayList<Production>(productions));
+		this.lefts = new char[this.productions.size()];
+		this.rights = new char[this.productions.size()][];
+		for (int p = 0; p < this.productions.size(); p ++) {
+			this.lefts[p] = this.productions.get(p).getLeft().getValueAsChars()[0];
+			this.rights[p] = this.productions.get(p).isEpsilonProduction() ? new char[0] : this.productions.get(p).getRight().getValueAsChars(); // an epsilon production has no right symbol to pop.
+		}
+		this.initialState = initialState;
+	}
+	
+	/**
+	 * Returns the ACTION/GOTO table.
+	 * 
+	 * @return the ACTION/GOTO table.
+	 */
+	public ActionTable getActions() {
+		return this.actions;
+	}
+	
+	/**
+	 * Returns the initial state id.
+	 * 
+	 * @return the initial state id.
+	 */
+	public int getInitialState() {
+		return this.initialState;
+	}
+	
+	/**
+	 * Returns the action stored in correspondence of the specified state id and symbol. 
+	 * 
+	 * @param stateId the state id.
+	 * @param symbol the symbol.
+	 * 
+	 * @return the action stored in correspondence of the specified state id and symbol; null, if there is none.
+	 */
+	public Action getAction(int stateId, char symbol) {
+		return this.actions.getAction(stateId, symbol);
+	}
+	
+	/**
+	 * Returns the packed action stored in correspondence of the specified state id and symbol. 
+	 * 
+	 * @param stateId the state id.
+	 * @param symbol the symbol.
+	 * 
+	 * @return the packed action stored in correspondence of the specified state id and symbol; 0, if there is none.
+	 * 
+	 * @see com.gmarciani.gmparser.models.parser.lr.recognition.ActionTable
+	 */
+	public int getActionCode(int stateId, int symbol) {
+		return this.actions.getCode(stateId, symbol);
+	}
+	
+	/**
+	 * Returns the productions mapping, indexed by the values of the reduce actions.
+	 * 
+	 * @return the unmodifiable productions mapping.
+	 */
+	public List<Production> getProductions() {
+		return this.productions;
+	}
+	
+	/**
+	 * Returns the left symbol of the specified production.
+	 * 
+	 * @param production the production index.
+	 * 
+	 * @return the left symbol of the specified production.
+	 */
+	public char getProductionLeft(int production) {
+		return this.lefts[production];
+	}
+	
+	/**
+	 * Returns the number of right symbols of the specified production, that is the number of states popped by its reduction.
+	 * 
+	 * @param production the production index.
+	 * 
+	 * @return the number of right symbols of the specified production; 0, for an epsilon production.
+	 */
+	public int getProductionLength(int production) {
+		return this.rights[production].length;
+	}
+	
+	/**
+	 * Returns the i-th right symbol of the specified production.
+	 * 
+	 * @param production the production index.
+	 * @param i the index of the right symbol, from 0.
+	 * 
+	 * @return the i-th right symbol of the specified production.
+	 */
+	public char getProductionRight(int production, int i) {
+		return this.rights[production][i];
+	}
+	
+	/**
+	 * Returns the number of state/symbol pairs with more than one action.
+	 * 
+	 * @return the number of state/symbol pairs with more than one action.
+	 */
+	public int getConflictCount() {
+		return this.actions.getConflictCount();
+	}
+	
+	/**
+	 * Checks if the table has no conflicts, that is if it has been derived from a LR(1) grammar.
+	 * 
+	 * @return true if the table has no conflicts; false, otherwise.
+	 */
+	public boolean isLROne() {
+		return this.getConflictCount() == 0;
+	}
+	
+	@Override public String toString() {
+		return "LROneTable(" + this.actions + "," + this.productions + ")";
+	}
+
+}
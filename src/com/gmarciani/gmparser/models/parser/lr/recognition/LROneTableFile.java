@@ -0,0 +1,231 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.production.Member;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+
+/**
+ * <p>The versioned binary file format of the compiled LR(1) parse tables.<p>
+ * <p>A table file is big-endian, and it is made of:
+ * a header of {@code HEADER_INTS} ints (magic number, version, grammar fingerprint, initial state id, conflicts count, and sections lengths);
+ * the rows, columns and packed actions of the dense ACTION/GOTO table, as defined by {@link PackedActionTable};
+ * the offset of every production into the productions chars;
+ * the productions chars, every production as its left symbol followed by its right symbols.<p>
+ * <p>A table file is loaded through a read-only {@link MappedByteBuffer}: the ACTION/GOTO table is read in place,
+ * so that no object is created per entry, and only the productions are rebuilt.
+ * The grammar fingerprint is checked at load, so that a table compiled from another grammar is rejected.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.MappedActionTable
+ * @see com.gmarciani.gmparser.models.parser.lr.LROneParser
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class LROneTableFile {
+
+	/**
+	 * The magic number of every table file: "GMLR".
+	 */
+	public static final int MAGIC = 0x474D4C52;
+
+	/**
+	 * The version of the table file format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The number of ints of the header.
+	 */
+	public static final int HEADER_INTS = 12;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private LROneTableFile() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * <p>Computes the fingerprint of the specified grammar.<p>
+	 * <p>The fingerprint is the 64-bit FNV-1a hash of the axiom, of the sorted terminal and non terminal symbols, and of the sorted productions,
+	 * so that it does not depend on the order the grammar has been defined in.<p>
+	 *
+	 * @param grammar the grammar.
+	 *
+	 * @return the fingerprint of the specified grammar.
+	 */
+	public static long getFingerprint(Grammar grammar) {
+		StringBuilder canonical = new StringBuilder();
+		canonical.append(grammar.getAxiom()).append(';');
+		for (Character terminal : new TreeSet<Character>(grammar.getTerminals()))
+			canonical.append(terminal);
+		canonical.append(';');
+		for (Character nonTerminal : new TreeSet<Character>(grammar.getNonTerminals()))
+			canonical.append(nonTerminal);
+		canonical.append(';');
+		TreeSet<String> productions = new TreeSet<String>();
+		for (Production production : grammar.getProductions())
+			productions.add(production.toString());
+		for (String production : productions)
+			canonical.append(production).append(';');
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < canonical.length(); i ++) {
+			char c = canonical.charAt(i);
+			hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+			hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Writes the parse table of the specified LR(1) recognition matrix to the specified file,
+	 * with the fingerprint of the grammar of the matrix.
+	 * The file is created, or overwritten if it exists.
+	 *
+	 * @param recognitionMatrix the LR(1) recognition matrix.
+	 * @param file the file to write.
+	 *
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void write(LROneMatrix recognitionMatrix, File file) throws IOException {
+		PackedActionTable actions = recognitionMatrix.getPackedActions();
+		List<Production> productions = recognitionMatrix.getProductions();
+		int offsets[] = new int[productions.size() + 1];
+		StringBuilder chars = new StringBuilder();
+		for (int p = 0; p < productions.size(); p ++) {
+			chars.append(productions.get(p).getLeft().getValue()).append(productions.get(p).getRight().getValue());
+			offsets[p + 1] = chars.length();
+		}
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(getFingerprint(recognitionMatrix.getGrammar()));
+			out.writeInt(recognitionMatrix.getAutomaton().getInitial().getId());
+			out.writeInt(actions.getConflictCount());
+			out.writeInt(actions.getRows().length);
+			out.writeInt(actions.getColumns().length);
+			out.writeInt(actions.getSymbols());
+			out.writeInt(actions.getCodes().length);
+			out.writeInt(productions.size());
+			out.writeInt(chars.length());
+			writeInts(out, actions.getRows());
+			writeInts(out, actions.getColumns());
+			writeInts(out, actions.getCodes());
+			writeInts(out, offsets);
+			out.writeChars(chars.toString());
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Loads the parse table stored in the specified file, checking that it has been compiled from the specified grammar.
+	 *
+	 * @param file the file to load.
+	 * @param grammar the augmented grammar the table is expected to be compiled from.
+	 *
+	 * @return the parse table stored in the specified file.
+	 *
+	 * @throws IOException if the file cannot be read, is not a table file of the supported version, or has been compiled from another grammar.
+	 */
+	public static LROneTable load(File file, Grammar grammar) throws IOException {
+		MappedByteBuffer buffer;
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length()); // the mapping outlives the channel.
+		} finally {
+			raf.close();
+		}
+		if (buffer.limit() < HEADER_INTS * 4 || buffer.getInt(0) != MAGIC)
+			throw new IOException("Not a LR table file: " + file);
+		if (buffer.getInt(4) != VERSION)
+			throw new IOException("Unsupported LR table file version " + buffer.getInt(4) + ", expected " + VERSION + ": " + file);
+		if (buffer.getLong(8) != getFingerprint(grammar))
+			throw new IOException("Stale LR table file, compiled from another grammar: " + file);
+		int initialState = buffer.getInt(16);
+		int conflicts = buffer.getInt(20);
+		int rowsLength = buffer.getInt(24);
+		int columnsLength = buffer.getInt(28);
+		int symbols = buffer.getInt(32);
+		int codesLength = buffer.getInt(36);
+		int productionsCount = buffer.getInt(40);
+		int charsLength = buffer.getInt(44);
+		long expected = 4L * (HEADER_INTS + rowsLength + columnsLength + codesLength + productionsCount + 1) + 2L * charsLength;
+		if (rowsLength < 0 || columnsLength < 0 || codesLength < 0 || productionsCount < 0 || charsLength < 0 || expected != buffer.limit())
+			throw new IOException("Truncated LR table file: " + file);
+		int position = HEADER_INTS * 4;
+		IntBuffer rows = getInts(buffer, position, rowsLength);
+		position += rowsLength * 4;
+		IntBuffer columns = getInts(buffer, position, columnsLength);
+		position += columnsLength * 4;
+		IntBuffer codes = getInts(buffer, position, codesLength);
+		position += codesLength * 4;
+		IntBuffer offsets = getInts(buffer, position, productionsCount + 1);
+		position += (productionsCount + 1) * 4;
+		CharBuffer chars = slice(buffer, position, charsLength * 2).asCharBuffer();
+		List<Production> productions = new ArrayList<Production>(productionsCount);
+		for (int p = 0; p < productionsCount; p ++) {
+			int from = offsets.get(p);
+			int to = offsets.get(p + 1);
+			productions.add(new Production(new Member(chars.get(from)), new Member(chars.subSequence(from + 1, to).toString())));
+		}
+		return new LROneTable(new MappedActionTable(rows, columns, symbols, codes, conflicts), productions, initialState);
+	}
+
+	private static void writeInts(DataOutputStream out, int values[]) throws IOException {
+		for (int value : values)
+			out.writeInt(value);
+	}
+
+	private static IntBuffer getInts(ByteBuffer buffer, int position, int length) {
+		return slice(buffer, position, length * 4).asIntBuffer();
+	}
+
+	private static ByteBuffer slice(ByteBuffer buffer, int position, int bytes) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(position);
+		view.limit(position + bytes);
+		return view.slice();
+	}
+
+}
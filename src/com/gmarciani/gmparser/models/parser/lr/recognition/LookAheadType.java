@@ -0,0 +1,75 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+/**
+ * <p>Look-ahead type enumeration model, for the item sets of the LR parsers.<p>
+ * <p>Available look-ahead types are: 
+ * none, where LR(0) item sets reduce on every terminal symbol,
+ * follow, where LR(0) item sets reduce on the Follow1 set of the production left side, and
+ * canonical, where LR(1) item sets reduce on their own look-ahead sets.<p>
+ * 
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.CanonicalCollection
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public enum LookAheadType {
+	
+	NONE("None", "LR0"),
+	FOLLOW("Follow1", "SLR1"),
+	CANONICAL("Canonical", "LR1");
+	
+	private String name;
+	private String shortName;
+	
+	private LookAheadType(String name, String shortName) {
+		this.name = name;
+		this.shortName = shortName;
+	}
+
+	/**
+	 * Returns the look-ahead type name.
+	 * 
+	 * @return the look-ahead type name.
+	 */
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Returns the look-ahead type short name.
+	 * 
+	 * @return the look-ahead type short name.
+	 */
+	public String getShortName() {
+		return this.shortName;
+	}
+	
+	@Override public String toString() {
+		return this.getShortName();
+	}
+
+}
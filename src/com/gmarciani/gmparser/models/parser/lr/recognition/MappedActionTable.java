@@ -0,0 +1,97 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.nio.IntBuffer;
+
+/**
+ * <p>Dense primitive ACTION/GOTO table of the LR(1) parser, read in place from a binary table file.<p>
+ * <p>The table has the same layout of {@link PackedActionTable}, but rows, columns and packed actions 
+ * are views over a memory-mapped buffer, so that loading a table never creates an object per entry.
+ * Every lookup is O(1) and allocation-free; only the object view creates the {@link Action} it returns.<p>
+ * <p>A table is never modified after construction, so it can be shared by any number of threads.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.ActionTable
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneTableFile
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+final class MappedActionTable implements ActionTable {
+
+	private final IntBuffer rows;
+	private final IntBuffer columns;
+	private final int symbols;
+	private final IntBuffer codes;
+	private final int conflicts;
+
+	/**
+	 * Creates a new mapped ACTION/GOTO table over the specified views.
+	 *
+	 * @param rows the row of every state id; -1, if the state id is not a state.
+	 * @param columns the column of every symbol; -1, if the symbol is not a symbol.
+	 * @param symbols the number of columns.
+	 * @param codes the dense packed actions, row by row.
+	 * @param conflicts the number of state/symbol pairs with more than one action.
+	 */
+	MappedActionTable(IntBuffer rows, IntBuffer columns, int symbols, IntBuffer codes, int conflicts) {
+		this.rows = rows;
+		this.columns = columns;
+		this.symbols = symbols;
+		this.codes = codes;
+		this.conflicts = conflicts;
+	}
+
+	private int indexOf(int stateId, int symbol) {
+		if (stateId < 0 || stateId >= this.rows.limit() || symbol < 0 || symbol >= this.columns.limit())
+			return -1;
+		int row = this.rows.get(stateId);
+		int column = this.columns.get(symbol);
+		if (row == -1 || column == -1)
+			return -1;
+		return row * this.symbols + column;
+	}
+
+	@Override public int getCode(int stateId, int symbol) {
+		int cell = this.indexOf(stateId, symbol);
+		return (cell == -1) ? 0 : this.codes.get(cell);
+	}
+
+	@Override public Action getAction(int stateId, int symbol) {
+		return PackedActionTable.decode(this.getCode(stateId, symbol));
+	}
+
+	@Override public int getConflictCount() {
+		return this.conflicts;
+	}
+
+	@Override public int getSize() {
+		return this.rows.limit() + this.columns.limit() + this.codes.limit();
+	}
+
+	@Override public String toString() {
+		return "MappedActionTable(" + (this.codes.limit() / Math.max(1, this.symbols)) + "x" + this.symbols + ")";
+	}
+
+}
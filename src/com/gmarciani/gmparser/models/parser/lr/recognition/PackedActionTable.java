@@ -0,0 +1,226 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.models.parser.lr.recognition;
+
+import java.util.Arrays;
+
+import com.gmarciani.gmparser.models.commons.function.Function;
+import com.gmarciani.gmparser.models.commons.nple.Triple;
+
+/**
+ * <p>Dense primitive ACTION/GOTO table of the LR(1) parser.<p>
+ * <p>Every action is packed into an int, at index {@code row * symbols + column}: 
+ * the action type is stored in the high bits, and the action value in the low {@code VALUE_BITS} bits; 
+ * 0 stands for no action.
+ * State ids and symbols are mapped to rows and columns by direct lookup arrays, 
+ * so that every lookup is O(1) and allocation-free.
+ * Only packed actions are stored: the object view of every action is decoded on demand.<p>
+ * <p>A table is never modified after construction, so it can be shared by any number of threads.<p>
+ *
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.ActionTable
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix
+ * @see com.gmarciani.gmparser.models.parser.lr.recognition.CombActionTable
+ *
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class PackedActionTable implements ActionTable {
+
+	/**
+	 * The number of low bits storing the action value.
+	 */
+	public static final int VALUE_BITS = 28;
+
+	private static final int VALUE_MASK = (1 << VALUE_BITS) - 1;
+	private static final ActionType TYPES[] = ActionType.values();
+
+	private final int rows[];
+	private final int columns[];
+	private final int symbols;
+	private final int codes[];
+	private final int conflicts;
+
+	/**
+	 * Packs the specified action function.
+	 * If a state has more than one action for the same symbol, only the first one is packed.
+	 *
+	 * @param function the action function, from state ids and symbols to actions.
+	 */
+	public PackedActionTable(Function<Integer, Character, Action> function) {
+		int maxState = -1;
+		for (Integer stateId : function.getDomainX())
+			maxState = Math.max(maxState, stateId);
+		int maxSymbol = -1;
+		for (Character symbol : function.getDomainY())
+			maxSymbol = Math.max(maxSymbol, symbol);
+		this.rows = new int[maxState + 1];
+		this.columns = new int[maxSymbol + 1];
+		Arrays.fill(this.rows, -1);
+		Arrays.fill(this.columns, -1);
+		int states = 0;
+		for (Integer stateId : function.getDomainX())
+			if (stateId >= 0 && this.rows[stateId] == -1)
+				this.rows[stateId] = states ++;
+		int symbols = 0;
+		for (Character symbol : function.getDomainY())
+			if (this.columns[symbol] == -1)
+				this.columns[symbol] = symbols ++;
+		this.symbols = symbols;
+		this.codes = new int[states * symbols];
+
+		boolean conflicting[] = new boolean[states * symbols];
+		int conflicts = 0;
+		for (Triple<Integer, Character, Action> triple : function.getAll()) {
+			int cell = this.indexOf(triple.getX(), triple.getY());
+			if (cell == -1)
+				continue;
+			if (this.codes[cell] == 0) { // the first action of the cell ...
+				this.codes[cell] = encode(triple.getZ());
+			} else if (!conflicting[cell]) { // ... and any other one is a conflict.
+				conflicting[cell] = true;
+				conflicts ++;
+			}
+		}
+		this.conflicts = conflicts;
+	}
+
+	/**
+	 * Packs the specified action into an int.
+	 *
+	 * @param action the action.
+	 *
+	 * @return the packed action.
+	 */
+	public static int encode(Action action) {
+		int value = action.getValue() + 1; // -1 stands for no value.
+		if (value < 0 || value > VALUE_MASK)
+			throw new IllegalArgumentException("Cannot pack the action value " + action.getValue());
+		return ((action.getType().ordinal() + 1) << VALUE_BITS) | value;
+	}
+
+	/**
+	 * Unpacks the specified packed action.
+	 *
+	 * @param code the packed action.
+	 *
+	 * @return the unpacked action; null, if the specified packed action is 0.
+	 */
+	public static Action decode(int code) {
+		return (code == 0) ? null : new Action(getType(code), getValue(code));
+	}
+
+	/**
+	 * Returns the action type of the specified packed action.
+	 *
+	 * @param code the packed action, not 0.
+	 *
+	 * @return the action type of the specified packed action.
+	 */
+	public static ActionType getType(int code) {
+		return TYPES[(code >>> VALUE_BITS) - 1];
+	}
+
+	/**
+	 * Checks if the specified packed action has the specified action type.
+	 *
+	 * @param code the packed action.
+	 * @param type the action type.
+	 *
+	 * @return true if the specified packed action has the specified action type; false, otherwise.
+	 */
+	public static boolean isType(int code, ActionType type) {
+		return (code >>> VALUE_BITS) == type.ordinal() + 1;
+	}
+
+	/**
+	 * Returns the action value of the specified packed action.
+	 *
+	 * @param code the packed action, not 0.
+	 *
+	 * @return the action value of the specified packed action; -1, if the action has no value.
+	 */
+	public static int getValue(int code) {
+		return (code & VALUE_MASK) - 1;
+	}
+
+	private int indexOf(int stateId, int symbol) {
+		if (stateId < 0 || stateId >= this.rows.length || symbol < 0 || symbol >= this.columns.length)
+			return -1;
+		int row = this.rows[stateId];
+		int column = this.columns[symbol];
+		if (row == -1 || column == -1)
+			return -1;
+		return row * this.symbols + column;
+	}
+
+	@Override public int getCode(int stateId, int symbol) {
+		int cell = this.indexOf(stateId, symbol);
+		return (cell == -1) ? 0 : this.codes[cell];
+	}
+
+	@Override public Action getAction(int stateId, int symbol) {
+		return decode(this.getCode(stateId, symbol));
+	}
+
+	@Override public int getConflictCount() {
+		return this.conflicts;
+	}
+
+	@Override public int getSize() {
+		return this.rows.length + this.columns.length + this.codes.length;
+	}
+
+	/**
+	 * Returns the row of every state id; -1, if the state id is not a state.
+	 */
+	int[] getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * Returns the column of every symbol; -1, if the symbol is not a symbol.
+	 */
+	int[] getColumns() {
+		return this.columns;
+	}
+
+	/**
+	 * Returns the number of columns.
+	 */
+	int getSymbols() {
+		return this.symbols;
+	}
+
+	/**
+	 * Returns the dense packed actions, row by row.
+	 */
+	int[] getCodes() {
+		return this.codes;
+	}
+
+	@Override public String toString() {
+		return "PackedActionTable(" + (this.codes.length / Math.max(1, this.symbols)) + "x" + this.symbols + ")";
+	}
+
+}
@@ -53,7 +53,24 @@ public class LROneParsingSession extends ParsingSession {
 			String word,
 			LROneMatrix recognitionMatrix, 
 			boolean result) {
-		super(grammar, word, ParserType.LR1, result);
+		this(grammar, word, ParserType.LR1, recognitionMatrix, result);
+	}
+	
+	/**
+	 * Creates a new parsing session for a parser of the specified type, driven by a LR(1) recognition matrix.
+	 * 
+	 * @param grammar the grammar to parser with.
+	 * @param word the word to parse.
+	 * @param parserType the parser type.
+	 * @param recognitionMatrix	the parser recognition matrix.
+	 * @param result the parsing result.
+	 */
+	public LROneParsingSession(Grammar grammar, 
+			String word,
+			ParserType parserType,
+			LROneMatrix recognitionMatrix, 
+			boolean result) {
+		super(grammar, word, parserType, result);
 		this.recognitionMatrix = recognitionMatrix;
 	}
 	
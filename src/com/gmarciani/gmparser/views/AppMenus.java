@@ -101,9 +101,15 @@ public final class AppMenus {
 		
 		public static final int CYK = 1;
 		public static final int LR1 = 2;
+		public static final int LALR1 = 3;
+		public static final int SLR1 = 4;
+		public static final int LR0 = 5;
 		
 		public static final String CYK_DESCRIPTION = "Cocke-Younger-Kasami";
 		public static final String LR1_DESCRIPTION = "LR(1) Parser";
+		public static final String LALR1_DESCRIPTION = "LALR(1) Parser";
+		public static final String SLR1_DESCRIPTION = "SLR(1) Parser";
+		public static final String LR0_DESCRIPTION = "LR(0) Parser";
 
 	}
 
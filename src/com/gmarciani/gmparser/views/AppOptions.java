@@ -42,6 +42,7 @@ public final class AppOptions {
 	public static final String DESCRIPTION_ANALYZE = "Analyzes the GRAMMAR.";
 	public static final String DESCRIPTION_TRANSFORM = "Executes the TRANSFORMATION to the GRAMMAR.";
 	public static final String DESCRIPTION_PARSE = "Parses by PARSER the WORD with GRAMMAR.";
+	public static final String DESCRIPTION_GENERATE = "Generates the Java source of the CLASS parsing by PARSER (LR1, LALR1, SLR1 or LR0) with GRAMMAR.";
 	public static final String DESCRIPTION_HELP = "GMParser helper.";
 	public static final String DESCRIPTION_VERSION = "GMParser version.";
 
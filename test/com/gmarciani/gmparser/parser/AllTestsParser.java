@@ -33,7 +33,10 @@ import com.gmarciani.gmparser.parser.lr.AllTestsLR;
 @RunWith(Suite.class)
 @SuiteClasses({ 
 	AllTestsCYK.class,
-	AllTestsLR.class
+	AllTestsLR.class,
+	TestParser.class,
+	TestBatchParser.class,
+	TestTokenStream.class
 	})
 public class AllTestsParser {
 
@@ -0,0 +1,108 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.BatchParser;
+import com.gmarciani.gmparser.models.parser.ParserFactory;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.ParsingSession;
+
+public class TestBatchParser {
+	
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	
+	private static final String WORDS[] = {"dd", "d", "cdd", "dddd", "dcd", "cc", "cccdd", "cddd", "dcccd", "dcdd", "cdcd", "abcdfg", "cccdcccd"};
+	
+	@Test public void sameAsParser() throws Exception {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		List<String> words = new ArrayList<String>();
+		for (int i = 0; i < 50; i ++)
+			for (String word : WORDS)
+				words.add(word);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (ParserType parserType : ParserType.values()) {
+				BatchParser batchParser = new BatchParser(ParserFactory.createParser(grammar, parserType), executor, 7, 3);
+				BitSet results = batchParser.parse(words);
+				assertTrue(results.length() <= words.size());
+				for (int i = 0; i < words.size(); i ++)
+					assertEquals("Uncorrect batch " + parserType.getName() + " parsing: " + words.get(i), 
+							batchParser.getParser().parse(words.get(i)), results.get(i));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test public void streamResults() throws Exception {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		final List<String> words = new ArrayList<String>();
+		for (int i = 0; i < 20; i ++)
+			for (String word : WORDS)
+				words.add(word);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final BatchParser batchParser = new BatchParser(ParserFactory.createParser(grammar, ParserType.LR1), executor, 5, 2);
+			final long count[] = {0};
+			batchParser.parse(words, new BatchParser.ResultHandler<Boolean>() {
+				@Override public void onResult(long index, Boolean result) {
+					assertEquals("Uncorrect batch parsing order", count[0] ++, index);
+					assertEquals("Uncorrect batch parsing: " + words.get((int) index), 
+							batchParser.getParser().parse(words.get((int) index)), result);
+				}
+			});
+			assertEquals(words.size(), count[0]);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test public void parseWithSession() throws Exception {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		List<String> words = new ArrayList<String>();
+		for (String word : WORDS)
+			words.add(word);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<ParsingSession> sessions = new BatchParser(grammar, ParserType.CYK, executor).parseWithSession(words);
+			assertEquals(words.size(), sessions.size());
+			for (int i = 0; i < words.size(); i ++)
+				assertEquals("Uncorrect batch parsing session order", words.get(i), sessions.get(i).getWord());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
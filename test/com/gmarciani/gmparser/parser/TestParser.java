@@ -0,0 +1,92 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.Parser;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+
+public class TestParser {
+	
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	
+	private static final String ACCEPTABLE_WORDS[] = {"dd", "cdd", "dcd", "cccdd", "dcccd", "cdcd", "cdcccd", "cccdcd", "cccdcccd"};
+	private static final String NOT_ACCEPTABLE_WORDS[] = {"d", "dddd", "cc", "cddd", "dcdd", "dcdc", "ddccc", "dcccdccc", "cdcddd", "abcdfg"};
+	
+	@Test public void parserType() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		assertEquals(ParserType.CYK, new CYKParser(grammar).getParserType());
+		assertEquals(ParserType.LR1, new LROneParser(grammar).getParserType());
+	}
+	
+	@Test public void grammarUntouched() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		String expected = grammar.toString();
+		new CYKParser(grammar).parse("cdd");
+		new LROneParser(grammar).parse("cdd");
+		assertEquals("Uncorrect parser: the grammar has been modified", expected, grammar.toString());
+	}
+	
+	@Test public void concurrentParse() throws Exception {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		Parser parsers[] = {new CYKParser(grammar), new LROneParser(grammar)};
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (final Parser parser : parsers) {
+				List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+				for (int t = 0; t < 8; t ++) {
+					results.add(executor.submit(new Callable<Boolean>() {
+						@Override public Boolean call() {
+							for (String word : ACCEPTABLE_WORDS)
+								if (!parser.parse(word))
+									return false;
+							for (String word : NOT_ACCEPTABLE_WORDS)
+								if (parser.parse(word))
+									return false;
+							return true;
+						}
+					}));
+				}
+				for (Future<Boolean> result : results)
+					assertTrue("Uncorrect concurrent " + parser.getParserType().getName() + " parsing", result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
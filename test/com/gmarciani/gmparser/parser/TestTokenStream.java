@@ -0,0 +1,86 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.Parser;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+
+public class TestTokenStream {
+	
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	
+	private static final String WORDS[] = {"dd", "cdd", "dcd", "cccdd", "cdcccd", "", "d", "dddd", "cc", "dcdc", "abcdfg"};
+	
+	@Test public void wrap() {
+		int tokens[] = {'x', 'c', 'd', 'd', 'x'};
+		TokenStream stream = TokenStream.wrap(tokens, 1, 3);
+		assertEquals(3, stream.length());
+		assertEquals("cdd", stream.toString());
+		tokens[1] = 'd';
+		assertEquals("Uncorrect token stream: the array has been copied", 'd', stream.get(0));
+		assertEquals(0, stream.indexOf('d'));
+		assertEquals(-1, stream.indexOf('x'));
+		
+		IntBuffer buffer = IntBuffer.wrap(tokens);
+		buffer.position(1);
+		assertEquals("dddx", TokenStream.wrap(buffer).toString());
+		assertEquals(1, buffer.position());
+		
+		IntBuffer direct = ByteBuffer.allocateDirect(12).asIntBuffer();
+		direct.put('c').put('d').put('d').flip();
+		assertEquals("cdd", TokenStream.wrap(direct).toString());
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class) public void outOfRange() {
+		TokenStream.wrap(new int[]{'c', 'd'}, 1, 2);
+	}
+	
+	@Test public void sameAsWord() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		Parser parsers[] = {new CYKParser(grammar), new LROneParser(grammar)};
+		for (Parser parser : parsers)
+			for (String word : WORDS)
+				assertEquals("Uncorrect " + parser.getParserType().getName() + " token stream parsing for " + word, 
+						parser.parse(word), parser.parse(TokenStream.of(word)));
+	}
+	
+	@Test public void notChar() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		Parser parsers[] = {new CYKParser(grammar), new LROneParser(grammar)};
+		TokenStream tokens = TokenStream.wrap(new int[]{'c', 'd', 'd' + 0x10000});
+		for (Parser parser : parsers)
+			assertFalse("Uncorrect " + parser.getParserType().getName() + " token stream parsing: ids outside chars cannot be terminals", parser.parse(tokens));
+	}
+
+}
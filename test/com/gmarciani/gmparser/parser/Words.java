@@ -0,0 +1,57 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Word enumeration for the parser tests.<p>
+ * 
+ * @author Giacomo Marciani
+ * @version 1.0
+ */
+public final class Words {
+	
+	private Words() {}
+	
+	/**
+	 * Returns every word over the specified alphabet, up to the specified length, by increasing length.
+	 * 
+	 * @param alphabet the symbols of the words.
+	 * @param maxLength the maximum length of the words.
+	 * 
+	 * @return every word over the specified alphabet, up to the specified length, including the empty word.
+	 */
+	public static List<String> getWords(String alphabet, int maxLength) {
+		List<String> words = new ArrayList<String>();
+		words.add("");
+		for (int w = 0; w < words.size(); w ++)
+			if (words.get(w).length() < maxLength)
+				for (char symbol : alphabet.toCharArray())
+					words.add(words.get(w) + symbol);
+		return words;
+	}
+
+}
@@ -29,9 +29,18 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({ 
+	TestCYKBitMatrix.class,
+	TestCYKCountMatrix.class,
+	TestCYKIncrementalMatrix.class,
 	TestCYKMatrix.class,
+	TestCYKOffHeapMatrix.class,
 	TestCYKParse.class,
-	TestCYKParsingSession.class
+	TestCYKParsingSession.class,
+	TestCYKPruner.class,
+	TestCYKViterbiMatrix.class,
+	TestCompiledCYKGrammar.class,
+	TestParseForest.class,
+	TestSpanIndex.class
 	})
 public class AllTestsCYK {
 
@@ -0,0 +1,143 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+import com.gmarciani.gmparser.models.grammar.production.Productions;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKBitMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKRuleTable;
+
+public class TestCYKBitMatrix {
+
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_NOT_CHOMSKY_EXTENDED = "S->" + Grammar.EPSILON + "|CB|FA|FB|G;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b;G->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+
+	private static final String WORDS[] = {"aababb", "abcdfg", "ab", "ba", "bbbbab", "a", Grammar.EPSILON.toString()};
+
+	@Test public void sameAsAlphabetMatrix() {
+		String strGrammars[] = {GRAMMAR_CHOMSKY, GRAMMAR_NOT_CHOMSKY_EXTENDED, GRAMMAR_NOTLR1_NOTCHOMSKY};
+		for (String strGrammar : strGrammars) {
+			for (String word : WORDS) {
+				Grammar grammar = Grammar.generateGrammar(strGrammar);
+				CYKBitMatrix bitMatrix = CYKParser.getRecognitionBitMatrix(grammar, word);
+				CYKMatrix expected = getAlphabetMatrix(grammar, word);
+				assertEquals("Uncorrect bitset-based Cocke-Younger-Kasami matrix for " + word + " by " + strGrammar, expected, bitMatrix.toCYKMatrix());
+			}
+		}
+	}
+
+	@Test public void sameAsSequentialMatrix() {
+		String strGrammars[] = {GRAMMAR_CHOMSKY, GRAMMAR_NOT_CHOMSKY_EXTENDED, GRAMMAR_NOTLR1_NOTCHOMSKY};
+		String word = "aababbaababbabbaababaabbbaabababbaab";
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (String strGrammar : strGrammars) {
+				Grammar grammar = Grammar.generateGrammar(strGrammar);
+				CYKMatrix expected = CYKParser.getRecognitionBitMatrix(grammar, word).toCYKMatrix();
+				for (int cutoff = 1; cutoff <= 4; cutoff ++) {
+					CYKBitMatrix bitMatrix = CYKParser.getRecognitionBitMatrix(grammar, word, pool, cutoff);
+					assertEquals("Uncorrect parallel Cocke-Younger-Kasami matrix for " + word + " by " + strGrammar, expected, bitMatrix.toCYKMatrix());
+				}
+				assertEquals("Uncorrect parallel Cocke-Younger-Kasami parsing", 
+						CYKParser.parse(grammar, word), CYKParser.parse(grammar, word, pool, 1));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test public void contains() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_CHOMSKY);
+		CYKBitMatrix bitMatrix = CYKParser.getRecognitionBitMatrix(grammar, "aababb");
+		int axiom = bitMatrix.getNonTerminals().indexOf('S');
+		assertTrue(bitMatrix.contains(6, 1, axiom));
+		assertFalse(bitMatrix.contains(7, 1, axiom));
+		assertFalse(bitMatrix.contains(6, 2, axiom));
+		assertFalse(bitMatrix.contains(1, 1, -1));
+		assertEquals(new Alphabet('A', 'C'), bitMatrix.toCYKMatrix().get(1, 1));
+	}
+
+	@Test public void ruleTable() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_CHOMSKY);
+		CYKRuleTable rules = new CYKRuleTable(grammar);
+		assertTrue(rules.indexOfTerminal('a') != -1);
+		assertTrue(rules.indexOfTerminal('b') != -1);
+		assertEquals(-1, rules.indexOfTerminal('c'));
+		CYKBitMatrix bitMatrix = new CYKBitMatrix("ab", rules.getNonTerminals());
+		rules.seed(bitMatrix, 1, 'a');
+		rules.seed(bitMatrix, 2, 'b');
+		rules.fill(bitMatrix, 2, 1);
+		assertEquals(new Alphabet('A', 'C'), bitMatrix.toCYKMatrix().get(1, 1));
+		assertEquals(new Alphabet('B', 'F'), bitMatrix.toCYKMatrix().get(1, 2));
+		assertEquals(new Alphabet('S'), bitMatrix.toCYKMatrix().get(2, 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class) public void tooLongWord() {
+		CYKRuleTable rules = new CYKRuleTable(Grammar.generateGrammar(GRAMMAR_CHOMSKY));
+		new CYKBitMatrix(TokenStream.wrap(new int[70000]), rules.getNonTerminals()); // more cells than the maximum array length.
+	}
+
+	@Test(expected = IllegalArgumentException.class) public void tooLongWordAlphabetMatrix() {
+		new CYKMatrix(new String(new char[70000]));
+	}
+
+	/**
+	 * Fills the recognition matrix with sets of symbols, as reference.
+	 */
+	private static CYKMatrix getAlphabetMatrix(Grammar grammar, String word) {
+		Grammar cnf = new Grammar(grammar);
+		cnf.toChomskyNormalForm();
+		CYKMatrix matrix = new CYKMatrix(word);
+		for (int p = 1; p <= word.length(); p ++)
+			for (Production production : cnf.getProductions())
+				if (production.getRight().getSize() == 1
+						&& production.getRight().isContaining(word.charAt(p - 1)))
+					matrix.put(1, p, production.getLeft().getNonTerminalAlphabet());
+		for (int l = 2; l <= word.length(); l ++) {
+			for (int p = 1; p <= (word.length() - l + 1); p ++) {
+				Alphabet target = new Alphabet();
+				for (int l1 = 1; l1 < l; l1 ++) {
+					Productions prods = cnf.getProductions().getProductionsRightIndexedWithin(matrix.get(l1, p), matrix.get(l - l1, p + l1));
+					for (Production prod : prods)
+						target.addAll(prod.getLeft().getNonTerminalAlphabet());
+				}
+				matrix.put(l, p, target);
+			}
+		}
+		return matrix;
+	}
+
+}
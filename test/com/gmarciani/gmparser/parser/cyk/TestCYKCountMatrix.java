@@ -0,0 +1,92 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKCountMatrix;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseForest;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseTree;
+
+public class TestCYKCountMatrix {
+	
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_AMBIGUOUS = "S->SS|a.";
+	private static final String GRAMMAR_UNIT_AMBIGUOUS = "S->A|B;A->a;B->a.";
+	
+	private static final String WORDS[] = {"aababb", "abcdfg", "ab", "ba", "bbbbab", "abab", "aabbab", "a"};
+
+	@Test public void sameAsForest() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_CHOMSKY));
+		for (String word : WORDS) {
+			ParseForest forest = compiled.getParseForest(word);
+			long trees = 0;
+			for (@SuppressWarnings("unused") ParseTree tree : forest)
+				trees ++;
+			assertEquals("Uncorrect derivation count for " + word, BigInteger.valueOf(trees), compiled.countDerivations(word));
+		}
+	}
+	
+	@Test public void catalan() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_AMBIGUOUS));
+		for (int n = 1; n <= 30; n ++) {
+			String word = new String(new char[n]).replace('\0', 'a');
+			CYKCountMatrix matrix = compiled.getCountMatrix(word);
+			assertFalse("Uncorrect derivation count: should fit longs", matrix.isBig());
+			assertEquals("Uncorrect derivation count for " + word, catalan(n - 1), compiled.countDerivations(word));
+		}
+	}
+	
+	@Test public void overflow() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_AMBIGUOUS));
+		String word = new String(new char[60]).replace('\0', 'a');
+		CYKCountMatrix matrix = compiled.getCountMatrix(word);
+		assertTrue("Uncorrect derivation count: should overflow longs", matrix.isBig());
+		assertEquals("Uncorrect derivation count for " + word, catalan(59), compiled.countDerivations(word));
+	}
+	
+	@Test public void countedInChomskyNormalForm() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_UNIT_AMBIGUOUS));
+		assertEquals("Uncorrect derivation count: unit productions are unfolded and merged", BigInteger.ONE, compiled.countDerivations("a"));
+	}
+	
+	@Test public void notParsed() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_AMBIGUOUS));
+		assertEquals(BigInteger.ZERO, compiled.countDerivations("ab"));
+	}
+	
+	private static BigInteger catalan(int n) {
+		BigInteger c = BigInteger.ONE;
+		for (int k = 0; k < n; k ++)
+			c = c.multiply(BigInteger.valueOf(2 * (2 * k + 1))).divide(BigInteger.valueOf(k + 2));
+		return c;
+	}
+
+}
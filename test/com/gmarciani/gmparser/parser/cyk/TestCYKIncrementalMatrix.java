@@ -0,0 +1,61 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKIncrementalMatrix;
+
+public class TestCYKIncrementalMatrix {
+	
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_NOT_CHOMSKY_EXTENDED = "S->" + Grammar.EPSILON + "|CB|FA|FB|G;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b;G->" + Grammar.EPSILON + ".";
+	
+	private static final String WORDS[] = {"aababbabbaabbbaaabab", "abcdfg", "bbbbab"};
+
+	@Test public void sameAsPrefixParsing() {
+		String strGrammars[] = {GRAMMAR_CHOMSKY, GRAMMAR_NOT_CHOMSKY_EXTENDED};
+		for (String strGrammar : strGrammars) {
+			CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(strGrammar));
+			for (String word : WORDS) {
+				CYKIncrementalMatrix matrix = compiled.newIncrementalMatrix();
+				assertEquals("Uncorrect incremental Cocke-Younger-Kasami parsing for the empty word by " + strGrammar, 
+						compiled.parse(""), matrix.isAccepted());
+				for (int j = 1; j <= word.length(); j ++) {
+					matrix.append(word.charAt(j - 1));
+					String prefix = word.substring(0, j);
+					assertEquals("Uncorrect incremental Cocke-Younger-Kasami parsing for " + prefix + " by " + strGrammar, 
+							compiled.parse(prefix), matrix.isAccepted());
+					assertEquals("Uncorrect incremental Cocke-Younger-Kasami matrix for " + prefix + " by " + strGrammar, 
+							compiled.getRecognitionMatrix(prefix), matrix.toCYKMatrix());
+				}
+			}
+		}
+	}
+
+}
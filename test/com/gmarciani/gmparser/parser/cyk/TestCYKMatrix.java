@@ -23,9 +23,12 @@
 
 package com.gmarciani.gmparser.parser.cyk;
 
+import static org.junit.Assert.*;
+
 import org.junit.Test;
 
 import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.alphabet.Alphabet;
 import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
 import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKMatrix;
 
@@ -73,5 +76,33 @@ public class TestCYKMatrix {
 		CYKMatrix matrixUnrecognized = CYKParser.getRecognitionMatrix(grammar, "abcdfg");
 		System.out.println(matrixUnrecognized.toFormattedMatrix());
 	}
+	
+	@Test public void triangular() {
+		CYKMatrix matrix = new CYKMatrix("aababb");
+		assertTrue(matrix.isDefined(6, 1));
+		assertFalse(matrix.isDefined(6, 2));
+		assertTrue("Uncorrect Cocke-Younger-Kasami matrix: cells should be empty", matrix.get(3, 2).isEmpty());
+		assertTrue(matrix.put(3, 2, new Alphabet('A', 'B')));
+		assertFalse("Uncorrect Cocke-Younger-Kasami matrix: cells outside the upper triangle should not be stored", matrix.put(6, 2, new Alphabet('A')));
+		assertTrue(matrix.get(6, 2).isEmpty());
+		assertEquals(new Alphabet('A', 'B'), matrix.get(3, 2));
+		assertEquals(new Alphabet('A', 'B'), matrix.getMatrix().get(3, 2));
+		matrix.get(3, 2).add('C');
+		assertEquals("Uncorrect Cocke-Younger-Kasami matrix: returned cells should be copies", new Alphabet('A', 'B'), matrix.get(3, 2));
+		assertTrue("Uncorrect Cocke-Younger-Kasami matrix: cells should be empty", matrix.get(3, 1).isEmpty());
+		assertEquals("Uncorrect Cocke-Younger-Kasami matrix: only the upper triangle should be tabled", 21, matrix.getMatrix().size());
+		
+		CYKMatrix other = new CYKMatrix("aababb");
+		other.put(3, 2, new Alphabet('B'));
+		assertNotEquals(matrix, other);
+		other.put(3, 2, new Alphabet('A'));
+		assertEquals(matrix, other);
+		assertEquals(matrix.hashCode(), other.hashCode());
+	}
+	
+	@Test(expected = UnsupportedOperationException.class) public void immutableEmptyCells() {
+		CYKMatrix matrix = new CYKMatrix("aababb");
+		matrix.get(3, 1).add('C');
+	}
 
 }
@@ -0,0 +1,89 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKOffHeapMatrix;
+
+public class TestCYKOffHeapMatrix {
+
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_NOT_CHOMSKY_EXTENDED = "S->" + Grammar.EPSILON + "|CB|FA|FB|G;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b;G->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+	
+	private static final String GRAMMARS[] = {GRAMMAR_CHOMSKY, GRAMMAR_NOT_CHOMSKY_EXTENDED, GRAMMAR_NOTLR1_NOTCHOMSKY};
+	private static final String WORDS[] = {"aababb", "abcdfg", "ab", "ba", "bbbbab", "a", "", "aababbaababbabbaababaabbbaabababbaab"};
+	
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test public void sameAsBitMatrixDirect() throws IOException {
+		for (String strGrammar : GRAMMARS) {
+			CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(strGrammar));
+			for (String word : WORDS) {
+				CYKOffHeapMatrix matrix = compiled.getRecognitionOffHeapMatrix(word, null);
+				assertFalse(matrix.isMapped());
+				assertEquals("Uncorrect off-heap Cocke-Younger-Kasami matrix for " + word + " by " + strGrammar, 
+						compiled.getRecognitionMatrix(word), matrix.toCYKBitMatrix().toCYKMatrix());
+				matrix.close();
+			}
+		}
+	}
+	
+	@Test public void sameAsBitMatrixMapped() throws IOException {
+		for (String strGrammar : GRAMMARS) {
+			CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(strGrammar));
+			for (String word : WORDS) {
+				File file = this.folder.newFile();
+				CYKOffHeapMatrix matrix = compiled.getRecognitionOffHeapMatrix(word, file);
+				assertTrue(matrix.isMapped());
+				assertEquals("Uncorrect mapped Cocke-Younger-Kasami matrix for " + word + " by " + strGrammar, 
+						compiled.getRecognitionMatrix(word), matrix.toCYKBitMatrix().toCYKMatrix());
+				matrix.close();
+				assertEquals("Uncorrect mapped file size", CYKOffHeapMatrix.getBytes(word.length(), compiled.getRules().getNonTerminals()), file.length());
+			}
+		}
+	}
+	
+	@Test public void offHeapParse() {
+		for (String strGrammar : GRAMMARS) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			CompiledCYKGrammar onHeap = new CompiledCYKGrammar(grammar);
+			CompiledCYKGrammar offHeap = new CompiledCYKGrammar(grammar, 0);
+			for (String word : WORDS)
+				assertEquals("Uncorrect off-heap Cocke-Younger-Kasami parsing for " + word + " by " + strGrammar, 
+						onHeap.parse(word), offHeap.parse(word));
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+import static com.gmarciani.gmparser.parser.Words.getWords;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKPruner;
+
+public class TestCYKPruner {
+	
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_NOT_CHOMSKY_EXTENDED = "S->" + Grammar.EPSILON + "|CB|FA|FB|G;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b;G->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+	private static final String GRAMMAR_BALANCED = "S->aSb|ab|c.";
+	private static final String GRAMMAR_FINITE = "S->AB;A->a;B->CD;C->b;D->c.";
+	
+	private static final String GRAMMARS[] = {GRAMMAR_CHOMSKY, GRAMMAR_NOT_CHOMSKY_EXTENDED, GRAMMAR_NOTLR1_NOTCHOMSKY, GRAMMAR_BALANCED, GRAMMAR_FINITE};
+
+	@Test public void sameLanguage() {
+		for (String grammar : GRAMMARS) {
+			CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(grammar));
+			for (String word : getWords("abc", 7))
+				assertEquals("Uncorrect pruned recognition for " + word + " in " + grammar, 
+						compiled.getRecognitionBitMatrix(word).contains(Math.max(1, word.length()), 1, compiled.getRules().getNonTerminals().indexOf(compiled.getGrammar().getAxiom())), 
+						compiled.parse(word));
+		}
+	}
+	
+	@Test public void sameLanguageParallel() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (String grammar : GRAMMARS) {
+				CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(grammar));
+				for (String word : getWords("abc", 6))
+					assertEquals("Uncorrect parallel pruned recognition for " + word + " in " + grammar, 
+							compiled.parse(word), compiled.parse(word, pool, 1));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test public void yields() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_FINITE));
+		CYKPruner pruner = compiled.getPruner();
+		int s = compiled.getRules().getNonTerminals().indexOf('S');
+		int b = compiled.getRules().getNonTerminals().indexOf('B');
+		assertEquals("Uncorrect min yield", 3, pruner.getMinYield(s));
+		assertEquals("Uncorrect max yield", 3, pruner.getMaxYield(s));
+		assertEquals("Uncorrect min yield", 2, pruner.getMinYield(b));
+		assertEquals("Uncorrect max yield", 2, pruner.getMaxYield(b));
+		
+		compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_BALANCED));
+		pruner = compiled.getPruner();
+		s = compiled.getRules().getNonTerminals().indexOf('S');
+		assertEquals("Uncorrect min yield", 1, pruner.getMinYield(s));
+		assertEquals("Uncorrect max yield", Integer.MAX_VALUE, pruner.getMaxYield(s));
+	}
+
+}
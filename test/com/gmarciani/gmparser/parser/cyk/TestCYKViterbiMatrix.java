@@ -0,0 +1,96 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.production.Member;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+import com.gmarciani.gmparser.models.parser.cyk.recognition.CYKViterbiMatrix;
+
+public class TestCYKViterbiMatrix {
+	
+	private static final String GRAMMAR_AMBIGUOUS = "S->AB|CB;A->a;B->b;C->a.";
+	private static final String GRAMMAR_NOTCHOMSKY = "S->aB|aC;B->b;C->b.";
+	private static final String GRAMMAR_NULLABLE = "S->aA;A->b|" + Grammar.EPSILON + ".";
+	
+	private static final double DELTA = 1e-9;
+
+	@Test public void bestTree() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_AMBIGUOUS));
+		Map<Production, Double> probabilities = new HashMap<Production, Double>();
+		probabilities.put(new Production(new Member("A"), new Member("a")), 0.9);
+		probabilities.put(new Production(new Member("C"), new Member("a")), 0.2);
+		probabilities.put(new Production(new Member("S"), new Member("CB")), 0.5);
+		CYKViterbiMatrix matrix = compiled.getViterbiMatrix("ab", probabilities);
+		assertEquals("Uncorrect Viterbi parsing", "S(A(a)B(b))", matrix.getBestTree('S').toString());
+		assertEquals("Uncorrect Viterbi score", Math.log(0.9), matrix.getScore('S'), DELTA);
+		
+		probabilities.put(new Production(new Member("C"), new Member("a")), 1.0);
+		probabilities.put(new Production(new Member("S"), new Member("CB")), 0.95);
+		assertEquals("Uncorrect Viterbi parsing", "S(C(a)B(b))", compiled.getBestParseTree("ab", probabilities).toString());
+	}
+	
+	@Test public void notChomskyGrammar() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_NOTCHOMSKY));
+		Map<Production, Double> probabilities = new HashMap<Production, Double>();
+		probabilities.put(new Production(new Member("S"), new Member("aB")), 0.9);
+		probabilities.put(new Production(new Member("S"), new Member("aC")), 0.1);
+		CYKViterbiMatrix matrix = compiled.getViterbiMatrix("ab", probabilities);
+		assertEquals("Uncorrect Viterbi parsing", "B(b)", matrix.getBestTree('S').getChildren().get(1).toString());
+		assertEquals("Uncorrect Viterbi score", Math.log(0.9), matrix.getScore('S'), DELTA);
+		
+		probabilities.put(new Production(new Member("S"), new Member("aB")), 0.2);
+		probabilities.put(new Production(new Member("S"), new Member("aC")), 0.8);
+		matrix = compiled.getViterbiMatrix("ab", probabilities);
+		assertEquals("Uncorrect Viterbi parsing", "C(b)", matrix.getBestTree('S').getChildren().get(1).toString());
+		assertEquals("Uncorrect Viterbi score", Math.log(0.8), matrix.getScore('S'), DELTA);
+	}
+	
+	@Test public void nullableGrammar() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_NULLABLE));
+		Map<Production, Double> probabilities = new HashMap<Production, Double>();
+		probabilities.put(new Production(new Member("S"), new Member("aA")), 0.8);
+		probabilities.put(new Production(new Member("A"), new Member("b")), 0.5);
+		probabilities.put(new Production(new Member("A"), new Member(Grammar.EPSILON)), 0.25);
+		assertEquals("Uncorrect Viterbi score", Math.log(0.8 * 0.25), compiled.getViterbiMatrix("a", probabilities).getScore('S'), DELTA);
+		assertEquals("Uncorrect Viterbi score", Math.log(0.8 * 0.5), compiled.getViterbiMatrix("ab", probabilities).getScore('S'), DELTA);
+	}
+	
+	@Test public void notParsed() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_AMBIGUOUS));
+		Map<Production, Double> probabilities = new HashMap<Production, Double>();
+		CYKViterbiMatrix matrix = compiled.getViterbiMatrix("ba", probabilities);
+		assertNull(matrix.getBestTree('S'));
+		assertEquals(Double.NEGATIVE_INFINITY, matrix.getScore('S'), 0.0);
+	}
+
+}
@@ -0,0 +1,84 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+
+public class TestCompiledCYKGrammar {
+	
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_NOT_CHOMSKY_EXTENDED = "S->" + Grammar.EPSILON + "|CB|FA|FB|G;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b;G->" + Grammar.EPSILON + ".";
+	
+	private static final String WORDS[] = {"aababb", "abcdfg", "ab", "ba", "bbbbab", "a", "", Grammar.EPSILON.toString()};
+
+	@Test public void grammarUntouched() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_NOT_CHOMSKY_EXTENDED);
+		Grammar copy = new Grammar(grammar);
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(grammar);
+		for (String word : WORDS)
+			compiled.parse(word);
+		assertEquals("Uncorrect compilation: the grammar has been modified", copy.toString(), grammar.toString());
+		assertFalse("Uncorrect compilation: the grammar should not be in Chomsky Normal Form", grammar.isChomskyNormalForm());
+		assertTrue("Uncorrect compilation: the compiled grammar should be in Chomsky Normal Form", compiled.getGrammar().isChomskyNormalForm());
+	}
+	
+	@Test public void sameAsParser() {
+		String strGrammars[] = {GRAMMAR_CHOMSKY, GRAMMAR_NOT_CHOMSKY_EXTENDED};
+		for (String strGrammar : strGrammars) {
+			CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(strGrammar));
+			for (String word : WORDS) {
+				assertEquals("Uncorrect compiled Cocke-Younger-Kasami parsing for " + word + " by " + strGrammar, 
+						CYKParser.parse(Grammar.generateGrammar(strGrammar), word), compiled.parse(word));
+				assertEquals("Uncorrect compiled Cocke-Younger-Kasami matrix for " + word + " by " + strGrammar, 
+						CYKParser.getRecognitionMatrix(Grammar.generateGrammar(strGrammar), word), compiled.getRecognitionMatrix(word));
+			}
+		}
+	}
+	
+	@Test public void concurrentParse() throws InterruptedException {
+		final CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_CHOMSKY));
+		final boolean failed[] = new boolean[1];
+		Thread threads[] = new Thread[4];
+		for (int t = 0; t < threads.length; t ++) {
+			threads[t] = new Thread(new Runnable() {
+				@Override public void run() {
+					for (int i = 0; i < 200; i ++)
+						if (!compiled.parse("aababb") || compiled.parse("abcdfg"))
+							failed[0] = true;
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertFalse("Uncorrect concurrent Cocke-Younger-Kasami parsing", failed[0]);
+	}
+
+}
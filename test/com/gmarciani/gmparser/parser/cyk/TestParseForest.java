@@ -0,0 +1,89 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseForest;
+import com.gmarciani.gmparser.models.parser.cyk.forest.ParseTree;
+
+public class TestParseForest {
+	
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_AMBIGUOUS = "S->SS|a.";
+	
+	private static final long CATALAN[] = {1, 1, 2, 5, 14, 42, 132, 429, 1430, 4862};
+
+	@Test public void unambiguous() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_CHOMSKY));
+		ParseForest forest = compiled.getParseForest("ab");
+		assertFalse("Uncorrect parse forest: should not be empty", forest.isEmpty());
+		assertFalse("Uncorrect parse forest: should not be ambiguous", forest.isAmbiguous());
+		Iterator<ParseTree> trees = forest.iterator();
+		assertEquals("S(C(a)B(b))", trees.next().toString());
+		assertFalse(trees.hasNext());
+	}
+	
+	@Test public void notParsed() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_CHOMSKY));
+		ParseForest forest = compiled.getParseForest("abcdfg");
+		assertTrue("Uncorrect parse forest: should be empty", forest.isEmpty());
+		assertFalse(forest.iterator().hasNext());
+	}
+	
+	@Test public void ambiguous() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_AMBIGUOUS));
+		for (int n = 1; n < CATALAN.length; n ++) {
+			String word = new String(new char[n]).replace('\0', 'a');
+			ParseForest forest = compiled.getParseForest(word);
+			assertEquals("Uncorrect parse forest: one symbol node per span", (n * (n + 1)) / 2, forest.getSymbolNodeCount());
+			Set<ParseTree> trees = new HashSet<ParseTree>();
+			long count = 0;
+			for (ParseTree tree : forest) {
+				trees.add(tree);
+				count ++;
+			}
+			assertEquals("Uncorrect parse forest: number of trees for " + word, CATALAN[n - 1], count);
+			assertEquals("Uncorrect parse forest: trees should be distinct for " + word, count, trees.size());
+		}
+	}
+	
+	@Test public void polynomialSize() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_AMBIGUOUS));
+		String word = new String(new char[60]).replace('\0', 'a'); // Catalan(59) trees.
+		ParseForest forest = compiled.getParseForest(word);
+		assertEquals(60 * 61 / 2, forest.getSymbolNodeCount());
+		assertTrue("Uncorrect parse forest: should be ambiguous", forest.isAmbiguous());
+		assertTrue(forest.iterator().hasNext());
+	}
+
+}
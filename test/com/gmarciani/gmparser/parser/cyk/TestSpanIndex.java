@@ -0,0 +1,101 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.cyk;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CompiledCYKGrammar;
+import com.gmarciani.gmparser.models.parser.cyk.span.Span;
+import com.gmarciani.gmparser.models.parser.cyk.span.SpanIndex;
+
+public class TestSpanIndex {
+	
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_BALANCED = "S->aSb|ab.";
+	
+	private static final String WORDS[] = {"aababb", "abcdfg", "ab", "ba", "bbbbab", "abab", "aabbab", "a", "ccabcaabbc"};
+
+	@Test public void sameAsSubstringParse() {
+		for (String grammar : new String[]{GRAMMAR_CHOMSKY, GRAMMAR_BALANCED}) {
+			CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(grammar));
+			for (String word : WORDS) {
+				SpanIndex index = compiled.getSpanIndex(word);
+				List<Span> expected = new ArrayList<Span>();
+				for (int i = 0; i < word.length(); i ++) {
+					for (int j = word.length(); j > i; j --) {
+						boolean parsed = compiled.parse(word.substring(i, j));
+						assertEquals("Uncorrect span index for " + word + " in [" + i + ", " + j + ")", parsed, index.derives('S', i, j));
+						assertEquals("Uncorrect span index for " + word + " in [" + i + ", " + j + ")", parsed, index.getNonTerminals(i, j).contains('S'));
+						if (parsed)
+							expected.add(new Span(i, j));
+					}
+				}
+				assertEquals("Uncorrect spans for " + word, expected, index.getSpans('S'));
+				assertEquals("Uncorrect span count for " + word, expected.size(), index.getSpanCount('S'));
+			}
+		}
+	}
+	
+	@Test public void maximalSpans() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_BALANCED));
+		SpanIndex index = compiled.getSpanIndex("caabbcabaabb");
+		assertEquals("Uncorrect maximal spans", Arrays.asList(new Span(1, 5), new Span(6, 8), new Span(8, 12)), index.getMaximalSpans('S'));
+		assertEquals("Uncorrect spans", Arrays.asList(new Span(1, 5), new Span(2, 4), new Span(6, 8), new Span(8, 12), new Span(9, 11)), index.getSpans('S'));
+		assertEquals("Uncorrect spans", Arrays.asList(new Span(8, 12)), index.getSpansStartingAt('S', 8));
+		assertTrue("Uncorrect spans", index.getSpansStartingAt('S', 0).isEmpty());
+	}
+	
+	@Test public void maximalSpansNotContained() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_CHOMSKY));
+		for (String word : WORDS) {
+			SpanIndex index = compiled.getSpanIndex(word);
+			List<Span> spans = index.getSpans('S');
+			List<Span> maximals = index.getMaximalSpans('S');
+			for (Span span : spans) {
+				boolean contained = false;
+				for (Span other : spans)
+					contained |= (!other.equals(span) && other.contains(span));
+				assertEquals("Uncorrect maximal span " + span + " for " + word, !contained, maximals.contains(span));
+			}
+		}
+	}
+	
+	@Test public void outOfRange() {
+		CompiledCYKGrammar compiled = new CompiledCYKGrammar(Grammar.generateGrammar(GRAMMAR_BALANCED));
+		SpanIndex index = compiled.getSpanIndex("ab");
+		assertFalse(index.derives('S', 0, 3));
+		assertFalse(index.derives('S', 1, 1));
+		assertFalse(index.derives('Z', 0, 2));
+		assertTrue(index.getNonTerminals(2, 1).isEmpty());
+		assertTrue(index.getSpans('Z').isEmpty());
+	}
+
+}
@@ -31,8 +31,17 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ 
 	TestBigProductionGraph.class,
 	TestBigProductionFiniteAutomaton.class,
+	TestCanonicalCollection.class,
+	TestCombActionTable.class,
+	TestLALROneParse.class,
 	TestLROneMatrix.class,
-	TestLROneParse.class
+	TestLROneParse.class,
+	TestLROnePushParse.class,
+	TestLROneSourceGenerator.class,
+	TestLROneTable.class,
+	TestLROneTableFile.class,
+	TestPackedActionTable.class,
+	TestSLROneParse.class
 	})
 public class AllTestsLR {
 
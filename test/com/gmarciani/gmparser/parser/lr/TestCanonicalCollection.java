@@ -0,0 +1,102 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+import static com.gmarciani.gmparser.parser.Words.getWords;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.automaton.FiniteAutomaton;
+import com.gmarciani.gmparser.models.automaton.state.State;
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.cyk.CYKParser;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.recognition.BigProductionGraph;
+import com.gmarciani.gmparser.models.parser.lr.recognition.CanonicalCollection;
+import com.gmarciani.gmparser.models.parser.lr.recognition.Item;
+
+public class TestCanonicalCollection {
+	
+	private static final String GRAMMAR_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_TWO = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_THREE = "X->S;S->aA|bB;A->cAd|" + Grammar.EPSILON + ";B->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_CHOMSKY = "S->CB|FA|FB;A->CS|FD|a;B->FS|CE|b;C->a;D->AA;E->BB;F->b.";
+	private static final String GRAMMAR_CHOMSKY_EMPTY = "S->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NULLABLE_SUFFIX = "X->S;S->ABc;A->a;B->b|" + Grammar.EPSILON + ".";
+	
+	@Test public void sameAsPowersetConstruction() {
+		for (String strGrammar : new String[]{GRAMMAR_ONE, GRAMMAR_TWO, GRAMMAR_THREE, GRAMMAR_CHOMSKY, GRAMMAR_CHOMSKY_EMPTY}) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			grammar.toAugmentedGrammar();
+			FiniteAutomaton<Item> expected = new BigProductionGraph(grammar).powersetConstruction();
+			FiniteAutomaton<Item> actual = new CanonicalCollection(grammar).getAutomaton();
+			assertEquals("Uncorrect LR(1) item sets count by " + strGrammar, 
+					expected.getStates().size(), actual.getStates().size());
+			assertEquals("Uncorrect LR(1) transitions count by " + strGrammar, 
+					expected.getAllTransitions().size(), actual.getAllTransitions().size());
+			assertEquals("Uncorrect LR(1) final states count by " + strGrammar, 
+					expected.getFinals().size(), actual.getFinals().size());
+			assertEquals("Uncorrect LR(1) initial state by " + strGrammar, 
+					Integer.valueOf(0), actual.getInitial().getId());
+			assertEquals("Uncorrect LR(1) alphabet by " + strGrammar, expected.getAlphabet(), actual.getAlphabet());
+		}
+	}
+	
+	@Test public void sameLanguage() {
+		for (String strGrammar : new String[]{GRAMMAR_ONE, GRAMMAR_TWO, GRAMMAR_THREE}) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			LROneParser parser = new LROneParser(grammar);
+			Grammar augmented = Grammar.generateGrammar(strGrammar);
+			augmented.toAugmentedGrammar();
+			FiniteAutomaton<Item> expected = new BigProductionGraph(augmented).powersetConstruction();
+			assertEquals("Uncorrect LR(1) item sets count by " + strGrammar, 
+					expected.getStates().size(), parser.getRecognitionMatrix().getAutomaton().getStates().size());
+			for (String word : getWords("abcd", 4))
+				assertEquals("Uncorrect LR(1) parsing of " + word + " by " + strGrammar, 
+						CYKParser.parse(grammar, word), parser.parse(word));
+		}
+	}
+	
+	@Test public void nullableSuffixLookAhead() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_NULLABLE_SUFFIX);
+		LROneParser parser = new LROneParser(grammar);
+		assertTrue("Uncorrect LR(1) check", parser.isLROneGrammar());
+		assertTrue("Uncorrect LR(1) parsing: A must be reduced on c", parser.parse("ac"));
+		assertTrue(parser.parse("abc"));
+		assertFalse(parser.parse("ab"));
+		assertFalse(parser.parse("abbc"));
+	}
+	
+	@Test public void epsilonItems() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_TWO);
+		grammar.toAugmentedGrammar();
+		FiniteAutomaton<Item> automaton = new CanonicalCollection(grammar).getAutomaton();
+		for (State<Item> state : automaton.getStates())
+			for (Item item : state.getValue())
+				if (item.getProduction().isEpsilonProduction())
+					assertTrue("Uncorrect LR(1) epsilon item: should be complete", item.isComplete());
+	}
+
+}
@@ -0,0 +1,100 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+import static com.gmarciani.gmparser.parser.Words.getWords;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.recognition.ActionType;
+import com.gmarciani.gmparser.models.parser.lr.recognition.CombActionTable;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.PackedActionTable;
+
+public class TestCombActionTable {
+	
+	private static final String GRAMMAR_LR1_ONE_EXAM = "S->BBa;B->Bb|c.";
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_LR1_TWO = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_LR1_THREE = "X->S;S->aA|bB;A->cAd|" + Grammar.EPSILON + ";B->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_EXPRESSION = "E->E+T|T;T->T*F|F;F->(E)|a.";
+	
+	private static final String GRAMMARS[] = {GRAMMAR_LR1_ONE_EXAM, GRAMMAR_LR1_ONE, GRAMMAR_LR1_TWO, GRAMMAR_LR1_THREE, GRAMMAR_EXPRESSION};
+	
+	@Test public void sameAsDense() {
+		for (String strGrammar : GRAMMARS) {
+			LROneMatrix matrix = new LROneParser(Grammar.generateGrammar(strGrammar)).getRecognitionMatrix();
+			PackedActionTable dense = matrix.getPackedActions();
+			CombActionTable comb = new CombActionTable(dense);
+			for (Integer stateId : matrix.getDomainX()) {
+				for (Character symbol : matrix.getDomainY()) {
+					int expected = dense.getCode(stateId, symbol);
+					int actual = comb.getCode(stateId, symbol);
+					if (expected != 0) {
+						assertEquals("Uncorrect compressed action for " + stateId + "," + symbol + " by " + strGrammar, expected, actual);
+						assertEquals(dense.getAction(stateId, symbol), comb.getAction(stateId, symbol));
+					} else {
+						assertTrue("Uncorrect compressed action for " + stateId + "," + symbol + " by " + strGrammar + ": only default reductions can fill errors", 
+								actual == 0 || PackedActionTable.isType(actual, ActionType.REDUCE));
+					}
+				}
+			}
+			assertEquals(0, comb.getCode(-1, 'a'));
+			assertNull(comb.getAction(0, 0x10000));
+		}
+	}
+	
+	@Test public void smaller() {
+		LROneMatrix matrix = new LROneParser(Grammar.generateGrammar(GRAMMAR_EXPRESSION)).getRecognitionMatrix();
+		PackedActionTable dense = matrix.getPackedActions();
+		CombActionTable comb = new CombActionTable(dense);
+		assertTrue("Uncorrect compressed table: should be smaller than " + dense.getSize() + ", but is " + comb.getSize(), comb.getSize() < dense.getSize());
+		assertTrue("Uncorrect compressed table: should deduplicate rows", comb.getUniqueRowCount() < matrix.getDomainX().size());
+	}
+	
+	@Test public void recognitionMatrixOnDemand() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_EXPRESSION);
+		PackedActionTable dense = new LROneParser(grammar).getRecognitionMatrix().getPackedActions();
+		LROneMatrix matrix = new LROneParser(grammar, true).getRecognitionMatrix();
+		PackedActionTable generated = matrix.getPackedActions();
+		for (Integer stateId : matrix.getDomainX())
+			for (Character symbol : matrix.getDomainY())
+				assertEquals("Uncorrect generated LR(1) recognition matrix for " + stateId + "," + symbol, 
+						dense.getCode(stateId, symbol), generated.getCode(stateId, symbol));
+	}
+	
+	@Test public void sameParse() {
+		for (String strGrammar : GRAMMARS) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			LROneParser dense = new LROneParser(grammar);
+			LROneParser compressed = new LROneParser(grammar, true);
+			for (String word : getWords("abcd+*()", 5))
+				assertEquals("Uncorrect compressed LR(1) parsing for " + word + " by " + strGrammar, dense.parse(word), compressed.parse(word));
+		}
+	}
+
+}
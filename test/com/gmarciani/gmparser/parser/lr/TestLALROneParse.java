@@ -0,0 +1,86 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+import static com.gmarciani.gmparser.parser.Words.getWords;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.ParserFactory;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.lr.LALROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+
+public class TestLALROneParse {
+	
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_LR1_TWO = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_LR1_NOTLALR1 = "S->aAd|bBd|aBe|bAe;A->c;B->c.";
+	
+	@Test public void sameAsLROne() {
+		for (String strGrammar : new String[]{GRAMMAR_LR1_ONE, GRAMMAR_LR1_TWO}) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			LROneParser lrParser = new LROneParser(grammar);
+			LALROneParser lalrParser = new LALROneParser(grammar);
+			assertTrue("Uncorrect LALR(1) check: should be LALR(1) " + strGrammar, lalrParser.isLALROneGrammar());
+			assertTrue("Uncorrect LALR(1) merge: should not introduce conflicts", lalrParser.getMergeConflicts().isEmpty());
+			for (String word : getWords("abcd", 5))
+				assertEquals("Uncorrect LALR(1) parsing of " + word + " by " + strGrammar, 
+						lrParser.parse(word), lalrParser.parse(word));
+		}
+	}
+	
+	@Test public void fewerStates() {
+		LROneParser lrParser = new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE));
+		LALROneParser lalrParser = new LALROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE));
+		int canonicalStates = lrParser.getRecognitionMatrix().getAutomaton().getStates().size();
+		int mergedStates = lalrParser.getRecognitionMatrix().getAutomaton().getStates().size();
+		assertEquals("Uncorrect canonical LR(1) states", 10, canonicalStates);
+		assertEquals("Uncorrect LALR(1) states", 7, mergedStates);
+		assertEquals("Uncorrect LALR(1) merged states", 3, lalrParser.getAutomaton().getMergedStateCount());
+	}
+	
+	@Test public void mergeConflicts() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_NOTLALR1);
+		assertTrue("Uncorrect LR(1) check: should be LR(1)", LROneParser.isLROneGrammar(grammar));
+		LALROneParser parser = new LALROneParser(grammar);
+		assertFalse("Uncorrect LALR(1) check: should not be LALR(1)", parser.isLALROneGrammar());
+		assertEquals("Uncorrect LALR(1) merge conflicts", 2, parser.getMergeConflicts().size());
+		for (int i = 0; i < parser.getMergeConflicts().size(); i ++) {
+			Character symbol = parser.getMergeConflicts().get(i).getY();
+			assertTrue("Uncorrect LALR(1) merge conflict symbol", symbol == 'd' || symbol == 'e');
+		}
+		assertFalse("Uncorrect LALR(1) parsing: non LALR(1) grammars are rejected", parser.parse("acd"));
+	}
+	
+	@Test public void factory() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		assertEquals(ParserType.LALR1, ParserFactory.createParser(grammar, ParserType.LALR1).getParserType());
+		assertTrue(ParserFactory.createParser(grammar, ParserType.LALR1).parse("cdccd"));
+		assertEquals(ParserType.LALR1, new LALROneParser(grammar).parseWithSession("dd").getParserType());
+	}
+
+}
@@ -130,5 +130,29 @@ public class TestLROneParse {
 		for (String word : notAcceptableWords)
 			assertFalse("Uncorrect LR(1) parsing. Should not be parsed, because not LR1 grammar: " + word, LROneParser.parse(grammar, word));
 	}
+	
+	@Test public void parseDeepStack() {
+		LROneParser parser = new LROneParser(Grammar.generateGrammar("S->aSb|c."));
+		int depth = LROneParser.STACK_SIZE * 40;
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i < depth; i ++)
+			word.append('a');
+		word.append('c');
+		for (int i = 0; i < depth; i ++)
+			word.append('b');
+		assertTrue("Uncorrect LR(1) parsing. Should be parsed: a^nb^n, with n=" + depth, parser.parse(word.toString()));
+		word.append('b');
+		assertFalse("Uncorrect LR(1) parsing. Should not be parsed: a^nb^(n+1), with n=" + depth, parser.parse(word.toString()));
+	}
+	
+	@Test public void parseEpsilonReductions() {
+		LROneParser parser = new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_THREE)); // a(c^n d^n)|b
+		String acceptableWords[] = {"a", "b", "acd", "accdd", "acccddd"};
+		String notAcceptableWords[] = {"", "ab", "ac", "acdd", "bcd", "accd"};
+		for (String word : acceptableWords)
+			assertTrue("Uncorrect LR(1) parsing. Should be parsed: " + word, parser.parse(word));
+		for (String word : notAcceptableWords)
+			assertFalse("Uncorrect LR(1) parsing. Should not be parsed: " + word, parser.parse(word));
+	}
 
 }
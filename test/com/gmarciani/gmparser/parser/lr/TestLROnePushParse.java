@@ -0,0 +1,106 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.TokenStream;
+import com.gmarciani.gmparser.models.parser.lr.LALROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LROnePushParser;
+
+public class TestLROnePushParse {
+
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_LR1_TWO = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_LR1_THREE = "X->S;S->aA|bB;A->cAd|" + Grammar.EPSILON + ";B->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+
+	private static final String WORDS[] = {"", "a", "b", "d", "dd", "cdcd", "ccdd", "cccdcd", "cdcddd", "abab", "aab", "bab", "aaabbb$", "acd", "accdd", "acdd", "dd$", "dd$cc"};
+
+	@Test public void sameAsParser() {
+		for (String strGrammar : new String[]{GRAMMAR_LR1_ONE, GRAMMAR_LR1_TWO, GRAMMAR_LR1_THREE}) {
+			LROneParser parser = new LROneParser(Grammar.generateGrammar(strGrammar));
+			LROnePushParser pushParser = new LROnePushParser(parser.getTable());
+			for (String word : WORDS) {
+				for (int chunkSize = 1; chunkSize <= Math.max(1, word.length()); chunkSize ++) {
+					pushParser.reset();
+					for (int i = 0; i < word.length(); i += chunkSize)
+						pushParser.feed(word.substring(i, Math.min(word.length(), i + chunkSize)));
+					assertEquals("Uncorrect LR(1) push parsing of " + word + " by chunks of " + chunkSize + " by " + strGrammar,
+							parser.parse(word), pushParser.finish());
+				}
+			}
+		}
+	}
+
+	@Test public void sameAsLALROneParser() {
+		LALROneParser parser = new LALROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE));
+		LROnePushParser pushParser = new LROnePushParser(parser.getTable());
+		for (String word : WORDS) {
+			pushParser.reset();
+			pushParser.feed(TokenStream.of(word));
+			assertEquals("Uncorrect LALR(1) push parsing of " + word, parser.parse(word), pushParser.finish());
+		}
+	}
+
+	@Test public void earlyRejection() {
+		LROnePushParser pushParser = new LROnePushParser(new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getTable());
+		assertTrue("Uncorrect LR(1) push parsing: should be a prefix", pushParser.feed("ccd"));
+		assertFalse("Uncorrect LR(1) push parsing: should not be a prefix", pushParser.feed("cdd"));
+		assertTrue("Uncorrect LR(1) push parsing: should be rejected", pushParser.isRejected());
+		assertEquals("Uncorrect LR(1) push parsing: wrong offending token", 5, pushParser.getPosition());
+		assertFalse("Uncorrect LR(1) push parsing: should stay rejected", pushParser.feed('d'));
+		assertFalse("Uncorrect LR(1) push parsing: should not be accepted", pushParser.finish());
+
+		pushParser.reset();
+		assertFalse("Uncorrect LR(1) push parsing: should reject a non terminal id", pushParser.feed(Character.MAX_VALUE + 1));
+		assertEquals("Uncorrect LR(1) push parsing: wrong offending token", 0, pushParser.getPosition());
+	}
+
+	@Test public void longInput() {
+		LROnePushParser pushParser = new LROnePushParser(new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_TWO)).getTable());
+		for (int i = 0; i < 100000; i ++)
+			assertTrue("Uncorrect LR(1) push parsing: should be a prefix", pushParser.feed((i % 2 == 0) ? 'a' : 'b'));
+		assertTrue("Uncorrect LR(1) push parsing: should be accepted", pushParser.finish());
+		assertTrue("Uncorrect LR(1) push parsing: should be finished", pushParser.isFinished());
+		assertTrue("Uncorrect LR(1) push parsing: finishing again should have no effect", pushParser.finish());
+		assertEquals("Uncorrect LR(1) push parsing: wrong tokens read", 100000, pushParser.getPosition());
+	}
+
+	@Test(expected = IllegalStateException.class) public void feedFinished() {
+		LROnePushParser pushParser = new LROnePushParser(new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getTable());
+		pushParser.feed("dd");
+		pushParser.finish();
+		pushParser.feed('d');
+	}
+
+	@Test(expected = IllegalArgumentException.class) public void notLROneGrammar() {
+		new LROnePushParser(new LROneParser(Grammar.generateGrammar(GRAMMAR_NOTLR1_NOTCHOMSKY)).getTable());
+	}
+
+}
@@ -0,0 +1,114 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.lr.LALROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneSourceGenerator;
+
+public class TestLROneSourceGenerator {
+
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_LR1_TWO = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_LR1_THREE = "X->S;S->aA|bB;A->cAd|" + Grammar.EPSILON + ";B->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+
+	private static final String WORDS[] = {"", "a", "b", "d", "dd", "cdcd", "ccdd", "cccdcd", "abab", "aab", "bab", "acd", "accdd", "acdd", "b$", "dd$"};
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test public void sameAsParser() throws Exception {
+		int i = 0;
+		for (String strGrammar : new String[]{GRAMMAR_LR1_ONE, GRAMMAR_LR1_TWO, GRAMMAR_LR1_THREE}) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			LROneParser parser = new LROneParser(grammar);
+			String className = "com.gmarciani.generated.Parser" + (i ++);
+			Method parse = this.compile(parser.getRecognitionMatrix(), className).getMethod("parse", CharSequence.class);
+			for (String word : WORDS)
+				assertEquals("Uncorrect generated LR(1) parsing of " + word + " by " + strGrammar,
+						parser.parse(word), parse.invoke(null, word));
+		}
+	}
+
+	@Test public void sameAsLALROneParser() throws Exception {
+		LALROneParser parser = new LALROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE));
+		Method parse = this.compile(parser.getRecognitionMatrix(), "LALRParser").getMethod("parse", int[].class, int.class, int.class);
+		for (String word : WORDS) {
+			int tokens[] = new int[word.length() + 2];
+			for (int t = 0; t < word.length(); t ++)
+				tokens[t + 1] = word.charAt(t);
+			assertEquals("Uncorrect generated LALR(1) parsing of " + word,
+					parser.parse(word), parse.invoke(null, tokens, 1, word.length()));
+		}
+	}
+
+	@Test public void generatedSource() {
+		LROneMatrix matrix = new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getRecognitionMatrix();
+		String source = LROneSourceGenerator.generate(matrix, "com.gmarciani.generated.ExprParser");
+		assertTrue("Uncorrect generated source: should declare the package", source.startsWith("package com.gmarciani.generated;"));
+		assertTrue("Uncorrect generated source: should declare the class", source.contains("public final class ExprParser {"));
+		assertFalse("Uncorrect generated source: should not depend on GMParser", source.contains("import "));
+		assertFalse("Uncorrect generated source: should not declare the package",
+				LROneSourceGenerator.generate(matrix, "ExprParser").contains("package "));
+	}
+
+	@Test(expected = IllegalArgumentException.class) public void notLROneGrammar() {
+		LROneSourceGenerator.generate(new LROneParser(Grammar.generateGrammar(GRAMMAR_NOTLR1_NOTCHOMSKY)).getRecognitionMatrix(), "Parser");
+	}
+
+	@Test(expected = IllegalArgumentException.class) public void notAClassName() {
+		LROneSourceGenerator.generate(new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getRecognitionMatrix(), "com.gmarciani.1Parser");
+	}
+
+	private Class<?> compile(LROneMatrix matrix, String className) throws IOException, ClassNotFoundException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(compiler); // the generated source can be compiled on a JDK only.
+		File sources = this.folder.newFolder();
+		File source = new File(sources, className.substring(className.lastIndexOf('.') + 1) + ".java");
+		LROneSourceGenerator.write(matrix, className, source);
+		assertEquals("Uncorrect generated source: should compile", 0,
+				compiler.run(null, null, null, "-nowarn", "-encoding", "UTF-8", "-d", sources.getPath(), source.getPath()));
+		URLClassLoader loader = new URLClassLoader(new URL[]{sources.toURI().toURL()});
+		return loader.loadClass(className);
+	}
+
+}
@@ -0,0 +1,80 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.grammar.production.Production;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable;
+
+public class TestLROneTable {
+	
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_LR1_TWO = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+	
+	@Test public void sameAsMatrix() {
+		for (String strGrammar : new String[]{GRAMMAR_LR1_ONE, GRAMMAR_LR1_TWO, GRAMMAR_NOTLR1_NOTCHOMSKY}) {
+			LROneParser parser = new LROneParser(Grammar.generateGrammar(strGrammar));
+			LROneMatrix matrix = parser.getRecognitionMatrix();
+			LROneTable table = parser.getTable();
+			assertEquals("Uncorrect LR(1) table initial state", matrix.getAutomaton().getInitial().getId().intValue(), table.getInitialState());
+			for (Integer stateId : matrix.getDomainX())
+				for (Character symbol : matrix.getDomainY())
+					assertEquals("Uncorrect LR(1) table action for " + stateId + "," + symbol + " by " + strGrammar, 
+							matrix.getAction(stateId, symbol), table.getAction(stateId, symbol));
+			assertEquals(matrix.getProductions(), table.getProductions());
+			for (int p = 0; p < table.getProductions().size(); p ++) {
+				Production production = table.getProductions().get(p);
+				assertEquals(production.getLeft().getValueAsChars()[0], table.getProductionLeft(p));
+				assertEquals(production.isEpsilonProduction() ? 0 : production.getRight().getValueAsChars().length, table.getProductionLength(p));
+			}
+		}
+	}
+	
+	@Test public void conflicts() {
+		assertTrue(new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getTable().isLROne());
+		assertTrue(new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_TWO)).getTable().isLROne());
+		LROneTable table = new LROneParser(Grammar.generateGrammar(GRAMMAR_NOTLR1_NOTCHOMSKY)).getTable();
+		assertFalse("Uncorrect LR(1) table: should have conflicts", table.isLROne());
+		assertTrue(table.getConflictCount() > 0);
+	}
+	
+	@Test(expected = UnsupportedOperationException.class) public void immutable() {
+		LROneTable table = new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getTable();
+		table.getProductions().clear();
+	}
+	
+	@Test public void missingAction() {
+		LROneTable table = new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getTable();
+		assertNull(table.getAction(table.getInitialState(), 'z'));
+		assertNull(table.getAction(-1, 'c'));
+	}
+
+}
@@ -0,0 +1,118 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTable;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneTableFile;
+
+public class TestLROneTableFile {
+	
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_LR1_TWO = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_LR1_THREE = "X->S;S->aA|bB;A->cAd|" + Grammar.EPSILON + ";B->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+	
+	private static final String WORDS[] = {"", "a", "b", "dd", "cdcd", "ccdd", "abab", "acd", "accdd", "acdd", "aab", "bab"};
+	
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test public void sameAsCompiled() throws IOException {
+		for (String strGrammar : new String[]{GRAMMAR_LR1_ONE, GRAMMAR_LR1_TWO, GRAMMAR_LR1_THREE, GRAMMAR_NOTLR1_NOTCHOMSKY}) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			LROneParser compiled = new LROneParser(grammar);
+			File file = this.folder.newFile();
+			compiled.writeTable(file);
+			LROneParser loaded = new LROneParser(grammar, file);
+			LROneMatrix matrix = compiled.getRecognitionMatrix();
+			LROneTable table = loaded.getTable();
+			assertEquals("Uncorrect loaded LR(1) table initial state", compiled.getTable().getInitialState(), table.getInitialState());
+			assertEquals("Uncorrect loaded LR(1) table conflicts", compiled.getTable().getConflictCount(), table.getConflictCount());
+			assertEquals("Uncorrect loaded LR(1) table productions", compiled.getTable().getProductions(), table.getProductions());
+			for (Integer stateId : matrix.getDomainX())
+				for (Character symbol : matrix.getDomainY())
+					assertEquals("Uncorrect loaded LR(1) table action for " + stateId + "," + symbol + " by " + strGrammar, 
+							matrix.getAction(stateId, symbol), table.getAction(stateId, symbol));
+			for (String word : WORDS)
+				assertEquals("Uncorrect loaded LR(1) parsing of " + word + " by " + strGrammar, 
+						compiled.parse(word), loaded.parse(word));
+		}
+	}
+	
+	@Test public void sessionFromLoaded() throws IOException {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		File file = this.folder.newFile();
+		new LROneParser(grammar).writeTable(file);
+		LROneParser loaded = new LROneParser(grammar, file);
+		assertTrue(loaded.parseWithSession("cdd").getResult());
+		assertNotNull(loaded.getRecognitionMatrix());
+	}
+	
+	@Test(expected = IOException.class) public void staleGrammar() throws IOException {
+		File file = this.folder.newFile();
+		new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).writeTable(file);
+		new LROneParser(Grammar.generateGrammar("X->S;S->CC;C->cC|e."), file);
+	}
+	
+	@Test(expected = IOException.class) public void notATableFile() throws IOException {
+		File file = this.folder.newFile();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.writeInt(0xCAFEBABE);
+		raf.setLength(LROneTableFile.HEADER_INTS * 4);
+		raf.close();
+		new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE), file);
+	}
+	
+	@Test(expected = IOException.class) public void unsupportedVersion() throws IOException {
+		File file = this.folder.newFile();
+		new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).writeTable(file);
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(4);
+		raf.writeInt(LROneTableFile.VERSION + 1);
+		raf.close();
+		new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE), file);
+	}
+	
+	@Test public void fingerprint() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_ONE);
+		Grammar reordered = Grammar.generateGrammar("X->S;C->d|cC;S->CC.");
+		assertEquals("Uncorrect grammar fingerprint: should not depend on productions order", 
+				LROneTableFile.getFingerprint(grammar), LROneTableFile.getFingerprint(reordered));
+		assertNotEquals("Uncorrect grammar fingerprint: should depend on productions", 
+				LROneTableFile.getFingerprint(grammar), LROneTableFile.getFingerprint(Grammar.generateGrammar(GRAMMAR_LR1_TWO)));
+	}
+
+}
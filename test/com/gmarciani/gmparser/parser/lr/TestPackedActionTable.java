@@ -0,0 +1,86 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.recognition.Action;
+import com.gmarciani.gmparser.models.parser.lr.recognition.ActionType;
+import com.gmarciani.gmparser.models.parser.lr.recognition.LROneMatrix;
+import com.gmarciani.gmparser.models.parser.lr.recognition.PackedActionTable;
+
+public class TestPackedActionTable {
+	
+	private static final String GRAMMAR_LR1_ONE = "X->S;S->CC;C->cC|d.";
+	private static final String GRAMMAR_LR1_THREE = "X->S;S->aA|bB;A->cAd|" + Grammar.EPSILON + ";B->" + Grammar.EPSILON + ".";
+	private static final String GRAMMAR_NOTLR1_NOTCHOMSKY = "S->aL|bL|bR;L->aS|a|b;R->bS|a|b.";
+	
+	@Test public void encode() {
+		for (ActionType type : ActionType.values()) {
+			for (Integer value : new Integer[]{null, 0, 1, 17, (1 << PackedActionTable.VALUE_BITS) - 2}) {
+				Action action = new Action(type, value);
+				int code = PackedActionTable.encode(action);
+				assertTrue("Uncorrect packed action: 0 stands for no action", code != 0);
+				assertEquals(type, PackedActionTable.getType(code));
+				assertTrue(PackedActionTable.isType(code, type));
+				assertEquals(action.getValue().intValue(), PackedActionTable.getValue(code));
+			}
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class) public void encodeOverflow() {
+		PackedActionTable.encode(new Action(ActionType.SHIFT, 1 << PackedActionTable.VALUE_BITS));
+	}
+	
+	@Test public void sameAsFunction() {
+		for (String strGrammar : new String[]{GRAMMAR_LR1_ONE, GRAMMAR_LR1_THREE, GRAMMAR_NOTLR1_NOTCHOMSKY}) {
+			LROneMatrix matrix = new LROneParser(Grammar.generateGrammar(strGrammar)).getRecognitionMatrix();
+			PackedActionTable packed = matrix.getPackedActions();
+			int conflicts = 0;
+			for (Integer stateId : matrix.getDomainX()) {
+				for (Character symbol : matrix.getDomainY()) {
+					Action expected = matrix.containsXY(stateId, symbol) ? matrix.getAllForXY(stateId, symbol).getFirst().getZ() : null;
+					assertEquals("Uncorrect packed action for " + stateId + "," + symbol + " by " + strGrammar, expected, packed.getAction(stateId, symbol));
+					assertEquals(expected == null ? 0 : PackedActionTable.encode(expected), packed.getCode(stateId, symbol));
+					if (matrix.getAllForXY(stateId, symbol).size() > 1)
+						conflicts ++;
+				}
+			}
+			assertEquals("Uncorrect packed conflicts by " + strGrammar, conflicts, packed.getConflictCount());
+		}
+	}
+	
+	@Test public void missing() {
+		PackedActionTable packed = new LROneParser(Grammar.generateGrammar(GRAMMAR_LR1_ONE)).getRecognitionMatrix().getPackedActions();
+		assertEquals(0, packed.getCode(-1, 'c'));
+		assertEquals(0, packed.getCode(Integer.MAX_VALUE, 'c'));
+		assertEquals(0, packed.getCode(0, 0x10000));
+		assertNull(packed.getAction(0, 'z'));
+	}
+
+}
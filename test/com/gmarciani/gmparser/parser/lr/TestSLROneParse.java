@@ -0,0 +1,90 @@
+/*	The MIT License (MIT)
+ *
+ *	Copyright (c) 2014 Giacomo Marciani
+ *	
+ *	Permission is hereby granted, free of charge, to any person obtaining a copy
+ *	of this software and associated documentation files (the "Software"), to deal
+ *	in the Software without restriction, including without limitation the rights
+ *	to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *	copies of the Software, and to permit persons to whom the Software is
+ *	furnished to do so, subject to the following conditions:
+ *	
+ *	The above copyright notice and this permission notice shall be included in all
+ *	copies or substantial portions of the Software.
+ *	
+ *	THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *	IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *	FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *	AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *	LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *	OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *	SOFTWARE.
+*/
+
+package com.gmarciani.gmparser.parser.lr;
+
+import static org.junit.Assert.*;
+import static com.gmarciani.gmparser.parser.Words.getWords;
+
+import org.junit.Test;
+
+import com.gmarciani.gmparser.models.grammar.Grammar;
+import com.gmarciani.gmparser.models.parser.ParserFactory;
+import com.gmarciani.gmparser.models.parser.ParserType;
+import com.gmarciani.gmparser.models.parser.lr.LROneParser;
+import com.gmarciani.gmparser.models.parser.lr.LRZeroParser;
+import com.gmarciani.gmparser.models.parser.lr.SLROneParser;
+
+public class TestSLROneParse {
+	
+	private static final String GRAMMAR_LR0 = "S->aSb|c.";
+	private static final String GRAMMAR_SLR1_NOTLR0 = "E->EpT|T;T->TmF|F;F->lEr|a.";
+	private static final String GRAMMAR_SLR1_EPSILON = "S->A;A->BA|" + Grammar.EPSILON + ";B->aB|b.";
+	private static final String GRAMMAR_LR1_NOTSLR1 = "S->LeR|R;L->sR|i;R->L.";
+	
+	@Test public void sameAsLROne() {
+		for (String strGrammar : new String[]{GRAMMAR_LR0, GRAMMAR_SLR1_NOTLR0, GRAMMAR_SLR1_EPSILON}) {
+			Grammar grammar = Grammar.generateGrammar(strGrammar);
+			LROneParser lrParser = new LROneParser(grammar);
+			SLROneParser slrParser = new SLROneParser(grammar);
+			assertTrue("Uncorrect SLR(1) check: should be SLR(1) " + strGrammar, slrParser.isSLROneGrammar());
+			for (String word : getWords("ablmpr", 4))
+				assertEquals("Uncorrect SLR(1) parsing of " + word + " by " + strGrammar, 
+						lrParser.parse(word), slrParser.parse(word));
+		}
+	}
+	
+	@Test public void fewerStates() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_SLR1_NOTLR0);
+		int canonicalStates = new LROneParser(grammar).getRecognitionMatrix().getAutomaton().getStates().size();
+		int lrZeroStates = new SLROneParser(grammar).getRecognitionMatrix().getAutomaton().getStates().size();
+		assertEquals("Uncorrect LR(0) item sets", 12, lrZeroStates);
+		assertTrue("Uncorrect LR(0) item sets: should be fewer than LR(1) item sets", lrZeroStates < canonicalStates);
+	}
+	
+	@Test public void notSLROne() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR1_NOTSLR1);
+		assertTrue("Uncorrect LR(1) check: should be LR(1)", LROneParser.isLROneGrammar(grammar));
+		assertFalse("Uncorrect SLR(1) check: should not be SLR(1)", SLROneParser.isSLROneGrammar(grammar));
+		assertFalse("Uncorrect SLR(1) parsing: non SLR(1) grammars are rejected", SLROneParser.parse(grammar, "iei"));
+	}
+	
+	@Test public void lrZero() {
+		assertTrue("Uncorrect LR(0) check: should be LR(0)", LRZeroParser.isLRZeroGrammar(Grammar.generateGrammar(GRAMMAR_LR0)));
+		assertFalse("Uncorrect LR(0) check: should not be LR(0)", LRZeroParser.isLRZeroGrammar(Grammar.generateGrammar(GRAMMAR_SLR1_NOTLR0)));
+		LRZeroParser parser = new LRZeroParser(Grammar.generateGrammar(GRAMMAR_LR0));
+		assertTrue(parser.parse("c"));
+		assertTrue(parser.parse("aacbb"));
+		assertFalse(parser.parse("aacb"));
+		assertFalse(parser.parse(""));
+	}
+	
+	@Test public void factory() {
+		Grammar grammar = Grammar.generateGrammar(GRAMMAR_LR0);
+		assertEquals(ParserType.SLR1, ParserFactory.createParser(grammar, ParserType.SLR1).getParserType());
+		assertEquals(ParserType.LR0, ParserFactory.createParser(grammar, ParserType.LR0).getParserType());
+		assertTrue(ParserFactory.createParser(grammar, ParserType.LR0).parse("acb"));
+		assertEquals(ParserType.LR0, new LRZeroParser(grammar).parseWithSession("acb").getParserType());
+	}
+
+}